@@ -0,0 +1,471 @@
+package org.jutility.javafx.collections;
+
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.concurrent.atomic.LongAdder;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+
+/**
+ * The {@code CellUpdateBuffer} class buffers updates of the cells of a table
+ * and applies them in batches on the JavaFX Application Thread.
+ * <p>
+ * Updates can be {@link #update(int, int, Object) submitted} from any thread.
+ * Updates of the same cell are coalesced (the last value wins), and pending
+ * updates are {@link #flush() flushed} to the {@link ICellWriter writer} at
+ * most once per pulse by an {@link AnimationTimer}. The timer only runs while
+ * updates are pending; starting it requires a single
+ * {@link Platform#runLater(Runnable)} per burst of updates, however many
+ * updates the burst contains.
+ * </p>
+ * <p>
+ * Pending updates are kept in an open-addressing hash table keyed by the
+ * primitive cell coordinates, so that submitting an update of a cell does not
+ * allocate. Updates flushed while no writer is set are discarded, and counted
+ * as such rather than as applied.
+ * </p>
+ *
+ * @param <T>
+ *            the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class CellUpdateBuffer<T> {
+
+    private static final Object  NULL = new Object();
+
+    private final Runnable       flushListener;
+    private final AnimationTimer timer;
+
+    private final LongAdder      updatesReceived;
+    private final LongAdder      updatesApplied;
+    private final LongAdder      updatesDiscarded;
+    private final LongAdder      flushes;
+
+    private ICellWriter<T>       writer;
+    private CellMap              pending;
+    private CellMap              spare;
+    private boolean              scheduled;
+
+
+    /**
+     * Returns the writer the updates are flushed to.
+     *
+     * @return the writer, or {@code null}, if updates are discarded.
+     */
+    public ICellWriter<T> getWriter() {
+
+        return this.writer;
+    }
+
+    /**
+     * Sets the writer the updates are flushed to. This method must be called
+     * on the JavaFX Application Thread.
+     *
+     * @param writer
+     *            the writer, or {@code null}, if updates are discarded.
+     */
+    public void setWriter(final ICellWriter<T> writer) {
+
+        this.writer = writer;
+    }
+
+
+    /**
+     * Returns the number of updates submitted since the last reset.
+     *
+     * @return the number of updates received.
+     */
+    public long getUpdatesReceived() {
+
+        return this.updatesReceived.sum();
+    }
+
+    /**
+     * Returns the number of updates written since the last reset. The
+     * difference to the {@link #getUpdatesReceived() number of updates
+     * received} is the number of updates that were coalesced (or are still
+     * pending).
+     *
+     * @return the number of updates applied.
+     */
+    public long getUpdatesApplied() {
+
+        return this.updatesApplied.sum();
+    }
+
+    /**
+     * Returns the number of updates discarded since the last reset, because
+     * they were flushed while no writer was set or after the writer failed,
+     * or {@link #clear() cleared}.
+     *
+     * @return the number of updates discarded.
+     */
+    public long getUpdatesDiscarded() {
+
+        return this.updatesDiscarded.sum();
+    }
+
+    /**
+     * Returns the number of flushes that applied updates since the last reset.
+     *
+     * @return the number of flushes.
+     */
+    public long getFlushes() {
+
+        return this.flushes.sum();
+    }
+
+    /**
+     * Returns the number of cells with pending updates.
+     *
+     * @return the number of pending updates.
+     */
+    public synchronized int getPendingUpdates() {
+
+        return this.pending.size();
+    }
+
+
+    /**
+     * Creates a new instance of the {@link CellUpdateBuffer} class.
+     *
+     * @param writer
+     *            the writer the updates are flushed to.
+     */
+    public CellUpdateBuffer(final ICellWriter<T> writer) {
+
+        this(writer, null);
+    }
+
+    /**
+     * Creates a new instance of the {@link CellUpdateBuffer} class.
+     *
+     * @param writer
+     *            the writer the updates are flushed to, or {@code null}, if
+     *            updates are discarded until a writer is set.
+     * @param flushListener
+     *            notified on the JavaFX Application Thread after each flush
+     *            that wrote updates, even if the writer failed (can be
+     *            {@code null}).
+     */
+    public CellUpdateBuffer(final ICellWriter<T> writer,
+            final Runnable flushListener) {
+
+        this.writer = writer;
+        this.flushListener = flushListener;
+        this.updatesReceived = new LongAdder();
+        this.updatesApplied = new LongAdder();
+        this.updatesDiscarded = new LongAdder();
+        this.flushes = new LongAdder();
+        this.pending = new CellMap();
+        this.spare = new CellMap();
+        this.scheduled = false;
+
+        this.timer = new AnimationTimer() {
+
+            @Override
+            public void handle(final long now) {
+
+                CellUpdateBuffer.this.flush();
+                CellUpdateBuffer.this.stopIfIdle();
+            }
+        };
+    }
+
+
+    /**
+     * Submits an update of a cell. This method can be called from any thread.
+     *
+     * @param row
+     *            the row of the cell.
+     * @param column
+     *            the column of the cell.
+     * @param value
+     *            the new value of the cell.
+     */
+    public void update(final int row, final int column, final T value) {
+
+        this.updatesReceived.increment();
+
+        final boolean schedule;
+
+        synchronized (this) {
+
+            this.pending.put(CellUpdateBuffer.key(row, column),
+                    (value == null) ? CellUpdateBuffer.NULL : value);
+
+            schedule = !this.scheduled;
+            this.scheduled = true;
+        }
+
+        if (schedule) {
+
+            Platform.runLater(this.timer::start);
+        }
+    }
+
+    /**
+     * Writes all pending updates, or discards them, if no writer is set. This
+     * method must be called on the JavaFX Application Thread.
+     */
+    public void flush() {
+
+        final CellMap batch;
+
+        synchronized (this) {
+
+            if (this.pending.isEmpty()) {
+
+                return;
+            }
+
+            batch = this.pending;
+            this.pending = (this.spare != null) ? this.spare : new CellMap();
+            this.spare = null;
+        }
+
+        final ICellWriter<T> currentWriter = this.writer;
+
+        if (currentWriter == null) {
+
+            this.updatesDiscarded.add(batch.size());
+            this.recycle(batch);
+            return;
+        }
+
+        int written = 0;
+
+        try {
+
+            for (int i = 0; i < batch.size(); i++) {
+
+                final long key = batch.key(i);
+                final Object value = batch.value(i);
+
+                @SuppressWarnings("unchecked")
+                final T typedValue = (value == CellUpdateBuffer.NULL) ? null
+                        : (T) value;
+
+                currentWriter.write((int) (key >>> 32), (int) key,
+                        typedValue);
+                written++;
+            }
+
+            this.flushes.increment();
+        }
+        finally {
+
+            // if the writer failed, the update it failed on and the updates
+            // after it are lost.
+            this.updatesApplied.add(written);
+            this.updatesDiscarded.add(batch.size() - written);
+            this.recycle(batch);
+
+            // also if the writer failed, e.g., to end a batch begun by the
+            // writer.
+            if (this.flushListener != null) {
+
+                this.flushListener.run();
+            }
+        }
+    }
+
+    private void recycle(final CellMap batch) {
+
+        batch.clear();
+        synchronized (this) {
+
+            this.spare = batch;
+        }
+    }
+
+    /**
+     * Discards all pending updates.
+     */
+    public synchronized void clear() {
+
+        this.updatesDiscarded.add(this.pending.size());
+        this.pending.clear();
+    }
+
+    /**
+     * Resets the update and flush counters.
+     */
+    public void resetStatistics() {
+
+        this.updatesReceived.reset();
+        this.updatesApplied.reset();
+        this.updatesDiscarded.reset();
+        this.flushes.reset();
+    }
+
+
+    private void stopIfIdle() {
+
+        synchronized (this) {
+
+            if (!this.pending.isEmpty()) {
+
+                return;
+            }
+
+            this.scheduled = false;
+        }
+
+        this.timer.stop();
+    }
+
+    private static long key(final int row, final int column) {
+
+        return (((long) row) << 32) | (column & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * An open-addressing hash table from cell keys to values, which keeps
+     * its entries in insertion order and is cleared in time proportional to
+     * its size.
+     */
+    private static final class CellMap {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[]           keys;
+        private Object[]         values;
+        private int[]            slots;
+        private int              size;
+
+
+        private CellMap() {
+
+            this.keys = new long[CellMap.INITIAL_CAPACITY];
+            this.values = new Object[CellMap.INITIAL_CAPACITY];
+            this.slots = new int[CellMap.INITIAL_CAPACITY / 2];
+            this.size = 0;
+        }
+
+        private int size() {
+
+            return this.size;
+        }
+
+        private boolean isEmpty() {
+
+            return this.size == 0;
+        }
+
+        private long key(final int index) {
+
+            return this.keys[this.slots[index]];
+        }
+
+        private Object value(final int index) {
+
+            return this.values[this.slots[index]];
+        }
+
+        /**
+         * Associates the provided (non-{@code null}) value with the key.
+         */
+        private void put(final long key, final Object value) {
+
+            final int slot = this.slot(key);
+
+            if (this.values[slot] == null) {
+
+                if (this.size == this.slots.length) {
+
+                    this.grow();
+                    this.put(key, value);
+                    return;
+                }
+
+                this.keys[slot] = key;
+                this.slots[this.size++] = slot;
+            }
+            this.values[slot] = value;
+        }
+
+        private void clear() {
+
+            for (int i = 0; i < this.size; i++) {
+
+                this.values[this.slots[i]] = null;
+            }
+            this.size = 0;
+        }
+
+        /**
+         * Returns the slot of the provided key, or the empty slot it would
+         * occupy.
+         */
+        private int slot(final long key) {
+
+            final int mask = this.values.length - 1;
+            int slot = CellMap.hash(key) & mask;
+
+            while ((this.values[slot] != null) && (this.keys[slot] != key)) {
+
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+
+        /**
+         * Doubles the capacity, keeping the load factor at most 0.5.
+         */
+        private void grow() {
+
+            final long[] oldKeys = this.keys;
+            final Object[] oldValues = this.values;
+            final int[] oldSlots = this.slots;
+            final int oldSize = this.size;
+
+            this.keys = new long[oldKeys.length * 2];
+            this.values = new Object[oldValues.length * 2];
+            this.slots = new int[oldSlots.length * 2];
+            this.size = 0;
+
+            for (int i = 0; i < oldSize; i++) {
+
+                this.put(oldKeys[oldSlots[i]], oldValues[oldSlots[i]]);
+            }
+        }
+
+        private static int hash(final long key) {
+
+            final long mixed = key * 0x9E3779B97F4A7C15L;
+
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.jutility.javafx.collections;
+
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+/**
+ * The {@code ICellWriter} interface provides a contract for writing the
+ * values of cells of a table, e.g., the values flushed by a
+ * {@link CellUpdateBuffer}.
+ *
+ * @param <T>
+ *            the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+@FunctionalInterface
+public interface ICellWriter<T> {
+
+    /**
+     * Writes the value of a cell.
+     *
+     * @param row
+     *            the row of the cell.
+     * @param column
+     *            the column of the cell.
+     * @param value
+     *            the new value of the cell.
+     */
+    void write(final int row, final int column, final T value);
+}
@@ -0,0 +1,66 @@
+package org.jutility.javafx.collections;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import org.jutility.common.datatype.table.ITable;
+
+
+/**
+ * The {@code IObservableTable} interface provides a contract for
+ * {@link ITable Tables} that report their modifications to
+ * {@link ITableChangeListener listeners}.
+ * <p>
+ * Listeners are notified after each modification, on the thread performing
+ * the modification. Tables displayed by a JavaFX control must therefore only
+ * be modified on the JavaFX Application Thread.
+ * </p>
+ *
+ * @param <T>
+ *            the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public interface IObservableTable<T>
+        extends ITable<T> {
+
+    /**
+     * Adds a listener that is notified of modifications of the table.
+     *
+     * @param listener
+     *            the listener.
+     */
+    void addListener(final ITableChangeListener<? super T> listener);
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener
+     *            the listener.
+     */
+    void removeListener(final ITableChangeListener<? super T> listener);
+}
@@ -0,0 +1,127 @@
+package org.jutility.javafx.collections;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.util.List;
+
+
+/**
+ * The {@code ITableChangeListener} interface provides a contract for
+ * listeners to the modifications of an {@link IObservableTable}.
+ * <p>
+ * All methods do nothing by default, so that listeners only need to
+ * implement the notifications they are interested in.
+ * </p>
+ *
+ * @param <T>
+ *            the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public interface ITableChangeListener<T> {
+
+    /**
+     * Notifies the listener that the value of a cell was updated.
+     *
+     * @param table
+     *            the modified table.
+     * @param row
+     *            the row of the cell.
+     * @param column
+     *            the column of the cell.
+     */
+    default void cellUpdated(final IObservableTable<? extends T> table,
+            final int row, final int column) {
+
+        // nothing to do.
+    }
+
+    /**
+     * Notifies the listener that rows were inserted.
+     *
+     * @param table
+     *            the modified table.
+     * @param from
+     *            the index of the first inserted row.
+     * @param to
+     *            the index after the last inserted row.
+     */
+    default void rowsInserted(final IObservableTable<? extends T> table,
+            final int from, final int to) {
+
+        // nothing to do.
+    }
+
+    /**
+     * Notifies the listener that rows were removed.
+     *
+     * @param table
+     *            the modified table.
+     * @param from
+     *            the former index of the first removed row.
+     * @param removed
+     *            the removed rows.
+     */
+    default void rowsRemoved(final IObservableTable<? extends T> table,
+            final int from, final List<? extends List<? extends T>> removed) {
+
+        // nothing to do.
+    }
+
+    /**
+     * Notifies the listener that columns were inserted.
+     *
+     * @param table
+     *            the modified table.
+     * @param from
+     *            the index of the first inserted column.
+     * @param to
+     *            the index after the last inserted column.
+     */
+    default void columnsInserted(final IObservableTable<? extends T> table,
+            final int from, final int to) {
+
+        // nothing to do.
+    }
+
+    /**
+     * Notifies the listener that columns were removed.
+     *
+     * @param table
+     *            the modified table.
+     * @param from
+     *            the former index of the first removed column.
+     * @param to
+     *            the former index after the last removed column.
+     */
+    default void columnsRemoved(final IObservableTable<? extends T> table,
+            final int from, final int to) {
+
+        // nothing to do.
+    }
+}
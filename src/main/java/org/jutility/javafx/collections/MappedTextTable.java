@@ -0,0 +1,796 @@
+package org.jutility.javafx.collections;
+
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code MappedTextTable} class provides a read-only table of the
+ * delimited text records (e.g., CSV) of a file, which are read lazily from a
+ * memory-mapped view of the file.
+ * <p>
+ * The content of the file is never copied to the heap: an index of the
+ * offsets of every 64th record is built on a background thread, whose
+ * {@link #indexProgressProperty() progress} is reported, and records are
+ * located by scanning forward from the closest indexed offset. Parsed records
+ * are kept in a small cache of recently read rows. The heap required is
+ * therefore independent of the size of the file, apart from eight bytes per
+ * 64 records for the index.
+ * </p>
+ * <p>
+ * While the file is indexed, the table reports the records indexed so far as
+ * its {@link #rows() rows}. The rows are appended on the JavaFX Application
+ * Thread as indexing progresses, and {@link ITableChangeListener listeners}
+ * are notified of the {@link ITableChangeListener#rowsInserted inserted
+ * rows}, so that the table can be displayed by a
+ * {@link org.jutility.javafx.control.TableDataView TableDataView} while it is
+ * indexed. If indexing fails, the records indexed so far remain available
+ * and the failure is reported by the {@link #indexExceptionProperty()}.
+ * </p>
+ * <p>
+ * Every line of the file is a record; fields are separated by the delimiter
+ * and may be enclosed in double quotes (a double quote within a quoted field
+ * is escaped by another double quote). Quoted fields cannot span lines. The
+ * charset must encode the line feed, the delimiter, and the double quote as
+ * single bytes, as ASCII-compatible charsets such as UTF-8 do.
+ * </p>
+ * <p>
+ * Cells can be read from any thread. The table is read-only.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class MappedTextTable
+        implements IObservableTable<String>, AutoCloseable {
+
+    private static final Logger         LOG                    = LoggerFactory
+                                                                       .getLogger(MappedTextTable.class);
+
+    /**
+     * The default number of rows kept in the cache of recently read rows.
+     */
+    public static final int             DEFAULT_ROW_CACHE_SIZE = 1024;
+
+    private static final int            INDEX_INTERVAL         = 64;
+    private static final long           SEGMENT_SIZE           = 1L << 30;
+
+    /**
+     * Indexes the files of all tables created without an executor.
+     */
+    private static final ExecutorService INDEX_EXECUTOR        = Executors
+            .newCachedThreadPool((runnable) -> {
+
+                final Thread thread = new Thread(runnable,
+                        "MappedTextTable indexer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Path                  file;
+    private final FileChannel           channel;
+    private final long                  length;
+    private final Charset               charset;
+    private final char                  delimiter;
+    private final List<String>          columnNames;
+    private final int                   columns;
+    private final long                  dataOffset;
+    private final Map<Integer, String[]> rowCache;
+    private final ReadOnlyDoubleWrapper indexProgressProperty;
+    private final ReadOnlyObjectWrapper<Throwable> indexExceptionProperty;
+    private final List<ITableChangeListener<? super String>> listeners;
+    private final AtomicBoolean         rowsPending;
+
+    private volatile MappedByteBuffer[] segments;
+    private volatile long[]             index;
+    private volatile int                indexedRows;
+    private volatile int                rows;
+    private volatile boolean            indexed;
+    private volatile boolean            closed;
+
+
+    /**
+     * Returns the file backing this table.
+     *
+     * @return the file.
+     */
+    public Path getFile() {
+
+        return this.file;
+    }
+
+    /**
+     * Returns the number of rows, i.e., the number of records indexed so far
+     * and appended on the JavaFX Application Thread.
+     *
+     * @return the number of rows.
+     */
+    @Override
+    public int rows() {
+
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of columns, i.e., the number of fields of the first
+     * line of the file.
+     *
+     * @return the number of columns.
+     */
+    @Override
+    public int columns() {
+
+        return this.columns;
+    }
+
+    /**
+     * Returns the names of the columns read from the header line, or an empty
+     * list, if the file has no header line.
+     *
+     * @return the names of the columns.
+     */
+    public List<String> getColumnNames() {
+
+        return this.columnNames;
+    }
+
+    /**
+     * Returns whether or not all records of the file have been indexed.
+     *
+     * @return {@code true}, if the file has been indexed; {@code false}
+     *         otherwise.
+     */
+    public boolean isIndexed() {
+
+        return this.indexed;
+    }
+
+    /**
+     * Returns the index progress property, i.e., the fraction of the file
+     * indexed so far (between {@code 0} and {@code 1}). The property is
+     * updated on the JavaFX Application Thread.
+     *
+     * @see #getIndexProgress()
+     *
+     * @return the index progress property.
+     */
+    public ReadOnlyDoubleProperty indexProgressProperty() {
+
+        return this.indexProgressProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #indexProgressProperty()}.
+     *
+     * @return the value of the {@link #indexProgressProperty()}.
+     */
+    public double getIndexProgress() {
+
+        return this.indexProgressProperty.get();
+    }
+
+    /**
+     * Returns the index exception property, i.e., the failure that stopped
+     * indexing the file, or {@code null}, if indexing did not fail. The
+     * property is updated on the JavaFX Application Thread.
+     *
+     * @see #getIndexException()
+     *
+     * @return the index exception property.
+     */
+    public ReadOnlyObjectProperty<Throwable> indexExceptionProperty() {
+
+        return this.indexExceptionProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #indexExceptionProperty()}.
+     *
+     * @return the value of the {@link #indexExceptionProperty()}.
+     */
+    public Throwable getIndexException() {
+
+        return this.indexExceptionProperty.get();
+    }
+
+
+    /**
+     * Creates a new instance of the {@link MappedTextTable} class reading the
+     * provided UTF-8 encoded file, and starts indexing the file.
+     *
+     * @param file
+     *            the file.
+     * @param delimiter
+     *            the delimiter of the fields of a record.
+     * @param header
+     *            whether or not the first line of the file contains the names
+     *            of the columns.
+     * @throws IOException
+     *             if the file cannot be opened or mapped.
+     */
+    public MappedTextTable(final Path file, final char delimiter,
+            final boolean header)
+            throws IOException {
+
+        this(file, StandardCharsets.UTF_8, delimiter, header,
+                MappedTextTable.DEFAULT_ROW_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new instance of the {@link MappedTextTable} class reading the
+     * provided file, and starts indexing the file.
+     *
+     * @param file
+     *            the file.
+     * @param charset
+     *            the (ASCII-compatible) charset of the file.
+     * @param delimiter
+     *            the delimiter of the fields of a record.
+     * @param header
+     *            whether or not the first line of the file contains the names
+     *            of the columns.
+     * @param rowCacheSize
+     *            the number of rows kept in the cache of recently read rows.
+     * @throws IOException
+     *             if the file cannot be opened or mapped.
+     */
+    public MappedTextTable(final Path file, final Charset charset,
+            final char delimiter, final boolean header,
+            final int rowCacheSize)
+            throws IOException {
+
+        this(file, charset, delimiter, header, rowCacheSize,
+                MappedTextTable.INDEX_EXECUTOR);
+    }
+
+    /**
+     * Creates a new instance of the {@link MappedTextTable} class reading the
+     * provided file, and starts indexing the file on the provided executor.
+     *
+     * @param file
+     *            the file.
+     * @param charset
+     *            the (ASCII-compatible) charset of the file.
+     * @param delimiter
+     *            the delimiter of the fields of a record.
+     * @param header
+     *            whether or not the first line of the file contains the names
+     *            of the columns.
+     * @param rowCacheSize
+     *            the number of rows kept in the cache of recently read rows.
+     * @param executor
+     *            the executor indexing the file.
+     * @throws IOException
+     *             if the file cannot be opened or mapped.
+     */
+    public MappedTextTable(final Path file, final Charset charset,
+            final char delimiter, final boolean header,
+            final int rowCacheSize, final Executor executor)
+            throws IOException {
+
+        if ((file == null) || (charset == null) || (executor == null)) {
+
+            throw new IllegalArgumentException("Cannot create a table without"
+                    + " a file, a charset, and an executor!");
+        }
+
+        this.file = file;
+        this.charset = charset;
+        this.delimiter = delimiter;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+
+            this.length = this.channel.size();
+
+            final MappedByteBuffer[] mapped = new MappedByteBuffer[(int) (((
+                    this.length + MappedTextTable.SEGMENT_SIZE) - 1)
+                    / MappedTextTable.SEGMENT_SIZE)];
+
+            for (int i = 0; i < mapped.length; i++) {
+
+                final long offset = i * MappedTextTable.SEGMENT_SIZE;
+
+                mapped[i] = this.channel.map(
+                        FileChannel.MapMode.READ_ONLY, offset, Math.min(
+                                MappedTextTable.SEGMENT_SIZE, this.length
+                                        - offset));
+            }
+            this.segments = mapped;
+        }
+        catch (final IOException | RuntimeException e) {
+
+            this.channel.close();
+            throw e;
+        }
+
+        final String[] firstLine = (this.length == 0) ? new String[0]
+                : this.parse(0, this.endOfLine(0));
+
+        this.columns = firstLine.length;
+        this.columnNames = header ? Collections.unmodifiableList(Arrays
+                .asList(firstLine)) : Collections.<String> emptyList();
+        this.dataOffset = header ? Math.min(this.length,
+                this.endOfLine(0) + 1) : 0;
+
+        this.rowCache = new LinkedHashMap<Integer, String[]>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<Integer, String[]> eldest) {
+
+                return this.size() > rowCacheSize;
+            }
+        };
+        this.indexProgressProperty = new ReadOnlyDoubleWrapper(0);
+        this.indexExceptionProperty = new ReadOnlyObjectWrapper<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.rowsPending = new AtomicBoolean();
+        this.index = new long[16];
+        this.indexedRows = 0;
+        this.rows = 0;
+        this.indexed = false;
+        this.closed = false;
+
+        try {
+
+            executor.execute(this::buildIndex);
+        }
+        catch (final RejectedExecutionException e) {
+
+            this.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Returns the value of a cell.
+     *
+     * @param row
+     *            the row of the cell.
+     * @param column
+     *            the column of the cell.
+     * @return the value of the cell, or {@code null}, if the record of the row
+     *         has fewer fields.
+     */
+    @Override
+    public String get(final int row, final int column) {
+
+        if ((column < 0) || (column >= this.columns)) {
+
+            throw new IndexOutOfBoundsException("Column " + column
+                    + " is out of bounds!");
+        }
+
+        final String[] fields = this.getRow(row);
+
+        return (column < fields.length) ? fields[column] : null;
+    }
+
+    /**
+     * Returns the fields of the record of a row.
+     *
+     * @param row
+     *            the row.
+     * @return the fields of the record.
+     */
+    public List<String> getRowFields(final int row) {
+
+        return Collections.unmodifiableList(Arrays.asList(this.getRow(row)));
+    }
+
+    /**
+     * Returns a read-only view of the rows of this table, whose records are
+     * read when accessed.
+     *
+     * @return the rows.
+     */
+    @Override
+    public List<List<String>> getRows() {
+
+        return new AbstractList<List<String>>() {
+
+            @Override
+            public List<String> get(final int row) {
+
+                return MappedTextTable.this.getRowFields(row);
+            }
+
+            @Override
+            public int size() {
+
+                return MappedTextTable.this.rows;
+            }
+        };
+    }
+
+    @Override
+    public void addListener(
+            final ITableChangeListener<? super String> listener) {
+
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(
+            final ITableChangeListener<? super String> listener) {
+
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Stops indexing the file and closes it. Afterwards, cells can no longer
+     * be read.
+     * <p>
+     * The table drops its references to the mapped buffers, but the file
+     * stays mapped until the buffers are garbage collected, since a mapping
+     * cannot be released explicitly.
+     * </p>
+     *
+     * @throws IOException
+     *             if the file cannot be closed.
+     */
+    @Override
+    public void close()
+            throws IOException {
+
+        this.closed = true;
+        this.segments = null;
+
+        synchronized (this.rowCache) {
+
+            this.rowCache.clear();
+        }
+        this.channel.close();
+    }
+
+
+    private String[] getRow(final int row) {
+
+        if (this.closed) {
+
+            throw new IllegalStateException("The table has been closed!");
+        }
+
+        // the row count is read before the index, which is published first.
+        final int rowCount = this.indexedRows;
+        final long[] offsets = this.index;
+
+        if ((row < 0) || (row >= rowCount)) {
+
+            throw new IndexOutOfBoundsException("Row " + row
+                    + " is out of bounds (" + rowCount + " rows)!");
+        }
+
+        synchronized (this.rowCache) {
+
+            final String[] cached = this.rowCache.get(row);
+
+            if (cached != null) {
+
+                return cached;
+            }
+        }
+
+        long offset = offsets[row / MappedTextTable.INDEX_INTERVAL];
+
+        for (int i = row % MappedTextTable.INDEX_INTERVAL; i > 0; i--) {
+
+            offset = this.endOfLine(offset) + 1;
+        }
+
+        final String[] fields = this.parse(offset, this.endOfLine(offset));
+
+        synchronized (this.rowCache) {
+
+            this.rowCache.put(row, fields);
+        }
+
+        return fields;
+    }
+
+    /**
+     * Indexes the records of the file, reporting a failure.
+     */
+    private void buildIndex() {
+
+        try {
+
+            this.indexRecords();
+        }
+        catch (final Throwable e) {
+
+            if (this.closed) {
+
+                // the buffers were dropped while the file was indexed.
+                return;
+            }
+
+            MappedTextTable.LOG.error("Indexing " + this.file + " failed", e);
+            Platform.runLater(() -> {
+
+                if (!this.closed) {
+
+                    this.indexExceptionProperty.set(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Indexes the records of the file, publishing the number of rows every
+     * {@link #INDEX_INTERVAL} records.
+     */
+    private void indexRecords() {
+
+        final long progressStep = Math.max(1, this.length / 100);
+        long nextProgress = progressStep;
+        long[] offsets = this.index;
+        long offset = this.dataOffset;
+        int rowCount = 0;
+
+        while ((offset < this.length) && !this.closed) {
+
+            if ((rowCount % MappedTextTable.INDEX_INTERVAL) == 0) {
+
+                final int entry = rowCount / MappedTextTable.INDEX_INTERVAL;
+
+                if (entry == offsets.length) {
+
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    this.index = offsets;
+                }
+                offsets[entry] = offset;
+            }
+
+            offset = this.endOfLine(offset) + 1;
+            rowCount++;
+
+            if ((rowCount % MappedTextTable.INDEX_INTERVAL) == 0) {
+
+                this.indexedRows = rowCount;
+            }
+            if (offset >= nextProgress) {
+
+                this.publishRows();
+                this.publishProgress((double) offset / this.length);
+                nextProgress = offset + progressStep;
+            }
+        }
+
+        if (!this.closed) {
+
+            this.indexedRows = rowCount;
+            this.indexed = true;
+            this.publishRows();
+            this.publishProgress(1);
+        }
+    }
+
+    /**
+     * Appends the rows indexed so far on the JavaFX Application Thread. At
+     * most one append is pending at any time, so a busy JavaFX Application
+     * Thread receives fewer, larger appends.
+     */
+    private void publishRows() {
+
+        if (this.rowsPending.compareAndSet(false, true)) {
+
+            Platform.runLater(this::appendRows);
+        }
+    }
+
+    private void appendRows() {
+
+        this.rowsPending.set(false);
+
+        final int from = this.rows;
+        final int to = this.indexedRows;
+
+        if (this.closed || (to <= from)) {
+
+            return;
+        }
+
+        this.rows = to;
+
+        for (final ITableChangeListener<? super String> listener :
+                this.listeners) {
+
+            listener.rowsInserted(this, from, to);
+        }
+    }
+
+    private void publishProgress(final double progress) {
+
+        Platform.runLater(() -> this.indexProgressProperty.set(Math.min(1,
+                progress)));
+    }
+
+    /**
+     * Returns the offset of the line feed terminating the line starting at
+     * the provided offset, or the length of the file.
+     */
+    private long endOfLine(final long offset) {
+
+        long position = offset;
+
+        while (position < this.length) {
+
+            final ByteBuffer segment = this.segment(position);
+            final int start = (int) (position % MappedTextTable.SEGMENT_SIZE);
+            final int limit = segment.limit();
+
+            for (int i = start; i < limit; i++) {
+
+                if (segment.get(i) == '\n') {
+
+                    return position + (i - start);
+                }
+            }
+
+            position += limit - start;
+        }
+
+        return this.length;
+    }
+
+    /**
+     * Parses the fields of the line between the provided offsets.
+     */
+    private String[] parse(final long from, final long to) {
+
+        long end = to;
+
+        if ((end > from) && (this.byteAt(end - 1) == '\r')) {
+
+            end--;
+        }
+
+        final byte[] bytes = new byte[(int) (end - from)];
+        long position = from;
+        int read = 0;
+
+        while (read < bytes.length) {
+
+            // absolute positioning of a duplicate is thread-safe.
+            final ByteBuffer segment = this.segment(position)
+                                           .duplicate();
+            final int start = (int) (position % MappedTextTable.SEGMENT_SIZE);
+            final int count = Math.min(bytes.length - read, segment.limit()
+                    - start);
+
+            segment.position(start);
+            segment.get(bytes, read, count);
+            read += count;
+            position += count;
+        }
+
+        return this.split(new String(bytes, this.charset));
+    }
+
+    private byte byteAt(final long position) {
+
+        return this.segment(position)
+                   .get((int) (position % MappedTextTable.SEGMENT_SIZE));
+    }
+
+    /**
+     * Returns the mapped buffer containing the provided offset.
+     */
+    private MappedByteBuffer segment(final long position) {
+
+        final MappedByteBuffer[] mapped = this.segments;
+
+        if (mapped == null) {
+
+            throw new IllegalStateException("The table has been closed!");
+        }
+
+        return mapped[(int) (position / MappedTextTable.SEGMENT_SIZE)];
+    }
+
+    private String[] split(final String line) {
+
+        final List<String> fields = new ArrayList<>(Math.max(1,
+                this.columns));
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+
+            final char c = line.charAt(i);
+
+            if (quoted) {
+
+                if (c != '"') {
+
+                    field.append(c);
+                }
+                else if (((i + 1) < line.length())
+                        && (line.charAt(i + 1) == '"')) {
+
+                    field.append('"');
+                    i++;
+                }
+                else {
+
+                    quoted = false;
+                }
+            }
+            else if (c == '"') {
+
+                quoted = true;
+            }
+            else if (c == this.delimiter) {
+
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        return fields.toArray(new String[fields.size()]);
+    }
+}
@@ -0,0 +1,287 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+//@formatter:on
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.DoubleFunction;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import org.jutility.javafx.collections.DoubleTable;
+
+
+/**
+ * The {@code DoubleTableDataView} class provides a control to display a
+ * {@link DoubleTable}, i.e., a table of primitive {@code double} values.
+ * <p>
+ * Unlike a {@link TableDataView}, the view never boxes cell values: the items
+ * of the view are the row indices, and each cell reads its value directly
+ * from the columnar storage of the table and formats it with the
+ * {@link #formatterProperty() formatter}.
+ * </p>
+ * <p>
+ * Modifications of the table are displayed after a call to
+ * {@link #reload()}.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class DoubleTableDataView
+        extends TableView<Integer> {
+
+    private final ObjectProperty<DoubleTable>            tableProperty;
+    private final ObjectProperty<DoubleFunction<String>> formatterProperty;
+
+
+    /**
+     * Returns the {@link DoubleTable Table} property.
+     *
+     * @return the {@link DoubleTable Table} property.
+     *
+     * @see DoubleTableDataView#getTable()
+     * @see DoubleTableDataView#setTable(DoubleTable)
+     */
+    public ObjectProperty<DoubleTable> tableProperty() {
+
+        return this.tableProperty;
+    }
+
+    /**
+     * Returns the value of the {@link DoubleTable Table} property.
+     *
+     * @return the value of the {@link DoubleTable Table} property.
+     */
+    public DoubleTable getTable() {
+
+        return this.tableProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link DoubleTable Table} property.
+     *
+     * @param value
+     *         the value of the {@link DoubleTable Table} property.
+     */
+    public void setTable(final DoubleTable value) {
+
+        this.tableProperty.set(value);
+    }
+
+    /**
+     * Returns the formatter property. The formatter provides the text of a
+     * cell from its primitive value. By default, values are formatted with
+     * {@link Double#toString(double)}.
+     *
+     * @return the formatter property.
+     *
+     * @see DoubleTableDataView#getFormatter()
+     * @see DoubleTableDataView#setFormatter(DoubleFunction)
+     */
+    public ObjectProperty<DoubleFunction<String>> formatterProperty() {
+
+        return this.formatterProperty;
+    }
+
+    /**
+     * Returns the value of the formatter property.
+     *
+     * @return the value of the formatter property.
+     */
+    public DoubleFunction<String> getFormatter() {
+
+        return this.formatterProperty.get();
+    }
+
+    /**
+     * Sets the value of the formatter property.
+     *
+     * @param value
+     *         the value of the formatter property.
+     */
+    public void setFormatter(final DoubleFunction<String> value) {
+
+        this.formatterProperty.set(value);
+    }
+
+
+    /**
+     * Creates a new instance of the {@link DoubleTableDataView} class.
+     */
+    public DoubleTableDataView() {
+
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of the {@link DoubleTableDataView} class with the
+     * provided {@link DoubleTable Table} as data source.
+     *
+     * @param table
+     *         the {@link DoubleTable Table} data source.
+     */
+    public DoubleTableDataView(final DoubleTable table) {
+
+        super();
+
+        this.tableProperty = new SimpleObjectProperty<>(table);
+        this.formatterProperty = new SimpleObjectProperty<>(Double::toString);
+
+        this.tableProperty.addListener((observable, oldValue,
+                newValue) -> this.updateTable(newValue));
+        this.formatterProperty.addListener((observable) -> this.reload());
+
+        this.updateTable(table);
+    }
+
+
+    /**
+     * Refreshes the cells of this view, so that modifications of the
+     * {@link DoubleTable Table} are displayed. The dimensions of a table are
+     * fixed, so the items and columns of this view are kept.
+     */
+    public void reload() {
+
+        this.refresh();
+    }
+
+
+    private void updateTable(final DoubleTable table) {
+
+        if (table == null) {
+
+            this.setItems(FXCollections.observableArrayList());
+            this.getColumns()
+                    .clear();
+            return;
+        }
+
+        this.setItems(new RowIndexList(table.rows()));
+
+        final List<TableColumn<Integer, ?>> columns = new ArrayList<>(
+                table.columns());
+
+        for (int i = 0; i < table.columns(); i++) {
+
+            final int columnIndex = i;
+            final TableColumn<Integer, Void> column = new TableColumn<>(
+                    "" + i);
+            // cells read their values directly, sorting would require boxing.
+            column.setSortable(false);
+            column.setCellFactory((tableColumn) -> new DoubleTableCell(
+                    columnIndex));
+            columns.add(column);
+        }
+
+        this.getColumns()
+                .setAll(columns);
+    }
+
+
+    /**
+     * A cell formatting the primitive value of its row and column.
+     */
+    private final class DoubleTableCell
+            extends TableCell<Integer, Void> {
+
+        private final int column;
+
+
+        private DoubleTableCell(final int column) {
+
+            this.column = column;
+        }
+
+        @Override
+        protected void updateItem(final Void item, final boolean empty) {
+
+            super.updateItem(item, empty);
+
+            final DoubleTable table = DoubleTableDataView.this.getTable();
+            final int row = this.getIndex();
+
+            if (empty || (table == null) || (row < 0)
+                    || (row >= table.rows())) {
+
+                this.setText(null);
+                return;
+            }
+
+            final DoubleFunction<String> formatter = DoubleTableDataView.this
+                    .getFormatter();
+            final double value = table.get(row, this.column);
+
+            this.setText((formatter == null) ? Double.toString(value)
+                    : formatter.apply(value));
+        }
+    }
+
+    /**
+     * The row indices of a table, created on demand.
+     */
+    private static final class RowIndexList
+            extends ObservableListBase<Integer>
+            implements RandomAccess {
+
+        private final int rows;
+
+
+        private RowIndexList(final int rows) {
+
+            this.rows = rows;
+        }
+
+        @Override
+        public Integer get(final int index) {
+
+            if ((index < 0) || (index >= this.rows)) {
+
+                throw new IndexOutOfBoundsException("Row " + index
+                        + " is out of bounds (" + this.rows + " rows)!");
+            }
+
+            // boxed once per displayed row when its table row is updated,
+            // not per cell; caching the indices would allocate in
+            // proportion to the table rather than to the viewport.
+            return index;
+        }
+
+        @Override
+        public int size() {
+
+            return this.rows;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+//@formatter:on
+
+
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntBinaryOperator;
+
+
+/**
+ * The {@code IntSorter} class sorts arrays of {@code int} values, e.g., the
+ * row indices of a table, by an {@link IntBinaryOperator comparator} without
+ * boxing them.
+ * <p>
+ * The sort is a stable merge sort; large arrays can be sorted in parallel on
+ * the common {@link ForkJoinPool}. Exceptions thrown by the comparator, e.g.,
+ * to cancel the sort, are propagated.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+final class IntSorter {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int PARALLEL_GRANULARITY     = 1 << 13;
+
+
+    private IntSorter() {
+
+        // no instances.
+    }
+
+
+    /**
+     * Sorts the provided range of values.
+     *
+     * @param values
+     *         the values.
+     * @param from
+     *         the index of the first value to sort (inclusive).
+     * @param to
+     *         the index of the last value to sort (exclusive).
+     * @param comparator
+     *         the comparator of the values.
+     */
+    static void sort(final int[] values, final int from, final int to,
+            final IntBinaryOperator comparator) {
+
+        if ((to - from) < 2) {
+
+            return;
+        }
+
+        IntSorter.mergeSort(values, new int[to], from, to,
+                comparator);
+    }
+
+    /**
+     * Sorts the provided values in parallel.
+     *
+     * @param values
+     *         the values.
+     * @param comparator
+     *         the comparator of the values.
+     */
+    static void parallelSort(final int[] values,
+            final IntBinaryOperator comparator) {
+
+        if (values.length <= IntSorter.PARALLEL_GRANULARITY) {
+
+            IntSorter.sort(values, 0, values.length, comparator);
+            return;
+        }
+
+        ForkJoinPool.commonPool()
+                    .invoke(new SortAction(values, new int[values.length], 0,
+                            values.length, comparator));
+    }
+
+    private static void mergeSort(final int[] values, final int[] buffer,
+            final int from, final int to, final IntBinaryOperator comparator) {
+
+        if ((to - from) <= IntSorter.INSERTION_SORT_THRESHOLD) {
+
+            IntSorter.insertionSort(values, from, to, comparator);
+            return;
+        }
+
+        final int middle = (from + to) >>> 1;
+
+        IntSorter.mergeSort(values, buffer, from, middle, comparator);
+        IntSorter.mergeSort(values, buffer, middle, to, comparator);
+        IntSorter.merge(values, buffer, from, middle, to, comparator);
+    }
+
+    private static void insertionSort(final int[] values, final int from,
+            final int to, final IntBinaryOperator comparator) {
+
+        for (int i = from + 1; i < to; i++) {
+
+            final int value = values[i];
+            int j = i - 1;
+
+            while ((j >= from)
+                    && (comparator.applyAsInt(values[j], value) > 0)) {
+
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    /**
+     * Merges the sorted ranges {@code [from, middle)} and
+     * {@code [middle, to)}.
+     */
+    private static void merge(final int[] values, final int[] buffer,
+            final int from, final int middle, final int to,
+            final IntBinaryOperator comparator) {
+
+        if (comparator.applyAsInt(values[middle - 1], values[middle]) <= 0) {
+
+            // already in order.
+            return;
+        }
+
+        System.arraycopy(values, from, buffer, from, to - from);
+
+        int left = from;
+        int right = middle;
+
+        for (int i = from; i < to; i++) {
+
+            if ((right >= to)
+                    || ((left < middle) && (comparator.applyAsInt(
+                            buffer[left], buffer[right]) <= 0))) {
+
+                values[i] = buffer[left++];
+            }
+            else {
+
+                values[i] = buffer[right++];
+            }
+        }
+    }
+
+
+    /**
+     * Sorts both halves of a range in parallel and merges them.
+     */
+    private static final class SortAction
+            extends RecursiveAction {
+
+        private static final long       serialVersionUID = 1L;
+
+        private final int[]             values;
+        private final int[]             buffer;
+        private final int               from;
+        private final int               to;
+        private final IntBinaryOperator comparator;
+
+
+        private SortAction(final int[] values, final int[] buffer,
+                final int from, final int to,
+                final IntBinaryOperator comparator) {
+
+            this.values = values;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+
+            if ((this.to - this.from) <= IntSorter.PARALLEL_GRANULARITY) {
+
+                IntSorter.mergeSort(this.values, this.buffer, this.from,
+                        this.to, this.comparator);
+                return;
+            }
+
+            final int middle = (this.from + this.to) >>> 1;
+
+            RecursiveAction.invokeAll(new SortAction(this.values, this.buffer,
+                    this.from, middle, this.comparator), new SortAction(
+                    this.values, this.buffer, middle, this.to,
+                    this.comparator));
+            IntSorter.merge(this.values, this.buffer, this.from, middle,
+                    this.to, this.comparator);
+        }
+    }
+}
@@ -25,12 +25,30 @@ package org.jutility.javafx.control;
 //@formatter:on
 
 
-import javafx.beans.Observable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Pos;
@@ -41,6 +59,8 @@ import javafx.scene.input.KeyCombination;
 import javafx.scene.input.KeyEvent;
 import javafx.util.StringConverter;
 import org.jutility.javafx.control.labeled.LabeledListView;
+import org.jutility.javafx.filter.NGramIndex;
+import org.jutility.javafx.filter.StringFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,11 +83,41 @@ public class ListViewWithSearchPanel<T>
     private static final Logger LOG = LoggerFactory.getLogger(
             ListViewWithSearchPanel.class);
 
+    private static final int DEFAULT_ASYNCHRONOUS_FILTER_THRESHOLD = 10000;
+    private static final int MAX_FILTER_PASS_RESTARTS              = 2;
+
     private final ObjectProperty<ObservableList<T>> itemsProperty;
     private final ObjectProperty<ObservableList<T>> filteredItemsProperty;
 
     private final SearchPanel<T> searchPanel;
 
+    private final BooleanProperty         narrowingFilterProperty;
+    private final BooleanProperty         searchIndexEnabledProperty;
+    private final IntegerProperty         asynchronousFilterThresholdProperty;
+    private final IntegerProperty         rankedResultLimitProperty;
+    private final ReadOnlyBooleanWrapper  filteringProperty;
+    private final ReadOnlyObjectWrapper<Throwable> filterExceptionProperty;
+    private final ReadOnlyObjectWrapper<Throwable> searchIndexExceptionProperty;
+    private final ListChangeListener<T>   itemsChangeListener;
+    private final ObservableList<T>       rankedItems;
+
+    private FilteredList<T>               filteredList;
+
+    private String                        lastFilterString;
+    private boolean                       lastCaseSensitive;
+    private boolean                       lastRegex;
+    private boolean                       lastQuery;
+    private boolean                       lastFuzzy;
+    private Set<T>                        narrowingCandidates;
+    private Set<T>                        publishedMatches;
+
+    private ObservableList<T>             observedItems;
+    private long                          itemsModificationCount;
+    private FilterPass                    currentFilterPass;
+    private IndexPass                     currentIndexPass;
+    private int                           filterPassRestarts;
+    private NGramIndex<T>                 searchIndex;
+
 
     @Override
     public ObjectProperty<ObservableList<T>> itemsProperty() {
@@ -87,6 +137,280 @@ public class ListViewWithSearchPanel<T>
         this.itemsProperty.set(value);
     }
 
+    /**
+     * Returns the narrowing filter property.
+     * <p>
+     * If {@code true} (the default) and the filter string is extended such
+     * that it contains the previous filter string (with unchanged case
+     * sensitivity and fuzzy mode, and without regular expressions or
+     * queries), only the currently
+     * visible items are tested against the filter, since no other item can
+     * match the refined filter string. Otherwise, all items are tested.
+     * </p>
+     *
+     * @see #isNarrowingFilter()
+     * @see #setNarrowingFilter(boolean)
+     *
+     * @return the narrowing filter property.
+     */
+    public BooleanProperty narrowingFilterProperty() {
+
+        return this.narrowingFilterProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #narrowingFilterProperty()}.
+     *
+     * @return the value of the {@link #narrowingFilterProperty()}.
+     */
+    public boolean isNarrowingFilter() {
+
+        return this.narrowingFilterProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #narrowingFilterProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #narrowingFilterProperty()}.
+     */
+    public void setNarrowingFilter(final boolean value) {
+
+        this.narrowingFilterProperty.set(value);
+    }
+
+    /**
+     * Returns the search index enabled property.
+     * <p>
+     * If {@code true}, an {@link NGramIndex} over the search keys of the items
+     * is maintained, and substring searches only test the items the index
+     * reports as candidates. This speeds up filtering of very large item sets
+     * at the cost of the memory occupied by the index (see
+     * {@link #getSearchIndex()}). Defaults to {@code false}.
+     * </p>
+     * <p>
+     * The index is built on a background thread when it is enabled, and
+     * rebuilt when the items or the converter are replaced. The items are
+     * filtered again once the index is available.
+     * </p>
+     *
+     * @see #isSearchIndexEnabled()
+     * @see #setSearchIndexEnabled(boolean)
+     *
+     * @return the search index enabled property.
+     */
+    public BooleanProperty searchIndexEnabledProperty() {
+
+        return this.searchIndexEnabledProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #searchIndexEnabledProperty()}.
+     *
+     * @return the value of the {@link #searchIndexEnabledProperty()}.
+     */
+    public boolean isSearchIndexEnabled() {
+
+        return this.searchIndexEnabledProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #searchIndexEnabledProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #searchIndexEnabledProperty()}.
+     */
+    public void setSearchIndexEnabled(final boolean value) {
+
+        this.searchIndexEnabledProperty.set(value);
+    }
+
+    /**
+     * Returns the search index, if {@link #searchIndexEnabledProperty()
+     * enabled} and built.
+     *
+     * @return the search index, or {@code null} if the search index is
+     *         disabled or not built yet.
+     */
+    public NGramIndex<T> getSearchIndex() {
+
+        return this.searchIndex;
+    }
+
+    /**
+     * Returns the asynchronous filter threshold property.
+     * <p>
+     * If the number of items to be tested against the filter reaches this
+     * threshold, filtering is performed on background threads and the result
+     * is published to the {@link ListView} in a single change once all items
+     * have been tested. Smaller item sets are filtered synchronously on the
+     * JavaFX Application Thread.
+     * </p>
+     *
+     * @see #getAsynchronousFilterThreshold()
+     * @see #setAsynchronousFilterThreshold(int)
+     * @see #filteringProperty()
+     *
+     * @return the asynchronous filter threshold property.
+     */
+    public IntegerProperty asynchronousFilterThresholdProperty() {
+
+        return this.asynchronousFilterThresholdProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #asynchronousFilterThresholdProperty()}.
+     *
+     * @return the value of the {@link #asynchronousFilterThresholdProperty()}.
+     */
+    public int getAsynchronousFilterThreshold() {
+
+        return this.asynchronousFilterThresholdProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #asynchronousFilterThresholdProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #asynchronousFilterThresholdProperty()}.
+     */
+    public void setAsynchronousFilterThreshold(final int value) {
+
+        this.asynchronousFilterThresholdProperty.set(value);
+    }
+
+    /**
+     * Returns the ranked result limit property.
+     * <p>
+     * If positive and the {@link StringFilter} is {@link
+     * StringFilter#fuzzyProperty() fuzzy}, the {@link ListView} shows (at
+     * most) this number of best matches, best match first, instead of all
+     * matching items in their original order. Defaults to {@code 0}.
+     * </p>
+     *
+     * @see #getRankedResultLimit()
+     * @see #setRankedResultLimit(int)
+     * @see StringFilter#topMatches(Iterable, int)
+     *
+     * @return the ranked result limit property.
+     */
+    public IntegerProperty rankedResultLimitProperty() {
+
+        return this.rankedResultLimitProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #rankedResultLimitProperty()}.
+     *
+     * @return the value of the {@link #rankedResultLimitProperty()}.
+     */
+    public int getRankedResultLimit() {
+
+        return this.rankedResultLimitProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #rankedResultLimitProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #rankedResultLimitProperty()}.
+     */
+    public void setRankedResultLimit(final int value) {
+
+        this.rankedResultLimitProperty.set(value);
+    }
+
+    /**
+     * Returns the filtering property, which is {@code true} while an
+     * asynchronous filter pass is in progress.
+     *
+     * @see #isFiltering()
+     *
+     * @return the filtering property.
+     */
+    public ReadOnlyBooleanProperty filteringProperty() {
+
+        return this.filteringProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #filteringProperty()}.
+     *
+     * @return the value of the {@link #filteringProperty()}.
+     */
+    public boolean isFiltering() {
+
+        return this.filteringProperty.get();
+    }
+
+    /**
+     * Returns the filter exception property, which holds the exception that
+     * made the most recent asynchronous filter pass fail, or {@code null} if
+     * it succeeded.
+     *
+     * @see #getFilterException()
+     *
+     * @return the filter exception property.
+     */
+    public ReadOnlyObjectProperty<Throwable> filterExceptionProperty() {
+
+        return this.filterExceptionProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #filterExceptionProperty()}.
+     *
+     * @return the value of the {@link #filterExceptionProperty()}.
+     */
+    public Throwable getFilterException() {
+
+        return this.filterExceptionProperty.get();
+    }
+
+    /**
+     * Returns the search index exception property, which holds the exception
+     * that made the most recent index pass fail, or {@code null} if it
+     * succeeded. While the index is missing, all items are tested.
+     *
+     * @see #getSearchIndexException()
+     *
+     * @return the search index exception property.
+     */
+    public ReadOnlyObjectProperty<Throwable> searchIndexExceptionProperty() {
+
+        return this.searchIndexExceptionProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #searchIndexExceptionProperty()}.
+     *
+     * @return the value of the {@link #searchIndexExceptionProperty()}.
+     */
+    public Throwable getSearchIndexException() {
+
+        return this.searchIndexExceptionProperty.get();
+    }
+
+    /**
+     * Returns the {@link StringFilter} of the search panel.
+     *
+     * @return the {@link StringFilter} of the search panel.
+     */
+    StringFilter<T> getStringFilter() {
+
+        return this.searchPanel.getStringFilter();
+    }
+
+    /**
+     * Returns the items shown in the {@link ListView}.
+     *
+     * @return the items shown in the {@link ListView}.
+     */
+    ObservableList<T> getFilteredItems() {
+
+        return this.filteredItemsProperty.get();
+    }
+
     /**
      * Creates a new {@code ListViewWithSearchPanel} with no title.
      */
@@ -147,6 +471,24 @@ public class ListViewWithSearchPanel<T>
         this.filteredItemsProperty.bindBidirectional(super.itemsProperty());
 
         this.searchPanel = new SearchPanel<>();
+        this.narrowingFilterProperty = new SimpleBooleanProperty(true);
+        this.searchIndexEnabledProperty = new SimpleBooleanProperty(false);
+        this.asynchronousFilterThresholdProperty = new SimpleIntegerProperty(
+                ListViewWithSearchPanel.DEFAULT_ASYNCHRONOUS_FILTER_THRESHOLD);
+        this.rankedResultLimitProperty = new SimpleIntegerProperty(0);
+        this.filteringProperty = new ReadOnlyBooleanWrapper(false);
+        this.filterExceptionProperty = new ReadOnlyObjectWrapper<>();
+        this.searchIndexExceptionProperty = new ReadOnlyObjectWrapper<>();
+        this.rankedItems = FXCollections.observableArrayList();
+        this.itemsChangeListener = (change) -> {
+
+            this.itemsModificationCount++;
+
+            if (this.isRanking()) {
+
+                this.refilter();
+            }
+        };
 
         this.searchPanel.setVisible(false);
 
@@ -334,39 +676,640 @@ public class ListViewWithSearchPanel<T>
                             }
                         });
 
-        this.searchPanel.getStringFilter()
-                        .filterStringProperty()
-                        .addListener((final Observable observable) -> {
+        final InvalidationListener filterInvalidated = (observable) -> {
+
+            ListViewWithSearchPanel.LOG.debug("Filter invalidated!");
+            this.refilter();
+        };
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+        stringFilter.filterStringProperty()
+                    .addListener(filterInvalidated);
+        stringFilter.caseSensitiveProperty()
+                    .addListener(filterInvalidated);
+        stringFilter.regexFilterStringProperty()
+                    .addListener(filterInvalidated);
+        stringFilter.fuzzyProperty()
+                    .addListener(filterInvalidated);
+        stringFilter.queryProperty()
+                    .addListener(filterInvalidated);
+        stringFilter.getFieldConverters()
+                    .addListener(filterInvalidated);
+        this.rankedResultLimitProperty.addListener(filterInvalidated);
+
+        stringFilter.converterProperty()
+                    .addListener((observable, oldValue, newValue) -> {
+
+                        this.updateSearchIndex();
+                        this.refilter();
+                    });
+
+        this.searchIndexEnabledProperty.addListener(
+                (observable, oldValue, newValue) -> this.updateSearchIndex());
+    }
 
-                            ListViewWithSearchPanel.LOG.debug(
-                                    "FilterString invalidated!");
-                            final ObservableList<T> filteredItems = this
-                                    .filteredItemsProperty.get();
+    /**
+     * Discards the search index and, if enabled, builds a new one from a
+     * snapshot of the items on a background thread. Until the new index is
+     * published, all items are tested.
+     */
+    private void updateSearchIndex() {
 
-                            if ((filteredItems != null)
-                                    && (filteredItems instanceof
-                                    FilteredList<?>)) {
+        if (this.currentIndexPass != null) {
 
-                                final FilteredList<T> filteredList = (
-                                        (FilteredList<T>) filteredItems);
-                                ListViewWithSearchPanel.LOG.debug(
-                                        "Invalidating predicate");
-                                filteredList.setPredicate(t -> true);
-                                filteredList.setPredicate(
-                                        this.searchPanel.getStringFilter());
-                            }
-                        });
+            this.currentIndexPass.cancel();
+            this.currentIndexPass = null;
+        }
+        if (this.searchIndex != null) {
+
+            this.searchIndex.observe(null);
+            this.searchIndex = null;
+        }
+
+        if (this.isSearchIndexEnabled() && (this.observedItems != null)) {
+
+            this.currentIndexPass = new IndexPass(new ArrayList<>(
+                    this.observedItems));
+            ForkJoinPool.commonPool()
+                        .execute(this.currentIndexPass);
+        }
+    }
+
+    /**
+     * Publishes the index built by a completed index pass and refilters the
+     * items with it. Passes that raced with a modification of the items are
+     * restarted; if the items keep changing, the index is rebuilt from the
+     * items directly.
+     */
+    private void publish(final IndexPass indexPass) {
+
+        if ((indexPass != this.currentIndexPass) || indexPass.isCancelled()) {
+
+            return;
+        }
+
+        this.currentIndexPass = null;
+
+        final boolean stale = indexPass.modificationCount
+                != this.itemsModificationCount;
+
+        if (stale && (indexPass.restarts
+                < ListViewWithSearchPanel.MAX_FILTER_PASS_RESTARTS)) {
+
+            ListViewWithSearchPanel.LOG.debug(
+                    "Items modified during indexing, restarting");
+            this.currentIndexPass = new IndexPass(new ArrayList<>(
+                    this.observedItems), indexPass.restarts + 1);
+            ForkJoinPool.commonPool()
+                        .execute(this.currentIndexPass);
+            return;
+        }
+
+        this.searchIndex = indexPass.index;
+        this.searchIndex.observe(this.observedItems, stale);
+        this.searchIndexExceptionProperty.set(null);
+        this.refilter();
+    }
+
+    /**
+     * Ends an index pass that failed. The items are filtered without a
+     * search index until the next index pass succeeds.
+     */
+    private void fail(final IndexPass indexPass, final Throwable exception) {
+
+        if (indexPass != this.currentIndexPass) {
+
+            return;
+        }
+
+        ListViewWithSearchPanel.LOG.error("Indexing failed", exception);
+
+        this.currentIndexPass = null;
+        this.searchIndexExceptionProperty.set(exception);
+    }
+
+    private void refilter() {
+
+        this.cancelFilterPass();
+
+        if (this.isRanking()) {
+
+            this.rank();
+            return;
+        }
+
+        if (this.filteredItemsProperty.get() != this.filteredList) {
+
+            // the predicate of the filtered list is stale after ranking.
+            this.filteredItemsProperty.set(this.filteredList);
+            this.lastFilterString = null;
+        }
+
+        final FilteredList<T> filteredList = this.filteredList;
+
+        if (filteredList != null) {
+
+            final boolean narrowing = this.isNarrowingFilter()
+                    && this.isRefinement();
+            List<T> candidates = narrowing ? filteredList : this.getItems();
+            Set<T> candidateSet = null;
+
+            final Set<T> indexCandidates = this.indexCandidates();
+
+            if ((indexCandidates != null)
+                    && (indexCandidates.size() < candidates.size())) {
+
+                ListViewWithSearchPanel.LOG.debug(
+                        "Search index reports {} candidates",
+                        indexCandidates.size());
+
+                candidateSet = indexCandidates;
+                candidates = new ArrayList<>(indexCandidates);
+            }
+
+            if (candidates.size() >= this.getAsynchronousFilterThreshold()) {
 
+                ListViewWithSearchPanel.LOG.debug(
+                        "Filtering {} items asynchronously",
+                        candidates.size());
+
+                this.currentFilterPass = new FilterPass(new ArrayList<>(
+                        candidates), 0);
+                this.filteringProperty.set(true);
+                ForkJoinPool.commonPool()
+                            .execute(this.currentFilterPass);
+                return;
+            }
+
+            if ((candidateSet == null) && narrowing) {
+
+                ListViewWithSearchPanel.LOG.debug(
+                        "Narrowing filter to {} visible items",
+                        filteredList.size());
+
+                candidateSet = Collections.newSetFromMap(
+                        new IdentityHashMap<>());
+                candidateSet.addAll(filteredList);
+            }
+            this.narrowingCandidates = candidateSet;
+
+            final long start = System.nanoTime();
+
+            try {
+
+                ListViewWithSearchPanel.LOG.debug("Invalidating predicate");
+                filteredList.setPredicate(this.createPredicate());
+            }
+            finally {
+
+                this.narrowingCandidates = null;
+            }
+
+            this.searchPanel.getStringFilter()
+                            .getStatistics()
+                            .recordPass(System.nanoTime() - start);
+        }
+
+        this.rememberFilterSettings();
+    }
+
+    private boolean isRanking() {
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+        final String filterString = stringFilter.getFilterString();
+
+        return (this.getRankedResultLimit() > 0) && stringFilter.isFuzzy()
+                && !stringFilter.isRegexFilterString()
+                && !stringFilter.isQuery()
+                && (filterString != null) && !filterString.isEmpty();
+    }
+
+    /**
+     * Replaces the filtered items with the best matches of the items.
+     */
+    private void rank() {
+
+        // narrowing relies on the filtered list, which is not updated.
+        this.lastFilterString = null;
+
+        if (this.filteredItemsProperty.get() != this.rankedItems) {
+
+            this.filteredItemsProperty.set(this.rankedItems);
+        }
+
+        final ObservableList<T> items = this.getItems();
+
+        if (items == null) {
+
+            this.rankedItems.clear();
+        }
+        else if (items.size() >= this.getAsynchronousFilterThreshold()) {
+
+            ListViewWithSearchPanel.LOG.debug(
+                    "Ranking {} items asynchronously", items.size());
+
+            this.currentFilterPass = new FilterPass(new ArrayList<>(items),
+                    this.getRankedResultLimit());
+            this.filteringProperty.set(true);
+            ForkJoinPool.commonPool()
+                        .execute(this.currentFilterPass);
+        }
+        else {
+
+            final StringFilter<T> stringFilter = this.searchPanel
+                    .getStringFilter();
+
+            this.rankedItems.setAll(stringFilter.topMatches(items,
+                    this.getRankedResultLimit()));
+        }
+    }
+
+    private void cancelFilterPass() {
+
+        if (this.currentFilterPass != null) {
+
+            this.currentFilterPass.cancel();
+            this.currentFilterPass = null;
+            this.filteringProperty.set(false);
+        }
+    }
+
+    /**
+     * Publishes the result of a completed asynchronous filter pass. Results
+     * of cancelled passes are discarded, and passes that raced with a
+     * modification of the items are restarted. If the items keep changing,
+     * the stale result is published after a few restarts, followed by a new
+     * pass, so that a continuously modified list is still updated.
+     */
+    private void publish(final FilterPass filterPass) {
+
+        if ((filterPass != this.currentFilterPass)
+                || filterPass.isCancelled()) {
+
+            return;
+        }
+
+        final boolean stale = filterPass.modificationCount
+                != this.itemsModificationCount;
+
+        if (stale && (this.filterPassRestarts
+                < ListViewWithSearchPanel.MAX_FILTER_PASS_RESTARTS)) {
+
+            ListViewWithSearchPanel.LOG.debug(
+                    "Items modified during filtering, restarting");
+            this.filterPassRestarts++;
+            this.refilter();
+            return;
+        }
+
+        this.currentFilterPass = null;
+        this.filterPassRestarts = 0;
+        this.filterExceptionProperty.set(null);
+
+        if (filterPass.rankLimit > 0) {
+
+            this.rankedItems.setAll(filterPass.ranked);
+            this.filteringProperty.set(false);
+
+            if (stale) {
+
+                this.refilter();
+            }
+            return;
+        }
+
+        if (this.filteredList != null) {
+
+            final Set<T> matches = Collections.newSetFromMap(
+                    new IdentityHashMap<>());
+
+            final BitSet indices = filterPass.matches;
+            int index = indices.nextSetBit(0);
+
+            while (index >= 0) {
+
+                matches.add(filterPass.items.get(index));
+                index = indices.nextSetBit(index + 1);
+            }
+
+            this.publishedMatches = matches;
+            try {
+
+                this.filteredList.setPredicate(this.createPredicate());
+            }
+            finally {
+
+                this.publishedMatches = null;
+            }
+        }
+
+        this.lastFilterString = filterPass.filterString;
+        this.lastCaseSensitive = filterPass.caseSensitive;
+        this.lastRegex = filterPass.regex;
+        this.lastQuery = filterPass.query;
+        this.lastFuzzy = filterPass.fuzzy;
+        this.filteringProperty.set(false);
+
+        if (stale) {
+
+            ListViewWithSearchPanel.LOG.debug(
+                    "Items modified during filtering, published stale result");
+
+            // items added during the pass are not visible, so the stale
+            // result must not be narrowed.
+            this.lastFilterString = null;
+            this.refilter();
+        }
+    }
+
+    /**
+     * Ends an asynchronous filter pass that failed, keeping the previously
+     * published result.
+     */
+    private void fail(final FilterPass filterPass, final Throwable exception) {
+
+        if (filterPass != this.currentFilterPass) {
+
+            return;
+        }
+
+        ListViewWithSearchPanel.LOG.error("Filtering failed", exception);
+
+        this.currentFilterPass = null;
+        this.filterPassRestarts = 0;
+        this.filterExceptionProperty.set(exception);
+        this.filteringProperty.set(false);
+    }
+
+    /**
+     * Creates a new predicate instance (so that the {@link FilteredList}
+     * re-evaluates its source) delegating to the {@link StringFilter}. While a
+     * narrowing pass is in progress, items that were not visible before (or
+     * not reported by the search index) are rejected without being tested;
+     * while the result of an asynchronous pass
+     * is published, the precomputed matches are used instead.
+     */
+    private Predicate<T> createPredicate() {
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+
+        return (item) -> {
+
+            final Set<T> matches = this.publishedMatches;
+
+            if (matches != null) {
+
+                return matches.contains(item);
+            }
+
+            final Set<T> candidates = this.narrowingCandidates;
+
+            if ((candidates != null) && !candidates.contains(item)) {
+
+                return false;
+            }
+
+            return stringFilter.test(item);
+        };
+    }
+
+    private Set<T> indexCandidates() {
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+
+        // the index only narrows substring searches: fuzzy matches need not
+        // contain any n-gram of the filter string.
+        if ((this.searchIndex == null) || stringFilter.isRegexFilterString()
+                || stringFilter.isQuery() || stringFilter.isFuzzy()) {
+
+            return null;
+        }
+
+        return this.searchIndex.candidates(stringFilter.getFilterString(),
+                stringFilter.isCaseSensitive());
+    }
+
+    private boolean isRefinement() {
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+
+        final String previous = this.lastFilterString;
+        final String current = stringFilter.getFilterString();
+
+        if (this.lastRegex || stringFilter.isRegexFilterString()
+                || this.lastQuery || stringFilter.isQuery()
+                || (this.lastFuzzy != stringFilter.isFuzzy())
+                || (this.lastCaseSensitive != stringFilter.isCaseSensitive())
+                || (previous == null) || previous.isEmpty()
+                || (current == null)) {
+
+            return false;
+        }
+
+        if (stringFilter.isCaseSensitive()) {
+
+            return current.contains(previous);
+        }
+
+        // folded like the matched values, which is not locale-sensitive.
+        return StringFilter.foldCase(current)
+                           .contains(StringFilter.foldCase(previous));
+    }
+
+    private void rememberFilterSettings() {
+
+        final StringFilter<T> stringFilter = this.searchPanel.getStringFilter();
+
+        this.lastFilterString = stringFilter.getFilterString();
+        this.lastCaseSensitive = stringFilter.isCaseSensitive();
+        this.lastRegex = stringFilter.isRegexFilterString();
+        this.lastQuery = stringFilter.isQuery();
+        this.lastFuzzy = stringFilter.isFuzzy();
     }
 
     private void updateFilteredItems() {
 
+        this.cancelFilterPass();
+
+        if (this.observedItems != null) {
+
+            this.observedItems.removeListener(this.itemsChangeListener);
+        }
+        this.observedItems = this.getItems();
+        if (this.observedItems != null) {
+
+            this.observedItems.addListener(this.itemsChangeListener);
+        }
+        this.updateSearchIndex();
+
         this.filteredItemsProperty.set(null);
+        this.filteredList = null;
 
         if (this.getItems() != null) {
 
-            this.filteredItemsProperty.set(new FilteredList<>(this.getItems(),
-                    this.searchPanel.getStringFilter()));
+            this.filteredList = new FilteredList<>(this.getItems(),
+                    this.createPredicate());
+        }
+
+        if (this.isRanking()) {
+
+            this.rank();
+        }
+        else {
+
+            this.filteredItemsProperty.set(this.filteredList);
+            this.rememberFilterSettings();
+        }
+    }
+
+
+    /**
+     * The {@code IndexPass} class builds a new {@link NGramIndex} from a
+     * snapshot of the items.
+     */
+    private final class IndexPass
+            implements Runnable {
+
+        private final List<T>       items;
+        private final long          modificationCount;
+        private final int           restarts;
+        private final NGramIndex<T> index;
+
+        private volatile boolean    cancelled;
+
+
+        private IndexPass(final List<T> items) {
+
+            this(items, 0);
+        }
+
+        private IndexPass(final List<T> items, final int restarts) {
+
+            this.items = items;
+            this.modificationCount = ListViewWithSearchPanel.this
+                    .itemsModificationCount;
+            this.restarts = restarts;
+            this.index = new NGramIndex<>(ListViewWithSearchPanel.this
+                    .searchPanel.getStringFilter()::getSearchKey);
+            this.cancelled = false;
+        }
+
+        private void cancel() {
+
+            this.cancelled = true;
+        }
+
+        private boolean isCancelled() {
+
+            return this.cancelled;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+
+                this.index.index(this.items);
+            }
+            catch (final Throwable e) {
+
+                Platform.runLater(() -> ListViewWithSearchPanel.this.fail(
+                        this, e));
+                return;
+            }
+
+            if (!this.cancelled) {
+
+                Platform.runLater(() -> ListViewWithSearchPanel.this
+                        .publish(this));
+            }
+        }
+    }
+
+    /**
+     * The {@code FilterPass} class tests a snapshot of the items against the
+     * {@link StringFilter} using its parallel
+     * {@link StringFilter#filterIndices(List) bulk filtering}, cancelling the
+     * pass as soon as a newer pass is started, or selects the best matches
+     * of the snapshot if a rank limit is provided.
+     */
+    private final class FilterPass
+            implements Runnable {
+
+        private final List<T>    items;
+        private final long       modificationCount;
+        private final String     filterString;
+        private final boolean    caseSensitive;
+        private final boolean    regex;
+        private final boolean    query;
+        private final boolean    fuzzy;
+        private final int        rankLimit;
+
+        private volatile BitSet  matches;
+        private volatile List<T> ranked;
+        private volatile boolean cancelled;
+
+
+        private FilterPass(final List<T> items, final int rankLimit) {
+
+            final StringFilter<T> stringFilter = ListViewWithSearchPanel.this
+                    .searchPanel.getStringFilter();
+
+            this.items = items;
+            this.modificationCount = ListViewWithSearchPanel.this
+                    .itemsModificationCount;
+            this.filterString = stringFilter.getFilterString();
+            this.caseSensitive = stringFilter.isCaseSensitive();
+            this.regex = stringFilter.isRegexFilterString();
+            this.query = stringFilter.isQuery();
+            this.fuzzy = stringFilter.isFuzzy();
+            this.rankLimit = rankLimit;
+            this.matches = null;
+            this.ranked = null;
+            this.cancelled = false;
+        }
+
+        private void cancel() {
+
+            this.cancelled = true;
+        }
+
+        private boolean isCancelled() {
+
+            return this.cancelled;
+        }
+
+        @Override
+        public void run() {
+
+            final StringFilter<T> stringFilter = ListViewWithSearchPanel.this
+                    .searchPanel.getStringFilter();
+
+            try {
+
+                if (this.rankLimit > 0) {
+
+                    this.ranked = stringFilter.topMatches(this.items,
+                            this.rankLimit);
+                }
+                else {
+
+                    this.matches = stringFilter.filterIndices(this.items,
+                            this::isCancelled);
+                }
+            }
+            catch (final Throwable e) {
+
+                Platform.runLater(() -> ListViewWithSearchPanel.this.fail(
+                        this, e));
+                return;
+            }
+
+            if (!this.cancelled) {
+
+                Platform.runLater(() -> ListViewWithSearchPanel.this
+                        .publish(this));
+            }
         }
     }
 }
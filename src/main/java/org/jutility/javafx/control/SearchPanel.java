@@ -25,10 +25,16 @@ package org.jutility.javafx.control;
 
 
 
+import javafx.animation.PauseTransition;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.event.ActionEvent;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
+import javafx.util.Duration;
 
 import org.controlsfx.control.textfield.CustomTextField;
 import org.controlsfx.control.textfield.TextFields;
@@ -41,6 +47,13 @@ import org.jutility.javafx.filter.StringFilter;
 /**
  * The {@code SearchPanel} class provides a control for filtering the content of
  * other controls.
+ * <p>
+ * Input is forwarded to the {@link StringFilter#filterStringProperty() filter
+ * string} of the {@link #getStringFilter() string filter} either after the
+ * configurable {@link #searchDelayProperty() search delay} has passed without
+ * further input, or only when Enter is pressed if
+ * {@link #filterOnEnterProperty() filter on Enter} is set.
+ * </p>
  *
  * @param <T>
  *            the type of the objects to be searched for.
@@ -53,8 +66,14 @@ public class SearchPanel<T>
         extends LabeledTextField {
 
 
-    private final StringFilter<T> stringFilter;
-    private final Hyperlink       close;
+    private final StringFilter<T>          stringFilter;
+    private final Hyperlink                close;
+
+    private final ObjectProperty<Duration> searchDelayProperty;
+    private final BooleanProperty          filterOnEnterProperty;
+    private final PauseTransition          searchDelayTransition;
+
+    private boolean                        updatingFilterString;
 
     /**
      * Returns the string filter of this {@code SearchPanel}.
@@ -66,6 +85,84 @@ public class SearchPanel<T>
         return this.stringFilter;
     }
 
+    /**
+     * Returns the search delay property.
+     * <p>
+     * The filter string is only updated once no further input was made for
+     * the duration of the search delay, so that bursts of input result in a
+     * single filter pass. A {@code null} or non-positive delay (the default)
+     * updates the filter string immediately.
+     * </p>
+     *
+     * @see #getSearchDelay()
+     * @see #setSearchDelay(Duration)
+     *
+     * @return the search delay property.
+     */
+    public ObjectProperty<Duration> searchDelayProperty() {
+
+        return this.searchDelayProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #searchDelayProperty()}.
+     *
+     * @return the value of the {@link #searchDelayProperty()}.
+     */
+    public Duration getSearchDelay() {
+
+        return this.searchDelayProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #searchDelayProperty()}.
+     *
+     * @param value
+     *            the value of the {@link #searchDelayProperty()}.
+     */
+    public void setSearchDelay(final Duration value) {
+
+        this.searchDelayProperty.set(value);
+    }
+
+    /**
+     * Returns the filter on Enter property.
+     * <p>
+     * If {@code true}, the filter string is only updated when Enter is
+     * pressed (or the input is cleared). Defaults to {@code false}.
+     * </p>
+     *
+     * @see #isFilterOnEnter()
+     * @see #setFilterOnEnter(boolean)
+     *
+     * @return the filter on Enter property.
+     */
+    public BooleanProperty filterOnEnterProperty() {
+
+        return this.filterOnEnterProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #filterOnEnterProperty()}.
+     *
+     * @return the value of the {@link #filterOnEnterProperty()}.
+     */
+    public boolean isFilterOnEnter() {
+
+        return this.filterOnEnterProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #filterOnEnterProperty()}.
+     *
+     * @param value
+     *            the value of the {@link #filterOnEnterProperty()}.
+     */
+    public void setFilterOnEnter(final boolean value) {
+
+        this.filterOnEnterProperty.set(value);
+    }
+
 
     /**
      * Creates a new instance of the {@link SearchPanel} class.
@@ -75,6 +172,12 @@ public class SearchPanel<T>
         super((String) null);
 
         this.stringFilter = new StringFilter<>();
+        this.searchDelayProperty = new SimpleObjectProperty<>(Duration.ZERO);
+        this.filterOnEnterProperty = new SimpleBooleanProperty(false);
+        this.searchDelayTransition = new PauseTransition();
+        this.searchDelayTransition.setOnFinished(
+                (actionEvent) -> this.applyFilterString());
+        this.updatingFilterString = false;
 
         this.setWrappedControl(TextFields.createClearableTextField());
         this.getWrappedControl().setPromptText("Find");
@@ -85,8 +188,22 @@ public class SearchPanel<T>
         }
 
         GridPane.setHgrow(this.getWrappedControl(), Priority.SOMETIMES);
-        this.stringFilter.filterStringProperty().bindBidirectional(
-                this.getWrappedControl().textProperty());
+        this.getWrappedControl().textProperty().addListener(
+                (observable, oldValue, newValue) -> this
+                        .scheduleFilterString());
+        this.getWrappedControl().addEventHandler(ActionEvent.ACTION,
+                (actionEvent) -> this.applyFilterString());
+        this.stringFilter.filterStringProperty().addListener(
+                (observable, oldValue, newValue) -> {
+
+                    if (!this.updatingFilterString) {
+
+                        this.searchDelayTransition.stop();
+                        this.updatingFilterString = true;
+                        this.getWrappedControl().setText(newValue);
+                        this.updatingFilterString = false;
+                    }
+                });
 
 
         this.close = new Hyperlink("Close");
@@ -98,4 +215,43 @@ public class SearchPanel<T>
         });
         this.setCenterRightNode(this.close);
     }
+
+
+    private void scheduleFilterString() {
+
+        if (this.updatingFilterString) {
+
+            return;
+        }
+
+        final String text = this.getWrappedControl().getText();
+        final Duration delay = this.getSearchDelay();
+
+        if ((text == null) || text.isEmpty()) {
+
+            this.applyFilterString();
+        }
+        else if (this.isFilterOnEnter()) {
+
+            this.searchDelayTransition.stop();
+        }
+        else if ((delay == null) || delay.lessThanOrEqualTo(Duration.ZERO)) {
+
+            this.applyFilterString();
+        }
+        else {
+
+            this.searchDelayTransition.setDuration(delay);
+            this.searchDelayTransition.playFromStart();
+        }
+    }
+
+    private void applyFilterString() {
+
+        this.searchDelayTransition.stop();
+
+        this.updatingFilterString = true;
+        this.stringFilter.setFilterString(this.getWrappedControl().getText());
+        this.updatingFilterString = false;
+    }
 }
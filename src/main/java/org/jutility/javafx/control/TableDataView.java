@@ -25,26 +25,112 @@ package org.jutility.javafx.control;
 //@formatter:on
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.util.Callback;
 import javafx.util.StringConverter;
 
 import org.jutility.common.datatype.table.ITable;
+import org.jutility.javafx.collections.CellUpdateBuffer;
+import org.jutility.javafx.collections.ICellWriter;
+import org.jutility.javafx.collections.IObservableTable;
+import org.jutility.javafx.collections.IRowAppender;
+import org.jutility.javafx.collections.ITableChangeListener;
+import org.jutility.javafx.stringconverter.IConfigurableStringConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
  * The {@code TableDataView} class provides a control to display a
  * {@link ITable Table}.
+ * <p>
+ * The rows of the {@link ITable Table} are not copied; the items of the view
+ * are a {@link TableRowList} reading the cells directly from the table.
+ * Modifications of an {@link IObservableTable} are applied incrementally:
+ * updated cells and inserted or removed rows are propagated as fine-grained
+ * changes of the items, and only inserted or removed columns cause the
+ * columns of the view to be rebuilt.
+ * </p>
+ * <p>
+ * High-frequency feeds can {@link #updateCell(int, int, Object) update cells}
+ * from any thread. Updates are coalesced per cell and written by the
+ * {@link #cellWriterProperty() cell writer} at most once per pulse (see
+ * {@link CellUpdateBuffer}).
+ * </p>
+ * <p>
+ * Large data sets can be {@link #load(Iterator, long) loaded progressively}:
+ * rows are read in the background and appended in chunks by the
+ * {@link #rowAppenderProperty() row appender}, while the rows loaded so far
+ * are already displayed.
+ * </p>
+ * <p>
+ * Tables with more columns than the
+ * {@link #columnVirtualizationThresholdProperty() column virtualization
+ * threshold} are virtualized horizontally: only the
+ * columns intersecting the viewport (plus a {@link #columnBufferProperty()
+ * buffer} of columns on either side) are realized, while the remaining
+ * columns are represented by two placeholder columns of the same total width.
+ * Virtualized columns share a fixed {@link #virtualColumnWidthProperty()
+ * width} and cannot be resized. Columns in the {@link #getSortOrder() sort
+ * order} are retained (hidden) while they are scrolled out of view, so that
+ * the rows remain sorted by them.
+ * </p>
+ * <p>
+ * Sorting (by the {@link #getSortOrder() sort order} of the columns) and
+ * {@link #rowFilterProperty() filtering} compute a
+ * {@link TableRowList#setRowOrder(int[]) row order} on the common
+ * {@link ForkJoinPool}, which replaces the order of the items in a single
+ * change once it is complete; a newer request cancels a pending one. The
+ * table must only be modified on the JavaFX Application Thread: an order
+ * computed while rows were inserted or removed is computed again, as is
+ * (up to twice) an order computed while cells were updated. If computing the
+ * order fails, the rows are shown in their natural order and the failure is
+ * reported by the {@link #sortExceptionProperty()}.
+ * Updated cells keep their position until the rows are sorted again, while
+ * inserted rows are merged into the current order (see
+ * {@link TableRowList#setRowOrder(int[], IntPredicate, IntBinaryOperator)}).
+ * </p>
  *
  * @param <T>
  *         the content type of the {@link ITable Table}.
@@ -56,10 +142,72 @@ import org.jutility.common.datatype.table.ITable;
 public class TableDataView<T>
         extends TableView<List<T>> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(
+            TableDataView.class);
+
+    private static final int MAX_ROW_ORDER_PASS_RESTARTS = 2;
+
+    /**
+     * The default number of columns above which a table is virtualized
+     * horizontally.
+     */
+    public static final int    DEFAULT_COLUMN_VIRTUALIZATION_THRESHOLD = 200;
+
+    /**
+     * The default number of columns realized on either side of the viewport
+     * of a virtualized table.
+     */
+    public static final int    DEFAULT_COLUMN_BUFFER                   = 8;
+
+    /**
+     * The default width of the columns of a virtualized table.
+     */
+    public static final double DEFAULT_VIRTUAL_COLUMN_WIDTH            = 80;
+
+    /**
+     * The number of rows from which the rows of a table are sorted in
+     * parallel.
+     */
+    public static final int    DEFAULT_PARALLEL_SORT_THRESHOLD         = 100000;
+
+    // loads block on their source and on the JavaFX Application Thread, so
+    // they are not run by the common pool.
+    private static final ExecutorService LOAD_EXECUTOR = Executors
+            .newCachedThreadPool((runnable) -> {
+
+                final Thread thread = new Thread(runnable,
+                        "TableDataView loader");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     private final ObjectProperty<ITable<T>>          tableProperty;
     private final TableCellFactory<T>                tableCellFactory;
     private final ObjectProperty<StringConverter<T>> converterProperty;
+    private final IntegerProperty                    columnVirtualizationThresholdProperty;
+    private final IntegerProperty                    columnBufferProperty;
+    private final DoubleProperty                     virtualColumnWidthProperty;
+
+    private final TableColumn<List<T>, T>            leadingPlaceholder;
+    private final TableColumn<List<T>, T>            trailingPlaceholder;
+    private final InvalidationListener               viewportListener;
+    private final ITableChangeListener<T>            tableChangeListener;
+    private final ObjectProperty<ICellWriter<T>>     cellWriterProperty;
+    private final ObjectProperty<IRowAppender<T>>    rowAppenderProperty;
+    private final ObjectProperty<Executor>           loadExecutorProperty;
+    private final CellUpdateBuffer<T>                cellUpdateBuffer;
+    private final BitSet                             updatedRows;
+    private final ObjectProperty<Predicate<? super List<T>>> rowFilterProperty;
+    private final ReadOnlyBooleanWrapper             sortingProperty;
+    private final ReadOnlyObjectWrapper<Throwable>   sortExceptionProperty;
+
+    private Map<Integer, TableColumn<List<T>, T>>    realizedColumns;
+    private int                                      firstRealizedColumn;
+    private int                                      lastRealizedColumn;
+    private ScrollBar                                horizontalScrollBar;
+    private boolean                                  horizontalScrollBarLookedUp;
+    private RowOrderPass                             rowOrderPass;
+    private TableLoadTask<T>                         loadTask;
 
     /**
      * Returns the {@link ITable Table} property.
@@ -130,224 +278,1651 @@ public class TableDataView<T>
     }
 
     /**
-     * Creates a new instance of the {@link TableDataView} class.
+     * Returns the column virtualization threshold property. Tables with more
+     * columns than the value of this property are virtualized horizontally.
+     * A negative value disables column virtualization.
+     *
+     * @return the column virtualization threshold property.
+     *
+     * @see #getColumnVirtualizationThreshold()
+     * @see #setColumnVirtualizationThreshold(int)
      */
-    public TableDataView() {
+    public IntegerProperty columnVirtualizationThresholdProperty() {
 
-        this(null);
+        return this.columnVirtualizationThresholdProperty;
     }
 
     /**
-     * Creates a new instance of the TableDataView class with the provided
-     * {@link ITable Table} as data source.
+     * Returns the value of the {@link #columnVirtualizationThresholdProperty()}.
      *
-     * @param table
-     *         the {@link ITable Table} data source.
+     * @return the value of the {@link #columnVirtualizationThresholdProperty()}.
      */
-    public TableDataView(final ITable<T> table) {
+    public int getColumnVirtualizationThreshold() {
 
-        this(table, null);
+        return this.columnVirtualizationThresholdProperty.get();
     }
 
     /**
-     * Creates a new instance of the {@link TableDataView} class with the
-     * provided {@link ITable Table} as data source and the provided
-     * {@link StringConverter}.
+     * Sets the value of the {@link #columnVirtualizationThresholdProperty()}.
      *
-     * @param table
-     *         the {@link ITable Table} data source.
-     * @param converter
-     *         the initial {@link StringConverter}.
+     * @param value
+     *         the value of the {@link #columnVirtualizationThresholdProperty()}.
      */
-    public TableDataView(final ITable<T> table,
-            final StringConverter<T> converter) {
-
-        super();
+    public void setColumnVirtualizationThreshold(final int value) {
 
-        this.tableProperty = new SimpleObjectProperty<>(table);
-        this.converterProperty = new SimpleObjectProperty<>(converter);
+        this.columnVirtualizationThresholdProperty.set(value);
+    }
 
+    /**
+     * Returns the column buffer property. The value of this property
+     * determines how many columns outside the viewport of a virtualized table
+     * are realized on either side, so that short horizontal scrolls do not
+     * require new columns.
+     *
+     * @return the column buffer property.
+     *
+     * @see #getColumnBuffer()
+     * @see #setColumnBuffer(int)
+     */
+    public IntegerProperty columnBufferProperty() {
 
-        this.tableCellFactory = new TableCellFactory<>(converter);
+        return this.columnBufferProperty;
+    }
 
-        this.converterProperty.bindBidirectional(
-                this.tableCellFactory.converterProperty());
+    /**
+     * Returns the value of the {@link #columnBufferProperty()}.
+     *
+     * @return the value of the {@link #columnBufferProperty()}.
+     */
+    public int getColumnBuffer() {
 
+        return this.columnBufferProperty.get();
+    }
 
-        this.tableProperty.addListener((observable, oldValue, newValue) -> {
+    /**
+     * Sets the value of the {@link #columnBufferProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #columnBufferProperty()}.
+     */
+    public void setColumnBuffer(final int value) {
 
-            this.getItems()
-                    .clear();
-            this.getColumns()
-                    .clear();
+        this.columnBufferProperty.set(value);
+    }
 
-            if (newValue != null) {
+    /**
+     * Returns the virtual column width property. The value of this property
+     * determines the (fixed) width of the columns of a virtualized table.
+     *
+     * @return the virtual column width property.
+     *
+     * @see #getVirtualColumnWidth()
+     * @see #setVirtualColumnWidth(double)
+     */
+    public DoubleProperty virtualColumnWidthProperty() {
 
-                this.setItems(
-                        FXCollections.observableArrayList(newValue.getRows()));
+        return this.virtualColumnWidthProperty;
+    }
 
+    /**
+     * Returns the value of the {@link #virtualColumnWidthProperty()}.
+     *
+     * @return the value of the {@link #virtualColumnWidthProperty()}.
+     */
+    public double getVirtualColumnWidth() {
 
-                for (int i = 0; i < newValue.columns(); i++) {
+        return this.virtualColumnWidthProperty.get();
+    }
 
-                    final TableColumn<List<T>, T> column = new TableColumn<>(
-                            "" + i);
-                    column.setCellValueFactory(new TableCellValueFactory<>(i));
-                    column.setCellFactory(this.tableCellFactory);
-                    this.getColumns()
-                            .add(column);
-                }
-            }
+    /**
+     * Sets the value of the {@link #virtualColumnWidthProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #virtualColumnWidthProperty()}.
+     */
+    public void setVirtualColumnWidth(final double value) {
 
-        });
+        this.virtualColumnWidthProperty.set(value);
+    }
 
-        if (table != null) {
+    /**
+     * Returns the {@link TableCellFactory} creating the cells of this view,
+     * e.g., to configure its {@link TableCellFactory#textCacheSizeProperty()
+     * text cache}.
+     *
+     * @return the {@link TableCellFactory}.
+     */
+    public TableCellFactory<T> getTableCellFactory() {
 
-            this.setTable(table);
-        }
+        return this.tableCellFactory;
     }
 
     /**
-     * The {@code TableCellValueFactory} class provides a CellValueFactory for
-     * cells of a {@link ITable Table}.
+     * Returns the cell writer property. The {@link ICellWriter} writes the
+     * cell updates submitted by {@link #updateCell(int, int, Object)} to the
+     * {@link ITable Table}. Updates flushed while no writer is set are
+     * discarded (see {@link CellUpdateBuffer#getUpdatesDiscarded()}).
      *
-     * @param <T>
-     *         the content type of the {@link ITable Table}.
+     * @return the cell writer property.
      *
-     * @author Peter J. Radics
-     * @version 0.1.2
-     * @since 0.1.0
+     * @see #getCellWriter()
+     * @see #setCellWriter(ICellWriter)
      */
-    public static class TableCellValueFactory<T>
-            implements
-            Callback<CellDataFeatures<List<T>, T>, ObservableValue<T>> {
+    public ObjectProperty<ICellWriter<T>> cellWriterProperty() {
 
-        private final int columnIndex;
+        return this.cellWriterProperty;
+    }
 
-        /**
-         * Creates a new instance of the {@code TableCellValueFactory} class.
-         *
-         * @param columnIndex
-         *         the column index of the cell.
-         */
-        public TableCellValueFactory(final int columnIndex) {
+    /**
+     * Returns the value of the {@link #cellWriterProperty()}.
+     *
+     * @return the value of the {@link #cellWriterProperty()}.
+     */
+    public ICellWriter<T> getCellWriter() {
 
-            this.columnIndex = columnIndex;
-        }
+        return this.cellWriterProperty.get();
+    }
 
-        @Override
-        public ObservableValue<T> call(
-                final CellDataFeatures<List<T>, T> cellDataFeatures) {
+    /**
+     * Sets the value of the {@link #cellWriterProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #cellWriterProperty()}.
+     */
+    public void setCellWriter(final ICellWriter<T> value) {
 
-            final List<T> row = cellDataFeatures.getValue();
+        this.cellWriterProperty.set(value);
+    }
 
-            final T cellValue = row.get(this.columnIndex);
+    /**
+     * Returns the row appender property. The {@link IRowAppender} appends the
+     * rows {@link #load(Iterator, long) loaded} progressively to the
+     * {@link ITable Table}.
+     *
+     * @return the row appender property.
+     *
+     * @see #getRowAppender()
+     * @see #setRowAppender(IRowAppender)
+     */
+    public ObjectProperty<IRowAppender<T>> rowAppenderProperty() {
 
-            return new ReadOnlyObjectWrapper<>(cellValue);
-        }
+        return this.rowAppenderProperty;
     }
 
+    /**
+     * Returns the value of the {@link #rowAppenderProperty()}.
+     *
+     * @return the value of the {@link #rowAppenderProperty()}.
+     */
+    public IRowAppender<T> getRowAppender() {
 
+        return this.rowAppenderProperty.get();
+    }
 
     /**
-     * The {@code TableCellFactory} class provides a CellFactory for cells of a
-     * {@link ITable Table}.
+     * Sets the value of the {@link #rowAppenderProperty()}.
      *
-     * @param <T>
-     *         the content type of the {@link ITable Table}.
+     * @param value
+     *         the value of the {@link #rowAppenderProperty()}.
+     */
+    public void setRowAppender(final IRowAppender<T> value) {
+
+        this.rowAppenderProperty.set(value);
+    }
+
+    /**
+     * Returns the load executor property, i.e., the {@link Executor} running
+     * the tasks {@link #load(Iterator, long) loading} rows. Defaults to a
+     * shared pool of daemon threads.
      *
-     * @author Peter J. Radics
-     * @version 0.1.2
-     * @since 0.1.0
+     * @return the load executor property.
+     *
+     * @see #getLoadExecutor()
+     * @see #setLoadExecutor(Executor)
      */
-    public static class TableCellFactory<T>
-            implements
-            Callback<TableColumn<List<T>, T>, TableCell<List<T>, T>> {
+    public ObjectProperty<Executor> loadExecutorProperty() {
 
+        return this.loadExecutorProperty;
+    }
 
-        private final ObjectProperty<StringConverter<T>> converterProperty;
+    /**
+     * Returns the value of the {@link #loadExecutorProperty()}.
+     *
+     * @return the value of the {@link #loadExecutorProperty()}.
+     */
+    public Executor getLoadExecutor() {
 
+        return this.loadExecutorProperty.get();
+    }
 
-        /**
-         * Returns the {@link StringConverter} property.
-         *
-         * @return the {@link StringConverter} property.
-         */
-        public ObjectProperty<StringConverter<T>> converterProperty() {
+    /**
+     * Sets the value of the {@link #loadExecutorProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #loadExecutorProperty()}.
+     */
+    public void setLoadExecutor(final Executor value) {
 
-            return this.converterProperty;
-        }
+        this.loadExecutorProperty.set(value);
+    }
 
-        /**
-         * Returns the {@link StringConverter}.
-         *
-         * @return the {@link StringConverter}.
-         */
-        public StringConverter<T> getConverter() {
+    /**
+     * Returns the buffer of the cell updates submitted by
+     * {@link #updateCell(int, int, Object)}, e.g., to query the number of
+     * updates received and applied.
+     *
+     * @return the cell update buffer.
+     */
+    public CellUpdateBuffer<T> getCellUpdateBuffer() {
 
-            return this.converterProperty.get();
-        }
+        return this.cellUpdateBuffer;
+    }
 
-        /**
-         * Sets the value of the {@link StringConverter Converter} property.
-         *
-         * @param value
-         *         the value of the {@link StringConverter Converter} property.
-         */
-        public void setConverter(final StringConverter<T> value) {
+    /**
+     * Returns the row filter property. Only the rows accepted by the filter
+     * are displayed; the filter is applied off the JavaFX Application Thread
+     * and must therefore be thread-safe.
+     *
+     * @return the row filter property.
+     *
+     * @see TableDataView#getRowFilter()
+     * @see TableDataView#setRowFilter(Predicate)
+     */
+    public ObjectProperty<Predicate<? super List<T>>> rowFilterProperty() {
 
-            this.converterProperty.set(value);
-        }
+        return this.rowFilterProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #rowFilterProperty()}.
+     *
+     * @return the value of the {@link #rowFilterProperty()}.
+     */
+    public Predicate<? super List<T>> getRowFilter() {
 
+        return this.rowFilterProperty.get();
+    }
 
-        /**
-         * Creates a new instance of the {@code TableCellFactory} class.
-         */
-        public TableCellFactory() {
+    /**
+     * Sets the value of the {@link #rowFilterProperty()}.
+     *
+     * @param value
+     *         the value of the {@link #rowFilterProperty()}.
+     */
+    public void setRowFilter(final Predicate<? super List<T>> value) {
 
-            this(null);
-        }
+        this.rowFilterProperty.set(value);
+    }
 
-        /**
-         * Creates a new instance of the {@code TableCellFactory} class.
-         *
-         * @param converter
-         *         the initial {@link StringConverter}.
-         */
-        public TableCellFactory(final StringConverter<T> converter) {
+    /**
+     * Returns the sorting property, which is {@code true} while the rows are
+     * sorted or filtered in the background.
+     *
+     * @see #isSorting()
+     *
+     * @return the sorting property.
+     */
+    public ReadOnlyBooleanProperty sortingProperty() {
 
-            this.converterProperty = new SimpleObjectProperty<>(converter);
-        }
+        return this.sortingProperty.getReadOnlyProperty();
+    }
 
-        @Override
-        public TableCell<List<T>, T> call(
-                final TableColumn<List<T>, T> column) {
+    /**
+     * Returns the value of the {@link #sortingProperty()}.
+     *
+     * @return the value of the {@link #sortingProperty()}.
+     */
+    public boolean isSorting() {
 
+        return this.sortingProperty.get();
+    }
 
-            return new TableCell<List<T>, T>() {
+    /**
+     * Returns the sort exception property, which holds the exception that
+     * made the most recent computation of the row order fail, or
+     * {@code null} if it succeeded.
+     *
+     * @see #getSortException()
+     *
+     * @return the sort exception property.
+     */
+    public ReadOnlyObjectProperty<Throwable> sortExceptionProperty() {
 
-                @Override
-                public void updateItem(final T item, final boolean empty) {
+        return this.sortExceptionProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the {@link #sortExceptionProperty()}.
+     *
+     * @return the value of the {@link #sortExceptionProperty()}.
+     */
+    public Throwable getSortException() {
 
+        return this.sortExceptionProperty.get();
+    }
 
-                    super.updateItem(item, empty);
-                    if (TableCellFactory.this.getConverter() == null) {
+    /**
+     * Returns whether or not the columns of the current {@link ITable Table}
+     * are virtualized.
+     *
+     * @return {@code true}, if the columns are virtualized; {@code false}
+     *         otherwise.
+     */
+    public boolean isColumnVirtualized() {
 
-                        if (item != null) {
+        final ITable<T> table = this.getTable();
+        final int threshold = this.getColumnVirtualizationThreshold();
 
-                            this.setText(item.toString());
-                        }
-                        else {
+        return (table != null) && (threshold >= 0)
+                && (table.columns() > threshold);
+    }
 
-                            this.setText(null);
-                        }
-                    }
-                    else {
+    /**
+     * Creates a new instance of the {@link TableDataView} class.
+     */
+    public TableDataView() {
 
-                        this.setText(TableCellFactory.this.getConverter()
-                                .toString(item));
-                    }
-                }
-            };
+        this(null);
+    }
+
+    /**
+     * Creates a new instance of the TableDataView class with the provided
+     * {@link ITable Table} as data source.
+     *
+     * @param table
+     *         the {@link ITable Table} data source.
+     */
+    public TableDataView(final ITable<T> table) {
+
+        this(table, null);
+    }
+
+    /**
+     * Creates a new instance of the {@link TableDataView} class with the
+     * provided {@link ITable Table} as data source and the provided
+     * {@link StringConverter}.
+     *
+     * @param table
+     *         the {@link ITable Table} data source.
+     * @param converter
+     *         the initial {@link StringConverter}.
+     */
+    public TableDataView(final ITable<T> table,
+            final StringConverter<T> converter) {
+
+        super();
+
+        this.tableProperty = new SimpleObjectProperty<>(table);
+        this.converterProperty = new SimpleObjectProperty<>(converter);
+
+
+        this.tableCellFactory = new TableCellFactory<>(converter);
+
+        this.converterProperty.bindBidirectional(
+                this.tableCellFactory.converterProperty());
+
+
+        this.columnVirtualizationThresholdProperty = new SimpleIntegerProperty(
+                TableDataView.DEFAULT_COLUMN_VIRTUALIZATION_THRESHOLD);
+        this.columnBufferProperty = new SimpleIntegerProperty(
+                TableDataView.DEFAULT_COLUMN_BUFFER);
+        this.virtualColumnWidthProperty = new SimpleDoubleProperty(
+                TableDataView.DEFAULT_VIRTUAL_COLUMN_WIDTH);
+
+        this.leadingPlaceholder = TableDataView.createPlaceholder();
+        this.trailingPlaceholder = TableDataView.createPlaceholder();
+        this.realizedColumns = new HashMap<>();
+
+        this.viewportListener = (observable) -> this.updateRealizedColumns();
+        this.cellWriterProperty = new SimpleObjectProperty<>();
+        this.rowAppenderProperty = new SimpleObjectProperty<>();
+        this.loadExecutorProperty = new SimpleObjectProperty<>(
+                TableDataView.LOAD_EXECUTOR);
+        this.updatedRows = new BitSet();
+        this.cellUpdateBuffer = new CellUpdateBuffer<>(null,
+                this::cellsWritten);
+        this.cellWriterProperty.addListener((observable, oldValue,
+                newValue) -> this.cellUpdateBuffer
+                .setWriter((newValue == null) ? null : this::writeCell));
+        // inserted and removed rows are merged into the order by the items.
+        this.tableChangeListener = new ITableChangeListener<T>() {
+
+            @Override
+            public void columnsInserted(
+                    final IObservableTable<? extends T> observableTable,
+                    final int from, final int to) {
+
+                TableDataView.this.updateColumns();
+            }
+
+            @Override
+            public void columnsRemoved(
+                    final IObservableTable<? extends T> observableTable,
+                    final int from, final int to) {
+
+                TableDataView.this.updateColumns();
+            }
+        };
+
+
+        this.tableProperty.addListener((observable, oldValue, newValue) -> {
+
+            if (oldValue instanceof IObservableTable) {
+
+                ((IObservableTable<T>) oldValue)
+                        .removeListener(this.tableChangeListener);
+            }
+            this.updateTable(newValue);
+        });
+
+        final InvalidationListener columnsInvalidated = (observable) -> this
+                .updateColumns();
+
+        this.columnVirtualizationThresholdProperty
+                .addListener(columnsInvalidated);
+        this.columnBufferProperty.addListener(columnsInvalidated);
+        this.virtualColumnWidthProperty.addListener(columnsInvalidated);
+        this.widthProperty()
+                .addListener(this.viewportListener);
+        this.skinProperty()
+                .addListener((observable) -> this.resetHorizontalScrollBar());
+
+        this.rowFilterProperty = new SimpleObjectProperty<>();
+        this.sortingProperty = new ReadOnlyBooleanWrapper(false);
+        this.sortExceptionProperty = new ReadOnlyObjectWrapper<>();
+        this.rowFilterProperty.addListener((observable) -> this
+                .requestRowOrder(true));
+        this.setSortPolicy((view) -> {
+
+            this.requestRowOrder(false);
+            return Boolean.TRUE;
+        });
+        this.setRowFactory((view) -> new KeyedTableRow<>());
+
+        this.updateTable(table);
+    }
+
+
+    /**
+     * Submits an update of a cell. This method can be called from any thread;
+     * the update is written by the {@link #cellWriterProperty() cell writer}
+     * on the JavaFX Application Thread during the next pulse, unless it is
+     * superseded by a later update of the same cell.
+     *
+     * @param row
+     *         the row of the cell.
+     * @param column
+     *         the column of the cell.
+     * @param value
+     *         the new value of the cell.
+     */
+    public void updateCell(final int row, final int column, final T value) {
+
+        this.cellUpdateBuffer.update(row, column, value);
+    }
+
+
+    /**
+     * Loads rows progressively: the rows are pulled from the provided
+     * {@link Iterator} by the {@link #loadExecutorProperty() load executor}
+     * and appended to the
+     * {@link ITable Table} in chunks by the {@link #rowAppenderProperty() row
+     * appender}, while the rows loaded so far are already displayed.
+     * <p>
+     * A previous load still in progress is cancelled, as is the load once the
+     * table is replaced; rows it has not appended yet are discarded. The
+     * returned task reports the progress of the load and can be used to
+     * cancel it. If the rows are {@link #getSortOrder() sorted} or
+     * {@link #rowFilterProperty() filtered}, the appended rows are merged
+     * into the current order.
+     * </p>
+     *
+     * @param rows
+     *         the rows to load.
+     * @param expectedRows
+     *         the expected number of rows, or a negative number, if the number
+     *         of rows is unknown.
+     * @return the task loading the rows.
+     */
+    public TableLoadTask<T> load(final Iterator<? extends List<T>> rows,
+            final long expectedRows) {
+
+        if (this.getRowAppender() == null) {
+
+            throw new IllegalStateException(
+                    "Cannot load rows without a row appender!");
+        }
+        if (this.getLoadExecutor() == null) {
+
+            throw new IllegalStateException(
+                    "Cannot load rows without a load executor!");
+        }
+
+        this.cancelLoad();
+
+        final TableLoadTask<T> task = new TableLoadTask<T>(rows, expectedRows,
+                this::appendRows);
+
+        this.loadTask = task;
+        this.getLoadExecutor()
+                .execute(task);
+
+        return task;
+    }
+
+
+    @Override
+    protected void layoutChildren() {
+
+        super.layoutChildren();
+
+        if (!this.horizontalScrollBarLookedUp && this.isColumnVirtualized()) {
+
+            // the scroll bar is only available once the skin was created; it
+            // is looked up once per skin.
+            this.horizontalScrollBarLookedUp = true;
+
+            for (final Node node : this.lookupAll(".scroll-bar")) {
+
+                if ((node instanceof ScrollBar) && Orientation.HORIZONTAL
+                        .equals(((ScrollBar) node).getOrientation())) {
+
+                    this.horizontalScrollBar = (ScrollBar) node;
+                    this.horizontalScrollBar.valueProperty()
+                            .addListener(this.viewportListener);
+                    this.updateRealizedColumns();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void resetHorizontalScrollBar() {
+
+        if (this.horizontalScrollBar != null) {
+
+            this.horizontalScrollBar.valueProperty()
+                    .removeListener(this.viewportListener);
+            this.horizontalScrollBar = null;
+        }
+        this.horizontalScrollBarLookedUp = false;
+    }
+
+    private void cancelLoad() {
+
+        if (this.loadTask != null) {
+
+            this.loadTask.cancel();
+            this.loadTask = null;
+        }
+    }
+
+    /**
+     * Appends a chunk of loaded rows, and notifies the items of the appended
+     * rows, unless the table reports its modifications itself.
+     */
+    private void appendRows(final List<? extends List<? extends T>> rows) {
+
+        final IRowAppender<T> appender = this.getRowAppender();
+
+        if (appender == null) {
+
+            return;
+        }
+
+        appender.append(rows);
+
+        if ((this.getItems() instanceof TableRowList)
+                && !(this.getTable() instanceof IObservableTable)) {
+
+            // the appended rows are merged into the current order.
+            ((TableRowList<T>) this.getItems()).rowsAppended();
+        }
+    }
+
+    /**
+     * Writes a flushed update with the cell writer, which is set as the
+     * writer of the buffer only while the cell writer is set.
+     */
+    private void writeCell(final int row, final int column, final T value) {
+
+        if (this.updatedRows.isEmpty()
+                && (this.getItems() instanceof TableRowList)) {
+
+            // the cell events of an observable table are reported as a
+            // single change once the flush is complete.
+            ((TableRowList<T>) this.getItems()).beginUpdate();
+        }
+
+        this.updatedRows.set(row);
+        this.getCellWriter()
+                .write(row, column, value);
+    }
+
+    /**
+     * Notifies the items of the updated rows, unless the table reports its
+     * modifications itself.
+     */
+    private void cellsWritten() {
+
+        if ((this.getItems() instanceof TableRowList)
+                && !this.updatedRows.isEmpty()) {
+
+            final TableRowList<T> items = (TableRowList<T>) this.getItems();
+
+            if (!(this.getTable() instanceof IObservableTable)) {
+
+                items.rowsUpdated(this.updatedRows);
+            }
+            items.endUpdate();
+        }
+
+        this.updatedRows.clear();
+    }
+
+    private void updateTable(final ITable<T> table) {
+
+        this.cancelRowOrderPass();
+        this.cancelLoad();
+        // pending updates refer to the cells of the previous table.
+        this.cellUpdateBuffer.clear();
+
+        if (this.getItems() instanceof TableRowList) {
+
+            ((TableRowList<T>) this.getItems()).dispose();
+        }
+
+        if (table == null) {
+
+            this.setItems(FXCollections.observableArrayList());
+        }
+        else {
+
+            this.setItems(new TableRowList<>(table));
+        }
+
+        // after the items, so that they are updated before being reordered.
+        if (table instanceof IObservableTable) {
+
+            ((IObservableTable<T>) table).addListener(this.tableChangeListener);
+        }
+
+        this.updateColumns();
+        this.requestRowOrder(true);
+    }
+
+    /**
+     * Requests a new order of the rows, computed from the sort order and the
+     * row filter. Unless forced, the request is ignored if neither changed
+     * since the last request.
+     */
+    private void requestRowOrder(final boolean force) {
+
+        if (!(this.getItems() instanceof TableRowList)) {
+
+            return;
+        }
+
+        final RowOrderPass pass = new RowOrderPass(
+                (TableRowList<T>) this.getItems(), 0);
+
+        if (!force && pass.isEquivalent(this.rowOrderPass)) {
+
+            return;
+        }
+
+        this.startRowOrderPass(pass);
+    }
+
+    private void startRowOrderPass(final RowOrderPass pass) {
+
+        this.cancelRowOrderPass();
+        this.rowOrderPass = pass;
+
+        if (pass.isNaturalOrder()) {
+
+            this.sortExceptionProperty.set(null);
+
+            if (pass.list.isRowOrdered()) {
+
+                pass.list.setRowOrder(null);
+            }
+            return;
+        }
+
+        this.sortingProperty.set(true);
+        ForkJoinPool.commonPool()
+                    .execute(pass);
+    }
+
+    private void cancelRowOrderPass() {
+
+        if (this.rowOrderPass != null) {
+
+            this.rowOrderPass.cancel();
+            this.rowOrderPass = null;
+            this.sortingProperty.set(false);
+        }
+    }
+
+    /**
+     * Publishes the result of a completed row order pass. Results of
+     * cancelled passes are discarded, and passes that raced with inserted or
+     * removed rows are restarted, whereas rows appended in the meantime are
+     * merged into the published order. Passes that raced with updated cells are
+     * restarted up to {@link #MAX_ROW_ORDER_PASS_RESTARTS} times, so that a
+     * continuous feed of updates does not starve sorting; afterwards, the
+     * order is published, and the updated cells keep their position.
+     */
+    private void publish(final RowOrderPass pass) {
+
+        if ((pass != this.rowOrderPass) || pass.isCancelled()) {
+
+            return;
+        }
+
+        if (this.getItems() != pass.list) {
+
+            this.requestRowOrder(true);
+            return;
+        }
+
+        if ((pass.list.rowModifications() != pass.rowModifications)
+                || ((pass.list.cellModifications() != pass.cellModifications)
+                        && (pass.restarts
+                                < TableDataView.MAX_ROW_ORDER_PASS_RESTARTS))) {
+
+            TableDataView.LOG.debug("Rows modified during sorting, restarting");
+            this.startRowOrderPass(new RowOrderPass(pass.list,
+                    pass.restarts + 1));
+            return;
+        }
+
+        // the pass is retained, so that equivalent requests are ignored.
+        this.sortingProperty.set(false);
+        this.sortExceptionProperty.set(null);
+
+        try {
+
+            pass.list.setRowOrder(pass.order, pass.rowFilter(),
+                    pass.rowComparator(), pass.rows);
+        }
+        catch (final RuntimeException e) {
+
+            this.fail(pass, e);
+        }
+    }
+
+    /**
+     * Ends a row order pass that failed, and shows the rows in their natural
+     * order.
+     */
+    private void fail(final RowOrderPass pass, final Throwable exception) {
+
+        if ((pass != this.rowOrderPass) || pass.isCancelled()) {
+
+            return;
+        }
+
+        if ((this.getItems() == pass.list)
+                && (pass.list.rowModifications() != pass.rowModifications)) {
+
+            // most likely, a row was removed while it was read.
+            this.startRowOrderPass(new RowOrderPass(pass.list,
+                    pass.restarts + 1));
+            return;
+        }
+
+        TableDataView.LOG.error("Sorting failed", exception);
+
+        // the pass is retained, so that equivalent requests do not fail
+        // again.
+        this.sortingProperty.set(false);
+        this.sortExceptionProperty.set(exception);
+
+        if (pass.list.isRowOrdered() && (this.getItems() == pass.list)) {
+
+            pass.list.setRowOrder(null);
+        }
+    }
+
+    private void updateColumns() {
+
+        this.getColumns()
+                .clear();
+        this.realizedColumns = new HashMap<>();
+        this.firstRealizedColumn = 0;
+        this.lastRealizedColumn = 0;
+
+        final ITable<T> table = this.getTable();
+
+        if (table == null) {
+
+            return;
+        }
+
+        if (this.isColumnVirtualized()) {
+
+            this.updateRealizedColumns();
+        }
+        else {
+
+            final List<TableColumn<List<T>, ?>> columns = new ArrayList<>(
+                    table.columns());
+
+            for (int i = 0; i < table.columns(); i++) {
+
+                columns.add(this.createColumn(i));
+            }
+
+            this.getColumns()
+                    .setAll(columns);
+        }
+    }
+
+    /**
+     * Realizes the columns intersecting the viewport (plus the buffer) of a
+     * virtualized table, reusing columns that remain realized, and sizes the
+     * placeholders to represent the remaining columns. Columns in the sort
+     * order remain realized but hidden while they are outside the viewport:
+     * removing them from the columns would remove them from the sort order.
+     */
+    private void updateRealizedColumns() {
+
+        if (!this.isColumnVirtualized()) {
+
+            return;
+        }
+
+        final int columnCount = this.getTable()
+                .columns();
+        final double columnWidth = Math.max(1, this.getVirtualColumnWidth());
+        final int buffer = Math.max(0, this.getColumnBuffer());
+        final double offset = (this.horizontalScrollBar == null) ? 0
+                : this.horizontalScrollBar.getValue();
+        final double viewport = Math.max(columnWidth, this.getWidth());
+
+        final int first = Math.max(0, (int) (offset / columnWidth) - buffer);
+        final int last = Math.min(columnCount,
+                (int) Math.ceil((offset + viewport) / columnWidth) + buffer);
+
+        if ((first == this.firstRealizedColumn)
+                && (last == this.lastRealizedColumn)
+                && !this.realizedColumns.isEmpty()) {
+
+            return;
+        }
+
+        final Map<Integer, TableColumn<List<T>, T>> realized = new HashMap<>();
+        final List<TableColumn<List<T>, ?>> columns = new ArrayList<>(
+                (last - first) + 2);
+
+        // the placeholders remain in the columns (if empty, with a width of
+        // 0), so that the width of the rows never collapses while the
+        // columns are replaced, which would reset the scroll bar.
+        this.leadingPlaceholder.setPrefWidth(first * columnWidth);
+        columns.add(this.leadingPlaceholder);
+
+        for (int i = first; i < last; i++) {
+
+            TableColumn<List<T>, T> column = this.realizedColumns.get(i);
+
+            if (column == null) {
+
+                column = this.createColumn(i);
+                column.setPrefWidth(columnWidth);
+                column.setResizable(false);
+            }
+
+            column.setVisible(true);
+            realized.put(i, column);
+            columns.add(column);
+        }
+
+        this.trailingPlaceholder.setPrefWidth((columnCount - last)
+                * columnWidth);
+        columns.add(this.trailingPlaceholder);
+
+        for (final Map.Entry<Integer, TableColumn<List<T>, T>> entry : this.realizedColumns
+                .entrySet()) {
+
+            final TableColumn<List<T>, T> column = entry.getValue();
+
+            if (!realized.containsKey(entry.getKey())
+                    && this.getSortOrder()
+                            .contains(column)) {
+
+                // hidden columns take no space.
+                column.setVisible(false);
+                realized.put(entry.getKey(), column);
+                columns.add(column);
+            }
+        }
+
+        this.realizedColumns = realized;
+        this.firstRealizedColumn = first;
+        this.lastRealizedColumn = last;
+        this.getColumns()
+                .setAll(columns);
+    }
+
+    private TableColumn<List<T>, T> createColumn(final int index) {
+
+        final TableColumn<List<T>, T> column = new TableColumn<>("" + index);
+        column.setCellValueFactory(new TableCellValueFactory<>(index));
+        column.setCellFactory(this.tableCellFactory);
+
+        return column;
+    }
+
+    private static <T> TableColumn<List<T>, T> createPlaceholder() {
+
+        final TableColumn<List<T>, T> placeholder = new TableColumn<>();
+        placeholder.setSortable(false);
+        placeholder.setResizable(false);
+        placeholder.setMinWidth(0);
+        placeholder.setMaxWidth(Double.MAX_VALUE);
+
+        return placeholder;
+    }
+
+    /**
+     * The {@code KeyedTableRow} class updates its cells when the
+     * {@link TableRowList#getRowKey(int) key} of its row changes, since the
+     * views of a modified row are still equal to the views displayed before.
+     */
+    private static final class KeyedTableRow<T>
+            extends TableRow<List<T>> {
+
+        private Object key;
+
+
+        @Override
+        protected boolean isItemChanged(final List<T> oldItem,
+                final List<T> newItem) {
+
+            return !Objects.equals(this.key, this.rowKey())
+                    || super.isItemChanged(oldItem, newItem);
+        }
+
+        @Override
+        protected void updateItem(final List<T> item, final boolean empty) {
+
+            super.updateItem(item, empty);
+
+            this.key = empty ? null : this.rowKey();
+        }
+
+        private Object rowKey() {
+
+            final TableView<List<T>> view = this.getTableView();
+            final int index = this.getIndex();
+
+            if ((view == null) || !(view.getItems() instanceof TableRowList)
+                    || (index < 0) || (index >= view.getItems()
+                                                    .size())) {
+
+                return null;
+            }
+
+            return ((TableRowList<T>) view.getItems()).getRowKey(index);
+        }
+    }
+
+    /**
+     * Computes the order of the rows of a {@link TableRowList} from a snapshot
+     * of the sort order and the row filter, which is taken on the JavaFX
+     * Application Thread.
+     */
+    private final class RowOrderPass
+            implements Runnable {
+
+        private final TableRowList<T>                  list;
+        private final int                              rows;
+        private final int                              rowModifications;
+        private final int                              cellModifications;
+        private final int                              restarts;
+        private final Predicate<? super List<T>>       filter;
+        private final int[]                            columns;
+        private final List<Comparator<? super T>>      comparators;
+        private final boolean[]                        descending;
+
+        private volatile int[]                         order;
+        private volatile boolean                       cancelled;
+
+
+        @SuppressWarnings("unchecked")
+        private RowOrderPass(final TableRowList<T> list, final int restarts) {
+
+            final List<TableColumn<List<T>, ?>> sortOrder = new ArrayList<>();
+            final int columnCount = list.getTable()
+                    .columns();
+
+            for (final TableColumn<List<T>, ?> column : TableDataView.this
+                    .getSortOrder()) {
+
+                final Object factory = column.getCellValueFactory();
+
+                if ((factory instanceof TableCellValueFactory)
+                        && (((TableCellValueFactory<?>) factory)
+                                .getColumnIndex() < columnCount)) {
+
+                    sortOrder.add(column);
+                }
+            }
+
+            this.list = list;
+            this.rows = list.tableRows();
+            this.rowModifications = list.rowModifications();
+            this.cellModifications = list.cellModifications();
+            this.restarts = restarts;
+            this.filter = TableDataView.this.getRowFilter();
+            this.columns = new int[sortOrder.size()];
+            this.comparators = new ArrayList<>(sortOrder.size());
+            this.descending = new boolean[sortOrder.size()];
+
+            for (int i = 0; i < this.columns.length; i++) {
+
+                final TableColumn<List<T>, T> column =
+                        (TableColumn<List<T>, T>) sortOrder.get(i);
+                final Comparator<T> comparator = column.getComparator();
+
+                this.columns[i] = ((TableCellValueFactory<T>) column
+                        .getCellValueFactory()).getColumnIndex();
+                this.comparators.add((comparator != null) ? comparator
+                        : (Comparator<T>) TableColumn.DEFAULT_COMPARATOR);
+                this.descending[i] = TableColumn.SortType.DESCENDING
+                        .equals(column.getSortType());
+            }
+
+            this.order = null;
+            this.cancelled = false;
+        }
+
+        private void cancel() {
+
+            this.cancelled = true;
+        }
+
+        private boolean isCancelled() {
+
+            return this.cancelled;
+        }
+
+        private boolean isNaturalOrder() {
+
+            return (this.filter == null) && (this.columns.length == 0);
+        }
+
+        /**
+         * Returns whether or not the provided pass orders the same rows by the
+         * same criteria. Rows appended since are merged into the order of
+         * the provided pass.
+         */
+        private boolean isEquivalent(final RowOrderPass other) {
+
+            if ((other == null) || (other.list != this.list)
+                    || (other.rowModifications != this.rowModifications)
+                    || (other.filter != this.filter)
+                    || !Arrays.equals(other.columns, this.columns)
+                    || !Arrays.equals(other.descending, this.descending)) {
+
+                return false;
+            }
+
+            for (int i = 0; i < this.columns.length; i++) {
+
+                if (other.comparators.get(i) != this.comparators.get(i)) {
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public void run() {
+
+            try {
+
+                this.order = this.computeOrder();
+            }
+            catch (final CancellationException e) {
+
+                // superseded by a newer pass.
+                return;
+            }
+            catch (final Throwable e) {
+
+                // e.g., a failing comparator or filter, or a row removed
+                // while it was read.
+                Platform.runLater(() -> TableDataView.this.fail(this, e));
+                return;
+            }
+
+            if (!this.cancelled) {
+
+                Platform.runLater(() -> TableDataView.this.publish(this));
+            }
+        }
+
+        private int[] computeOrder() {
+
+            int[] candidates = new int[this.rows];
+            int count = 0;
+
+            for (int row = 0; row < this.rows; row++) {
+
+                if (this.cancelled) {
+
+                    throw new CancellationException();
+                }
+                if ((this.filter == null)
+                        || this.filter.test(this.list.getTableRow(row))) {
+
+                    candidates[count++] = row;
+                }
+            }
+
+            if (count < candidates.length) {
+
+                candidates = Arrays.copyOf(candidates, count);
+            }
+
+            if (this.columns.length == 0) {
+
+                return candidates;
+            }
+
+            // the sort keys are read once, rather than once per comparison.
+            final ITable<T> table = this.list.getTable();
+            final Object[][] keys = new Object[this.columns.length][count];
+
+            for (int i = 0; i < count; i++) {
+
+                if (this.cancelled) {
+
+                    throw new CancellationException();
+                }
+                for (int k = 0; k < this.columns.length; k++) {
+
+                    keys[k][i] = table.get(candidates[i], this.columns[k]);
+                }
+            }
+
+            final int[] positions = new int[count];
+
+            for (int i = 0; i < count; i++) {
+
+                positions[i] = i;
+            }
+
+            final IntBinaryOperator comparator = (first, second) -> {
+
+                if (this.cancelled) {
+
+                    throw new CancellationException();
+                }
+
+                for (int k = 0; k < this.columns.length; k++) {
+
+                    final int result = this.compare(k, keys[k][first],
+                            keys[k][second]);
+
+                    if (result != 0) {
+
+                        return this.descending[k] ? -result : result;
+                    }
+                }
+
+                // ties keep the order of the table.
+                return Integer.compare(first, second);
+            };
+
+            if (count >= TableDataView.DEFAULT_PARALLEL_SORT_THRESHOLD) {
+
+                IntSorter.parallelSort(positions, comparator);
+            }
+            else {
+
+                IntSorter.sort(positions, 0, count, comparator);
+            }
+
+            final int[] result = new int[count];
+
+            for (int i = 0; i < count; i++) {
+
+                result[i] = candidates[positions[i]];
+            }
+
+            return result;
+        }
+
+        /**
+         * Returns the filter of the row indices of the table, which applies
+         * the row filter to the rows inserted after the pass.
+         */
+        private IntPredicate rowFilter() {
+
+            if (this.filter == null) {
+
+                return null;
+            }
+
+            return (row) -> this.filter.test(this.list.getTableRow(row));
+        }
+
+        /**
+         * Returns the comparator of the row indices of the table, which
+         * compares the current cells of the rows inserted after the pass.
+         */
+        private IntBinaryOperator rowComparator() {
+
+            final ITable<T> table = this.list.getTable();
+
+            return (first, second) -> {
+
+                for (int k = 0; k < this.columns.length; k++) {
+
+                    final int result = this.compare(k,
+                            table.get(first, this.columns[k]),
+                            table.get(second, this.columns[k]));
+
+                    if (result != 0) {
+
+                        return this.descending[k] ? -result : result;
+                    }
+                }
+
+                // ties keep the order of the table.
+                return Integer.compare(first, second);
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(final int key, final Object first,
+                final Object second) {
+
+            return this.comparators.get(key)
+                    .compare((T) first, (T) second);
+        }
+    }
+
+    /**
+     * The {@code TableCellValueFactory} class provides a CellValueFactory for
+     * cells of a {@link ITable Table}.
+     * <p>
+     * Since the cells of a {@link ITable Table} do not report changes, the
+     * factory provides constant observable values, which retain no listeners
+     * and are cheaper to create than properties. Empty cells share a single
+     * instance.
+     * </p>
+     *
+     * @param <T>
+     *         the content type of the {@link ITable Table}.
+     *
+     * @author Peter J. Radics
+     * @version 0.1.2
+     * @since 0.1.0
+     */
+    public static class TableCellValueFactory<T>
+            implements
+            Callback<CellDataFeatures<List<T>, T>, ObservableValue<T>> {
+
+        private final int columnIndex;
+
+        /**
+         * Creates a new instance of the {@code TableCellValueFactory} class.
+         *
+         * @param columnIndex
+         *         the column index of the cell.
+         */
+        public TableCellValueFactory(final int columnIndex) {
+
+            this.columnIndex = columnIndex;
+        }
+
+        /**
+         * Returns the column index of the cell.
+         *
+         * @return the column index of the cell.
+         */
+        public int getColumnIndex() {
+
+            return this.columnIndex;
+        }
+
+        @Override
+        public ObservableValue<T> call(
+                final CellDataFeatures<List<T>, T> cellDataFeatures) {
+
+            final List<T> row = cellDataFeatures.getValue();
+
+            final T cellValue = row.get(this.columnIndex);
+
+            if (cellValue == null) {
+
+                @SuppressWarnings("unchecked")
+                final ObservableValue<T> empty =
+                        (ObservableValue<T>) CellValue.EMPTY;
+                return empty;
+            }
+
+            return new CellValue<>(cellValue);
+        }
+
+
+        /**
+         * An immutable {@link ObservableValue}. Since the value never changes,
+         * listeners are never notified and therefore not retained.
+         */
+        private static final class CellValue<T>
+                implements ObservableValue<T> {
+
+            private static final CellValue<Object> EMPTY = new CellValue<>(
+                                                                 null);
+
+            private final T                        value;
+
+
+            private CellValue(final T value) {
+
+                this.value = value;
+            }
+
+            @Override
+            public T getValue() {
+
+                return this.value;
+            }
+
+            @Override
+            public void addListener(final InvalidationListener listener) {
+
+                // the value never changes.
+            }
+
+            @Override
+            public void removeListener(final InvalidationListener listener) {
+
+                // the value never changes.
+            }
+
+            @Override
+            public void addListener(
+                    final ChangeListener<? super T> listener) {
+
+                // the value never changes.
+            }
+
+            @Override
+            public void removeListener(
+                    final ChangeListener<? super T> listener) {
+
+                // the value never changes.
+            }
+        }
+    }
+
+
+
+    /**
+     * The {@code TableCellFactory} class provides a CellFactory for cells of a
+     * {@link ITable Table}.
+     * <p>
+     * Optionally, the texts rendered by the {@link #converterProperty()
+     * converter} can be memoized in a bounded cache keyed by cell value, so
+     * that scrolling back and forth does not format the same values again.
+     * The cache is cleared whenever the converter (or the configuration of an
+     * {@link IConfigurableStringConverter}) changes.
+     * </p>
+     *
+     * @param <T>
+     *         the content type of the {@link ITable Table}.
+     *
+     * @author Peter J. Radics
+     * @version 0.1.2
+     * @since 0.1.0
+     */
+    public static class TableCellFactory<T>
+            implements
+            Callback<TableColumn<List<T>, T>, TableCell<List<T>, T>> {
+
+
+        private final ObjectProperty<StringConverter<T>> converterProperty;
+        private final IntegerProperty                    textCacheSizeProperty;
+        private final Map<T, String>                     textCache;
+        private final InvalidationListener               textCacheInvalidator;
+
+        private long                                     textCacheHits;
+        private long                                     textCacheMisses;
+
+
+        /**
+         * Returns the {@link StringConverter} property.
+         *
+         * @return the {@link StringConverter} property.
+         */
+        public ObjectProperty<StringConverter<T>> converterProperty() {
+
+            return this.converterProperty;
+        }
+
+        /**
+         * Returns the {@link StringConverter}.
+         *
+         * @return the {@link StringConverter}.
+         */
+        public StringConverter<T> getConverter() {
+
+            return this.converterProperty.get();
+        }
+
+        /**
+         * Sets the value of the {@link StringConverter Converter} property.
+         *
+         * @param value
+         *         the value of the {@link StringConverter Converter} property.
+         */
+        public void setConverter(final StringConverter<T> value) {
+
+            this.converterProperty.set(value);
+        }
+
+        /**
+         * Returns the text cache size property. The value of this property
+         * determines the maximum number of rendered texts retained by the
+         * cache; the least recently used texts are evicted first. A value of
+         * {@code 0} (the default) disables the cache.
+         *
+         * @return the text cache size property.
+         *
+         * @see #getTextCacheSize()
+         * @see #setTextCacheSize(int)
+         */
+        public IntegerProperty textCacheSizeProperty() {
+
+            return this.textCacheSizeProperty;
+        }
+
+        /**
+         * Returns the value of the {@link #textCacheSizeProperty()}.
+         *
+         * @return the value of the {@link #textCacheSizeProperty()}.
+         */
+        public int getTextCacheSize() {
+
+            return this.textCacheSizeProperty.get();
+        }
+
+        /**
+         * Sets the value of the {@link #textCacheSizeProperty()}.
+         *
+         * @param value
+         *         the value of the {@link #textCacheSizeProperty()}.
+         */
+        public void setTextCacheSize(final int value) {
+
+            this.textCacheSizeProperty.set(value);
+        }
+
+        /**
+         * Returns the number of texts provided by the cache since the last
+         * reset.
+         *
+         * @return the number of cache hits.
+         */
+        public long getTextCacheHits() {
+
+            return this.textCacheHits;
+        }
+
+        /**
+         * Returns the number of texts rendered by the converter while the
+         * cache was enabled since the last reset.
+         *
+         * @return the number of cache misses.
+         */
+        public long getTextCacheMisses() {
+
+            return this.textCacheMisses;
+        }
+
+        /**
+         * Discards all cached texts.
+         */
+        public void clearTextCache() {
+
+            this.textCache.clear();
+        }
+
+        /**
+         * Resets the hit and miss counters of the text cache.
+         */
+        public void resetTextCacheStatistics() {
+
+            this.textCacheHits = 0;
+            this.textCacheMisses = 0;
+        }
+
+
+        /**
+         * Creates a new instance of the {@code TableCellFactory} class.
+         */
+        public TableCellFactory() {
+
+            this(null);
+        }
+
+        /**
+         * Creates a new instance of the {@code TableCellFactory} class.
+         *
+         * @param converter
+         *         the initial {@link StringConverter}.
+         */
+        public TableCellFactory(final StringConverter<T> converter) {
+
+            this.converterProperty = new SimpleObjectProperty<>(converter);
+            this.textCacheSizeProperty = new SimpleIntegerProperty(0);
+            this.textCache = new LinkedHashMap<T, String>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<T, String> eldest) {
+
+                    return this.size() > TableCellFactory.this
+                            .getTextCacheSize();
+                }
+            };
+            this.textCacheHits = 0;
+            this.textCacheMisses = 0;
+            this.textCacheInvalidator = (observable) -> this.clearTextCache();
+
+            this.converterProperty.addListener((observable, oldValue,
+                    newValue) -> {
+
+                if (oldValue instanceof IConfigurableStringConverter) {
+
+                    ((IConfigurableStringConverter<?>) oldValue)
+                            .configuration()
+                            .removeListener(this.textCacheInvalidator);
+                }
+                if (newValue instanceof IConfigurableStringConverter) {
+
+                    ((IConfigurableStringConverter<?>) newValue)
+                            .configuration()
+                            .addListener(this.textCacheInvalidator);
+                }
+                this.clearTextCache();
+            });
+            this.textCacheSizeProperty.addListener(this.textCacheInvalidator);
+
+            if (converter instanceof IConfigurableStringConverter) {
+
+                ((IConfigurableStringConverter<?>) converter).configuration()
+                        .addListener(this.textCacheInvalidator);
+            }
+        }
+
+        @Override
+        public TableCell<List<T>, T> call(
+                final TableColumn<List<T>, T> column) {
+
+
+            return new TableCell<List<T>, T>() {
+
+                @Override
+                public void updateItem(final T item, final boolean empty) {
+
+
+                    super.updateItem(item, empty);
+                    this.setText(TableCellFactory.this.toText(item));
+                }
+            };
+        }
+
+        /**
+         * Returns the text of the provided item, rendered by the converter or
+         * provided by the text cache.
+         *
+         * @param item
+         *         the item.
+         * @return the text of the item.
+         */
+        String toText(final T item) {
+
+            final StringConverter<T> converter = this.getConverter();
+
+            if (converter == null) {
+
+                return (item != null) ? item.toString() : null;
+            }
+            if ((item == null) || (this.getTextCacheSize() <= 0)) {
+
+                return converter.toString(item);
+            }
+
+            String text = this.textCache.get(item);
+
+            if (text == null) {
+
+                this.textCacheMisses++;
+                text = converter.toString(item);
+
+                if (text != null) {
+
+                    this.textCache.put(item, text);
+                }
+            }
+            else {
+
+                this.textCacheHits++;
+            }
+
+            return text;
         }
     }
 }
@@ -0,0 +1,244 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+//@formatter:on
+
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import org.jutility.javafx.collections.IRowAppender;
+
+
+/**
+ * The {@code TableLoadTask} class provides a {@link Task} loading rows into a
+ * table progressively.
+ * <p>
+ * The rows are pulled from an {@link Iterator}, e.g., a parser reading a
+ * file, on the thread running the task, and appended to the table in chunks
+ * by an {@link IRowAppender} on the JavaFX Application Thread, so that the
+ * rows loaded so far can be displayed while the remaining rows are read. A
+ * chunk is appended once it is full or at least one pulse after the previous
+ * chunk, so that the first rows appear without delay.
+ * </p>
+ * <p>
+ * At most a few chunks are pending at a time: if the JavaFX Application
+ * Thread falls behind, the task stops pulling rows until pending chunks are
+ * appended. The {@link #progressProperty() progress} reflects the appended
+ * rows (and is indeterminate if the number of rows is unknown); the value of
+ * the task is the number of rows appended. Once the task is cancelled, no
+ * further chunks are appended.
+ * </p>
+ * <p>
+ * If the appender fails, no further chunks are appended, and the task fails
+ * with the exception of the appender once it publishes its next chunk.
+ * </p>
+ *
+ * @param <T>
+ *         the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class TableLoadTask<T>
+        extends Task<Long> {
+
+    /**
+     * The default number of rows appended at once.
+     */
+    public static final int                   DEFAULT_CHUNK_SIZE     = 4096;
+
+    /**
+     * The default number of chunks that can be pending at a time.
+     */
+    public static final int                   DEFAULT_PENDING_CHUNKS = 4;
+
+    private static final long                 PULSE_NANOS            =
+            TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final Iterator<? extends List<T>> rows;
+    private final long                        expectedRows;
+    private final IRowAppender<T>             appender;
+    private final int                         chunkSize;
+    private final int                         maxPendingChunks;
+    private final Semaphore                   pendingChunks;
+    private final AtomicReference<Throwable>  appendFailure;
+
+    private long                              appendedRows;
+
+
+    /**
+     * Creates a new instance of the {@link TableLoadTask} class.
+     *
+     * @param rows
+     *         the rows to load.
+     * @param expectedRows
+     *         the expected number of rows, or a negative number, if the number
+     *         of rows is unknown.
+     * @param appender
+     *         the {@link IRowAppender} appending the rows to the table.
+     */
+    public TableLoadTask(final Iterator<? extends List<T>> rows,
+            final long expectedRows, final IRowAppender<T> appender) {
+
+        this(rows, expectedRows, appender, TableLoadTask.DEFAULT_CHUNK_SIZE,
+                TableLoadTask.DEFAULT_PENDING_CHUNKS);
+    }
+
+    /**
+     * Creates a new instance of the {@link TableLoadTask} class.
+     *
+     * @param rows
+     *         the rows to load.
+     * @param expectedRows
+     *         the expected number of rows, or a negative number, if the number
+     *         of rows is unknown.
+     * @param appender
+     *         the {@link IRowAppender} appending the rows to the table.
+     * @param chunkSize
+     *         the maximum number of rows appended at once.
+     * @param pendingChunks
+     *         the maximum number of chunks pending at a time.
+     */
+    public TableLoadTask(final Iterator<? extends List<T>> rows,
+            final long expectedRows, final IRowAppender<T> appender,
+            final int chunkSize, final int pendingChunks) {
+
+        if ((rows == null) || (appender == null)) {
+
+            throw new IllegalArgumentException(
+                    "Cannot load rows without rows and an appender!");
+        }
+        if ((chunkSize < 1) || (pendingChunks < 1)) {
+
+            throw new IllegalArgumentException(
+                    "Chunk size and pending chunks must be positive!");
+        }
+
+        this.rows = rows;
+        this.expectedRows = (expectedRows < 0) ? -1 : expectedRows;
+        this.appender = appender;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = pendingChunks;
+        this.pendingChunks = new Semaphore(pendingChunks);
+        this.appendFailure = new AtomicReference<>();
+        this.appendedRows = 0;
+    }
+
+
+    @Override
+    protected Long call()
+            throws Exception {
+
+        this.updateProgress(0, this.expectedRows);
+
+        List<List<T>> chunk = new ArrayList<>();
+        long lastPublished = System.nanoTime();
+
+        while (!this.isCancelled() && this.rows.hasNext()) {
+
+            chunk.add(this.rows.next());
+
+            if ((chunk.size() >= this.chunkSize)
+                    || ((System.nanoTime() - lastPublished)
+                            >= TableLoadTask.PULSE_NANOS)) {
+
+                this.publish(chunk);
+                chunk = new ArrayList<>();
+                lastPublished = System.nanoTime();
+            }
+        }
+
+        if (!chunk.isEmpty() && !this.isCancelled()) {
+
+            this.publish(chunk);
+        }
+
+        // waits until all pending chunks are appended (or discarded).
+        this.pendingChunks.acquire(this.maxPendingChunks);
+        this.rethrowAppendFailure();
+
+        return this.appendedRows;
+    }
+
+    /**
+     * Rethrows the exception of the appender, if it failed.
+     */
+    private void rethrowAppendFailure()
+            throws Exception {
+
+        final Throwable failure = this.appendFailure.get();
+
+        if (failure instanceof Exception) {
+
+            throw (Exception) failure;
+        }
+        if (failure instanceof Error) {
+
+            throw (Error) failure;
+        }
+    }
+
+    /**
+     * Hands a chunk to the JavaFX Application Thread, waiting while too many
+     * chunks are pending, unless the appender failed.
+     */
+    private void publish(final List<List<T>> chunk)
+            throws Exception {
+
+        this.rethrowAppendFailure();
+        this.pendingChunks.acquire();
+
+        Platform.runLater(() -> {
+
+            try {
+
+                if (!this.isCancelled()
+                        && (this.appendFailure.get() == null)) {
+
+                    this.appender.append(chunk);
+                    this.appendedRows += chunk.size();
+                    this.updateProgress(this.appendedRows, this.expectedRows);
+                }
+            }
+            catch (final Throwable e) {
+
+                // the task fails on the thread running it.
+                this.appendFailure.compareAndSet(null, e);
+            }
+            finally {
+
+                this.pendingChunks.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,1064 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+//@formatter:on
+
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+
+import javafx.collections.ObservableListBase;
+
+import org.jutility.common.datatype.table.ITable;
+import org.jutility.javafx.collections.IObservableTable;
+import org.jutility.javafx.collections.ITableChangeListener;
+
+
+/**
+ * The {@code TableRowList} class provides a read-only
+ * {@link javafx.collections.ObservableList ObservableList} view of the rows of
+ * a {@link ITable Table}.
+ * <p>
+ * Neither the table nor its rows are copied: each row is a lightweight view
+ * created on demand when it is requested by index, and reads its cells
+ * directly from the table. Creating a {@code TableRowList} is therefore
+ * {@code O(1)}, and only the rows currently displayed by a
+ * {@link TableDataView} are ever materialized.
+ * </p>
+ * <p>
+ * If the table is an {@link IObservableTable}, its modifications are
+ * propagated to the listeners of this list as fine-grained changes: updated
+ * cells are reported as updates of their rows, and inserted and removed rows
+ * as additions and removals. Otherwise, changes of the table are only visible
+ * to listeners of this list after a call to {@link #refresh()}. Modifications
+ * between {@link #beginUpdate()} and {@link #endUpdate()} are reported as a
+ * single change.
+ * </p>
+ * <p>
+ * The rows can be presented in a different {@link #setRowOrder(int[]) order},
+ * e.g., sorted and filtered, without copying them: the order is an array of
+ * row indices of the table. Inserted rows are merged into the order, at the
+ * position determined by the comparator of the order, and removed rows are
+ * removed from it, so that the order is not lost.
+ * </p>
+ * <p>
+ * Row views are compared by their elements, like any other {@link List}.
+ * Modified rows are reported to the listeners of this list; in addition, the
+ * {@link #getRowKey(int) key} of a row identifies the row and its content, so
+ * that modified rows can be detected by comparing keys. Updated cells only
+ * change the keys of their own rows, and inserted rows only the keys of the
+ * rows they move, so that appended rows leave all keys intact. Removed rows
+ * and inserted or removed columns and a new order change the keys of all
+ * rows.
+ * </p>
+ *
+ * @param <T>
+ *         the content type of the {@link ITable Table}.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class TableRowList<T>
+        extends ObservableListBase<List<T>>
+        implements RandomAccess {
+
+    private final ITable<T>               table;
+    private final ITableChangeListener<T> tableChangeListener;
+    private int                           rows;
+    private int                           revision;
+    private int[]                         rowRevisions;
+    private int[]                         order;
+    private int[]                         inverseOrder;
+    private IntPredicate                  rowFilter;
+    private IntBinaryOperator             rowComparator;
+    private int                           updateDepth;
+    private final BitSet                  pendingUpdates;
+    private int                           rowModifications;
+    private int                           cellModifications;
+
+
+    /**
+     * Returns the {@link ITable Table} backing this list.
+     *
+     * @return the {@link ITable Table}.
+     */
+    public ITable<T> getTable() {
+
+        return this.table;
+    }
+
+
+    /**
+     * Returns the order of the rows, i.e., the row indices of the table in the
+     * order they appear in this list, or {@code null}, if all rows of the
+     * table appear in their natural order.
+     *
+     * @return the order of the rows.
+     */
+    public int[] getRowOrder() {
+
+        return (this.order == null) ? null : this.order.clone();
+    }
+
+    /**
+     * Returns whether or not the rows appear in a different
+     * {@link #setRowOrder(int[]) order} than in the {@link ITable Table}.
+     *
+     * @return {@code true}, if the rows are reordered or filtered;
+     *         {@code false} otherwise.
+     */
+    public boolean isRowOrdered() {
+
+        return this.order != null;
+    }
+
+    /**
+     * Sets the order of the rows, i.e., the row indices of the table in the
+     * order they should appear in this list. Rows not contained in the order
+     * do not appear in this list. If the order is {@code null}, all rows
+     * appear in their natural order.
+     * <p>
+     * The new order is applied as a single change: a permutation, if the
+     * previous and the new order both contain all rows, or a replacement of
+     * all rows otherwise. The provided array must not be modified afterwards.
+     * Rows inserted into the table later on are added to the end of the
+     * order.
+     * </p>
+     *
+     * @param value
+     *         the order of the rows.
+     */
+    public void setRowOrder(final int[] value) {
+
+        this.setRowOrder(value, null, null);
+    }
+
+    /**
+     * Sets the order of the rows like {@link #setRowOrder(int[])}, together
+     * with the criteria the order was computed by. Rows inserted into the
+     * table later on are only added to the order if they are accepted by the
+     * filter, at the position determined by a binary search with the
+     * comparator, so that the rows need not be ordered again.
+     *
+     * @param value
+     *         the order of the rows.
+     * @param filter
+     *         the filter accepting the row indices of the table contained in
+     *         the order, or {@code null}, if all rows are contained.
+     * @param comparator
+     *         the comparator of the row indices of the table the order is
+     *         sorted by, or {@code null}, if inserted rows are added to the end
+     *         of the order.
+     */
+    public void setRowOrder(final int[] value, final IntPredicate filter,
+            final IntBinaryOperator comparator) {
+
+        this.setRowOrder(value, filter, comparator, this.rows);
+    }
+
+    /**
+     * Sets the order of the rows like
+     * {@link #setRowOrder(int[], IntPredicate, IntBinaryOperator)}, where the
+     * order was computed before the rows {@code [orderedRows, rows)} were
+     * appended to the table. The appended rows are merged into the order.
+     */
+    void setRowOrder(final int[] value, final IntPredicate filter,
+            final IntBinaryOperator comparator, final int orderedRows) {
+
+        if ((value == null) || (orderedRows >= this.rows)) {
+
+            this.applyRowOrder(value, filter, comparator);
+            return;
+        }
+
+        final IntPredicate previousFilter = this.rowFilter;
+        final IntBinaryOperator previousComparator = this.rowComparator;
+
+        final int[] merged;
+
+        // the appended rows are merged by the criteria of the new order.
+        this.setOrderCriteria(filter, comparator);
+
+        try {
+
+            final int[] appended = this.acceptedRows(orderedRows, this.rows);
+
+            merged = this.merge(value, appended, this.rows, 0,
+                    new int[appended.length]);
+        }
+        finally {
+
+            this.setOrderCriteria(previousFilter, previousComparator);
+        }
+
+        this.applyRowOrder(merged, filter, comparator);
+    }
+
+    private void applyRowOrder(final int[] value, final IntPredicate filter,
+            final IntBinaryOperator comparator) {
+
+        final int[] inverse = (value == null) ? null : TableRowList.inverse(
+                value, this.rows);
+
+        final int[] previousOrder = this.order;
+        final int previousSize = this.size();
+        final int size = (value == null) ? this.rows : value.length;
+
+        if ((previousSize == this.rows) && (size == this.rows)) {
+
+            final int[] permutation = new int[size];
+
+            for (int i = 0; i < size; i++) {
+
+                final int row = (previousOrder == null) ? i : previousOrder[i];
+                permutation[i] = (inverse == null) ? row : inverse[row];
+            }
+
+            this.order = value;
+            this.inverseOrder = inverse;
+            this.setOrderCriteria(filter, comparator);
+            this.structureChanged();
+
+            this.beginChange();
+            this.nextPermutation(0, size, permutation);
+            this.endChange();
+        }
+        else {
+
+            final RemovedRows<T> removed = new RemovedRows<>(this,
+                    previousOrder, previousSize);
+
+            this.order = value;
+            this.inverseOrder = inverse;
+            this.setOrderCriteria(filter, comparator);
+            this.structureChanged();
+
+            this.beginChange();
+            if (previousSize > 0) {
+
+                this.nextRemove(0, removed);
+            }
+            if (size > 0) {
+
+                this.nextAdd(0, size);
+            }
+            this.endChange();
+        }
+    }
+
+
+    /**
+     * Creates a new instance of the {@link TableRowList} class.
+     *
+     * @param table
+     *         the {@link ITable Table} backing the list.
+     */
+    public TableRowList(final ITable<T> table) {
+
+        if (table == null) {
+
+            throw new IllegalArgumentException(
+                    "Cannot create a row list without a table!");
+        }
+
+        this.table = table;
+        this.rows = table.rows();
+        this.revision = 0;
+        this.rowRevisions = null;
+        this.pendingUpdates = new BitSet();
+
+        if (table instanceof IObservableTable) {
+
+            this.tableChangeListener = new TableChangeListener();
+            ((IObservableTable<T>) table).addListener(this.tableChangeListener);
+        }
+        else {
+
+            this.tableChangeListener = null;
+        }
+    }
+
+
+    @Override
+    public List<T> get(final int index) {
+
+        final int size = this.size();
+
+        if ((index < 0) || (index >= size)) {
+
+            throw new IndexOutOfBoundsException("Row " + index
+                    + " is out of bounds (" + size + " rows)!");
+        }
+
+        final int row = (this.order == null) ? index : this.order[index];
+
+        return new RowView<>(this, row);
+    }
+
+    @Override
+    public int size() {
+
+        return (this.order == null) ? this.rows : this.order.length;
+    }
+
+    /**
+     * Returns a view of the row of the {@link ITable Table} with the provided
+     * index, regardless of the {@link #setRowOrder(int[]) order} of the rows.
+     *
+     * @param row
+     *         the index of the row in the table.
+     * @return a view of the row.
+     */
+    public List<T> getTableRow(final int row) {
+
+        return new RowView<>(this, row);
+    }
+
+    /**
+     * Returns the key of the row at the provided index. Keys of the same row
+     * are equal as long as the row was neither updated nor moved, whereas the
+     * row views themselves only compare the current content of the table.
+     *
+     * @param index
+     *         the index of the row in this list.
+     * @return the key of the row.
+     */
+    public Object getRowKey(final int index) {
+
+        final int size = this.size();
+
+        if ((index < 0) || (index >= size)) {
+
+            throw new IndexOutOfBoundsException("Row " + index
+                    + " is out of bounds (" + size + " rows)!");
+        }
+
+        final int row = (this.order == null) ? index : this.order[index];
+
+        return new RowKey(this, row, this.revision, this.rowRevision(row));
+    }
+
+    /**
+     * Stops propagating the modifications of an {@link IObservableTable}, so
+     * that this list can be garbage collected while the table is still in
+     * use.
+     */
+    public void dispose() {
+
+        if (this.tableChangeListener != null) {
+
+            ((IObservableTable<T>) this.table)
+                    .removeListener(this.tableChangeListener);
+        }
+    }
+
+    /**
+     * Begins a batch of modifications: the modifications of the table are
+     * reported as a single change once the batch {@link #endUpdate() ends}.
+     * Batches can be nested.
+     */
+    public void beginUpdate() {
+
+        if (this.updateDepth++ == 0) {
+
+            this.beginChange();
+        }
+    }
+
+    /**
+     * Ends a batch of modifications {@link #beginUpdate() begun} before, and
+     * reports them, once the outermost batch ends.
+     */
+    public void endUpdate() {
+
+        if (this.updateDepth == 0) {
+
+            throw new IllegalStateException("No update in progress!");
+        }
+
+        if (--this.updateDepth == 0) {
+
+            this.flushPendingUpdates();
+            this.endChange();
+        }
+    }
+
+    /**
+     * Notifies the listeners of this list that the cells of the provided rows
+     * of the backing {@link ITable Table} were updated. Rows beyond the end of
+     * the table, or not contained in the {@link #setRowOrder(int[]) order} of
+     * the rows, are ignored. Updated rows keep their position.
+     *
+     * @param updatedRows
+     *         the indices of the updated rows in the table.
+     */
+    public void rowsUpdated(final BitSet updatedRows) {
+
+        if (updatedRows.isEmpty()) {
+
+            return;
+        }
+
+        this.beginChange();
+        for (int row = updatedRows.nextSetBit(0); (row >= 0)
+                && (row < this.rows); row = updatedRows.nextSetBit(row + 1)) {
+
+            this.rowUpdated(row);
+            this.nextRowUpdate(row);
+        }
+        this.endChange();
+    }
+
+    /**
+     * Notifies the listeners of this list that rows were appended to the
+     * backing {@link ITable Table}. The appended rows are added to the end of
+     * the list, unless the rows are {@link #setRowOrder(int[]) reordered}, in
+     * which case they are merged into the order like inserted rows. If the
+     * table has fewer rows than before, the list is {@link #refresh()
+     * refreshed}.
+     */
+    public void rowsAppended() {
+
+        final int tableRows = this.table.rows();
+
+        if (tableRows < this.rows) {
+
+            this.refresh();
+            return;
+        }
+        if (tableRows == this.rows) {
+
+            return;
+        }
+
+        this.flushPendingUpdates();
+
+        if (this.order != null) {
+
+            this.insertOrderedRows(this.rows, tableRows);
+            return;
+        }
+
+        final int from = this.rows;
+
+        // the existing rows keep their keys.
+        this.rows = tableRows;
+
+        this.beginChange();
+        this.nextAdd(from, tableRows);
+        this.endChange();
+    }
+
+    /**
+     * Notifies the listeners of this list that the rows of the backing
+     * {@link ITable Table} may have changed. Afterwards, the list reflects the
+     * current number of rows of the table.
+     * <p>
+     * The removed rows reported to the listeners are views of the current
+     * content of the table. The {@link #setRowOrder(int[]) order} of the rows
+     * is reset.
+     * </p>
+     */
+    public void refresh() {
+
+        final int previousSize = this.size();
+        final RemovedRows<T> removed = new RemovedRows<>(this, this.order,
+                previousSize);
+
+        this.flushPendingUpdates();
+        this.rows = this.table.rows();
+        this.rowModifications++;
+        this.order = null;
+        this.inverseOrder = null;
+        this.setOrderCriteria(null, null);
+        this.structureChanged();
+
+        this.beginChange();
+        if (previousSize > 0) {
+
+            this.nextRemove(0, removed);
+        }
+        if (this.rows > 0) {
+
+            this.nextAdd(0, this.rows);
+        }
+        this.endChange();
+    }
+
+    /**
+     * Returns the number of rows of the {@link ITable Table} known to this
+     * list, regardless of the {@link #setRowOrder(int[]) order} of the rows.
+     *
+     * @return the number of rows of the table.
+     */
+    int tableRows() {
+
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of modifications of the rows of the table that
+     * moved or removed rows, i.e., inserted (other than appended), removed,
+     * or refreshed rows, reported to this list.
+     *
+     * @return the number of row modifications.
+     */
+    int rowModifications() {
+
+        return this.rowModifications;
+    }
+
+    /**
+     * Returns the number of updates of rows of the table reported to this
+     * list.
+     *
+     * @return the number of cell modifications.
+     */
+    int cellModifications() {
+
+        return this.cellModifications;
+    }
+
+    private void setOrderCriteria(final IntPredicate filter,
+            final IntBinaryOperator comparator) {
+
+        this.rowFilter = filter;
+        this.rowComparator = comparator;
+    }
+
+    private static int[] inverse(final int[] order, final int rows) {
+
+        final int[] inverse = new int[rows];
+        Arrays.fill(inverse, -1);
+
+        for (int i = 0; i < order.length; i++) {
+
+            if ((order[i] < 0) || (order[i] >= rows)
+                    || (inverse[order[i]] >= 0)) {
+
+                throw new IllegalArgumentException("Invalid row order!");
+            }
+            inverse[order[i]] = i;
+        }
+
+        return inverse;
+    }
+
+    /**
+     * Reports the rows updated in the current batch before the rows are
+     * moved by a structural modification.
+     */
+    private void flushPendingUpdates() {
+
+        if (!this.pendingUpdates.isEmpty()) {
+
+            this.rowsUpdated(this.pendingUpdates);
+            this.pendingUpdates.clear();
+        }
+    }
+
+    /**
+     * Merges the inserted rows {@code [from, to)} of the table into the
+     * order: the rows accepted by the filter are sorted by the comparator,
+     * and each is inserted at the position found by a binary search.
+     */
+    private void insertOrderedRows(final int from, final int to) {
+
+        final int count = to - from;
+        final int[] inserted = this.acceptedRows(from, to);
+        final int[] positions = new int[inserted.length];
+        final boolean appended = from >= this.rows;
+
+        if (!appended) {
+
+            this.rowModifications++;
+        }
+
+        final int[] merged = this.merge(this.order, inserted, from, count,
+                positions);
+
+        this.rows += count;
+        this.order = merged;
+        this.inverseOrder = TableRowList.inverse(merged, this.rows);
+        if (!appended) {
+
+            this.rowsShifted(from);
+        }
+
+        this.beginChange();
+        for (int i = 0; i < positions.length; i++) {
+
+            int end = i + 1;
+
+            while ((end < positions.length) && (positions[end]
+                    == (positions[i] + (end - i)))) {
+
+                end++;
+            }
+            this.nextAdd(positions[i], positions[end - 1] + 1);
+            i = end - 1;
+        }
+        this.endChange();
+    }
+
+    /**
+     * Returns the rows {@code [from, to)} accepted by the filter, sorted by
+     * the comparator.
+     */
+    private int[] acceptedRows(final int from, final int to) {
+
+        final int[] accepted = new int[to - from];
+        int count = 0;
+
+        for (int row = from; row < to; row++) {
+
+            if ((this.rowFilter == null) || this.rowFilter.test(row)) {
+
+                accepted[count++] = row;
+            }
+        }
+
+        if (this.rowComparator != null) {
+
+            IntSorter.sort(accepted, 0, count, this.rowComparator);
+        }
+
+        return (count < accepted.length) ? Arrays.copyOf(accepted, count)
+                : accepted;
+    }
+
+    /**
+     * Merges the sorted inserted rows into the previous order, whose rows
+     * from {@code from} on are shifted by {@code count}, and stores the
+     * position of each inserted row in the merged order.
+     */
+    private int[] merge(final int[] previous, final int[] inserted,
+            final int from, final int count, final int[] positions) {
+
+        final int[] merged = new int[previous.length + inserted.length];
+        int next = 0;
+
+        for (int i = 0; i < inserted.length; i++) {
+
+            final int position = this.insertionPoint(previous, next,
+                    inserted[i], from, count);
+
+            for (int j = next; j < position; j++) {
+
+                merged[j + i] = TableRowList.shift(previous[j], from, count);
+            }
+            merged[position + i] = inserted[i];
+            positions[i] = position + i;
+            next = position;
+        }
+        for (int j = next; j < previous.length; j++) {
+
+            merged[j + inserted.length] = TableRowList.shift(previous[j],
+                    from, count);
+        }
+
+        return merged;
+    }
+
+    /**
+     * Returns the index of the first row of the previous order (from the
+     * provided index on) that is ordered after the provided inserted row.
+     */
+    private int insertionPoint(final int[] previous, final int start,
+            final int row, final int from, final int count) {
+
+        if (this.rowComparator == null) {
+
+            return previous.length;
+        }
+
+        int low = start;
+        int high = previous.length;
+
+        while (low < high) {
+
+            final int middle = (low + high) >>> 1;
+
+            if (this.rowComparator.applyAsInt(row, TableRowList.shift(
+                    previous[middle], from, count)) < 0) {
+
+                high = middle;
+            }
+            else {
+
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private static int shift(final int row, final int from, final int count) {
+
+        return (row >= from) ? (row + count) : row;
+    }
+
+    /**
+     * Removes the removed rows {@code [from, from + removed.size())} of the
+     * table from the order.
+     */
+    private void removeOrderedRows(final int from,
+            final List<List<T>> removed) {
+
+        final int count = removed.size();
+        final int to = from + count;
+        final int[] remaining = new int[this.order.length];
+        int size = 0;
+
+        this.beginChange();
+        for (int i = 0; i < this.order.length; i++) {
+
+            final int row = this.order[i];
+
+            if (row < from) {
+
+                remaining[size++] = row;
+            }
+            else if (row >= to) {
+
+                remaining[size++] = row - count;
+            }
+            else {
+
+                // the previous rows were removed from the list already.
+                this.nextRemove(size, removed.get(row - from));
+            }
+        }
+
+        this.rows -= count;
+        this.rowModifications++;
+        this.order = Arrays.copyOf(remaining, size);
+        this.inverseOrder = TableRowList.inverse(this.order, this.rows);
+        this.structureChanged();
+        this.endChange();
+    }
+
+    /**
+     * Changes the keys of all rows after a structural modification.
+     * The revisions of the individual rows start over, since they are only
+     * compared within the same structural revision.
+     */
+    private void structureChanged() {
+
+        this.revision++;
+        this.rowRevisions = null;
+    }
+
+    private int rowRevision(final int row) {
+
+        return ((this.rowRevisions == null)
+                || (row >= this.rowRevisions.length)) ? 0
+                : this.rowRevisions[row];
+    }
+
+    /**
+     * Changes the key of the provided row only.
+     */
+    private void rowUpdated(final int row) {
+
+        this.growRowRevisions(row + 1);
+        this.rowRevisions[row]++;
+        this.cellModifications++;
+    }
+
+    /**
+     * Changes the keys of the rows inserted at the provided row, and of the
+     * rows moved by them.
+     */
+    private void rowsShifted(final int from) {
+
+        this.growRowRevisions(this.rows);
+        for (int row = from; row < this.rows; row++) {
+
+            this.rowRevisions[row]++;
+        }
+    }
+
+    private void growRowRevisions(final int length) {
+
+        if (this.rowRevisions == null) {
+
+            // allocated on the first update, most tables are never updated.
+            this.rowRevisions = new int[Math.max(this.rows, length)];
+        }
+        else if (length > this.rowRevisions.length) {
+
+            this.rowRevisions = Arrays.copyOf(this.rowRevisions,
+                    Math.max(this.rows, length));
+        }
+    }
+
+    private void nextRowUpdate(final int row) {
+
+        final int index = (this.inverseOrder == null) ? row
+                : this.inverseOrder[row];
+
+        if (index >= 0) {
+
+            this.nextUpdate(index);
+        }
+    }
+
+
+    /**
+     * Propagates the modifications of an {@link IObservableTable}.
+     */
+    private final class TableChangeListener
+            implements ITableChangeListener<T> {
+
+        @Override
+        public void cellUpdated(final IObservableTable<? extends T> table,
+                final int row, final int column) {
+
+            final TableRowList<T> list = TableRowList.this;
+
+            if ((row < 0) || (row >= list.rows)) {
+
+                return;
+            }
+
+            if (list.updateDepth > 0) {
+
+                // reported once the batch ends.
+                list.pendingUpdates.set(row);
+                return;
+            }
+
+            list.rowUpdated(row);
+            list.beginChange();
+            list.nextRowUpdate(row);
+            list.endChange();
+        }
+
+        @Override
+        public void rowsInserted(final IObservableTable<? extends T> table,
+                final int from, final int to) {
+
+            final TableRowList<T> list = TableRowList.this;
+
+            list.flushPendingUpdates();
+
+            if (list.order != null) {
+
+                list.insertOrderedRows(from, to);
+                return;
+            }
+
+            final boolean appended = from >= list.rows;
+
+            if (!appended) {
+
+                list.rowModifications++;
+            }
+            list.rows += to - from;
+            if (!appended) {
+
+                // appended rows leave the keys of the existing rows intact.
+                list.rowsShifted(from);
+            }
+            list.beginChange();
+            list.nextAdd(from, to);
+            list.endChange();
+        }
+
+        @Override
+        public void rowsRemoved(final IObservableTable<? extends T> table,
+                final int from,
+                final List<? extends List<? extends T>> removed) {
+
+            final TableRowList<T> list = TableRowList.this;
+            final List<List<T>> removedRows = new ArrayList<>(removed.size());
+
+            for (final List<? extends T> row : removed) {
+
+                removedRows.add(Collections.unmodifiableList(row));
+            }
+
+            list.flushPendingUpdates();
+
+            if (list.order != null) {
+
+                list.removeOrderedRows(from, removedRows);
+                return;
+            }
+
+            list.rows -= removed.size();
+            list.rowModifications++;
+            list.structureChanged();
+            list.beginChange();
+            list.nextRemove(from, removedRows);
+            list.endChange();
+        }
+
+        @Override
+        public void columnsInserted(final IObservableTable<? extends T> table,
+                final int from, final int to) {
+
+            // the rows are views, only their keys change; the cells are
+            // recreated with the columns of the control.
+            TableRowList.this.structureChanged();
+        }
+
+        @Override
+        public void columnsRemoved(final IObservableTable<? extends T> table,
+                final int from, final int to) {
+
+            TableRowList.this.structureChanged();
+        }
+    }
+
+
+    /**
+     * A view of a single row of a {@link ITable Table}.
+     */
+    private static final class RowView<T>
+            extends AbstractList<T>
+            implements RandomAccess {
+
+        private final TableRowList<T> list;
+        private final int             row;
+
+
+        private RowView(final TableRowList<T> list, final int row) {
+
+            this.list = list;
+            this.row = row;
+        }
+
+        @Override
+        public T get(final int index) {
+
+            if ((index < 0) || (index >= this.list.table.columns())) {
+
+                throw new IndexOutOfBoundsException("Column " + index
+                        + " is out of bounds!");
+            }
+
+            return this.list.table.get(this.row, index);
+        }
+
+        @Override
+        public int size() {
+
+            return this.list.table.columns();
+        }
+
+    }
+
+    /**
+     * The key of a row, which is equal to the keys created between the same
+     * modifications of the row.
+     */
+    private static final class RowKey {
+
+        private final TableRowList<?> list;
+        private final int             row;
+        private final int             revision;
+        private final int             rowRevision;
+
+
+        private RowKey(final TableRowList<?> list, final int row,
+                final int revision, final int rowRevision) {
+
+            this.list = list;
+            this.row = row;
+            this.revision = revision;
+            this.rowRevision = rowRevision;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return (31 * ((31 * this.row) + this.revision))
+                    + this.rowRevision;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+
+            if (this == obj) {
+
+                return true;
+            }
+            if (!(obj instanceof RowKey)) {
+
+                return false;
+            }
+
+            final RowKey other = (RowKey) obj;
+
+            return (this.list == other.list) && (this.row == other.row)
+                    && (this.revision == other.revision)
+                    && (this.rowRevision == other.rowRevision);
+        }
+    }
+
+    /**
+     * The rows reported as removed by {@link TableRowList#refresh()} and
+     * {@link TableRowList#setRowOrder(int[])}, in their previous order.
+     */
+    private static final class RemovedRows<T>
+            extends AbstractList<List<T>>
+            implements RandomAccess {
+
+        private final TableRowList<T> list;
+        private final int[]           order;
+        private final int             rows;
+
+
+        private RemovedRows(final TableRowList<T> list, final int[] order,
+                final int rows) {
+
+            this.list = list;
+            this.order = order;
+            this.rows = rows;
+        }
+
+        @Override
+        public List<T> get(final int index) {
+
+            return new RowView<>(this.list, (this.order == null) ? index
+                    : this.order[index]);
+        }
+
+        @Override
+        public int size() {
+
+            return this.rows;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.jutility.javafx.control.validation;
+
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2015 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * The {@code ValidationStatistics} class collects low-overhead metrics of a
+ * {@link ValidationSupport}: the number of requested and performed
+ * validations, and the number, duration, and latency of validation passes.
+ * <p>
+ * Requests for the same control made before a pass are coalesced, so the
+ * ratio of requested to performed validations indicates the work saved by
+ * coalescing. Counters can be updated concurrently from multiple threads.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class ValidationStatistics {
+
+    private final LongAdder  requests;
+    private final LongAdder  validations;
+    private final LongAdder  passes;
+    private final LongAdder  totalPassNanos;
+    private final LongAdder  totalLatencyNanos;
+    private final AtomicLong lastPassNanos;
+    private final AtomicLong lastLatencyNanos;
+
+
+    /**
+     * Returns the number of validations requested since the last reset.
+     *
+     * @return the number of validations requested.
+     */
+    public long getRequests() {
+
+        return this.requests.sum();
+    }
+
+    /**
+     * Returns the number of validations performed since the last reset.
+     *
+     * @return the number of validations performed.
+     */
+    public long getValidations() {
+
+        return this.validations.sum();
+    }
+
+    /**
+     * Returns the number of validation passes since the last reset.
+     *
+     * @return the number of validation passes.
+     */
+    public long getPasses() {
+
+        return this.passes.sum();
+    }
+
+    /**
+     * Returns the duration of the most recent validation pass in nanoseconds.
+     *
+     * @return the duration of the most recent validation pass.
+     */
+    public long getLastPassNanos() {
+
+        return this.lastPassNanos.get();
+    }
+
+    /**
+     * Returns the total duration of all validation passes since the last
+     * reset in nanoseconds.
+     *
+     * @return the total duration of all validation passes.
+     */
+    public long getTotalPassNanos() {
+
+        return this.totalPassNanos.sum();
+    }
+
+    /**
+     * Returns the latency of the most recent validation pass in nanoseconds,
+     * i.e., the time between the oldest request it served and its start.
+     *
+     * @return the latency of the most recent validation pass.
+     */
+    public long getLastLatencyNanos() {
+
+        return this.lastLatencyNanos.get();
+    }
+
+    /**
+     * Returns the average latency of a validation pass since the last reset
+     * in nanoseconds.
+     *
+     * @return the average latency of a validation pass, or {@code 0} if no
+     *         pass was recorded.
+     */
+    public long getAverageLatencyNanos() {
+
+        final long passCount = this.getPasses();
+
+        return (passCount == 0) ? 0
+                : (this.totalLatencyNanos.sum() / passCount);
+    }
+
+
+    /**
+     * Creates a new instance of the {@link ValidationStatistics} class.
+     */
+    public ValidationStatistics() {
+
+        this.requests = new LongAdder();
+        this.validations = new LongAdder();
+        this.passes = new LongAdder();
+        this.totalPassNanos = new LongAdder();
+        this.totalLatencyNanos = new LongAdder();
+        this.lastPassNanos = new AtomicLong();
+        this.lastLatencyNanos = new AtomicLong();
+    }
+
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+
+        this.requests.reset();
+        this.validations.reset();
+        this.passes.reset();
+        this.totalPassNanos.reset();
+        this.totalLatencyNanos.reset();
+        this.lastPassNanos.set(0);
+        this.lastLatencyNanos.set(0);
+    }
+
+
+    void recordRequest() {
+
+        this.requests.increment();
+    }
+
+    void recordPass(final int validationCount, final long nanos,
+            final long latencyNanos) {
+
+        this.validations.add(validationCount);
+        this.passes.increment();
+        this.totalPassNanos.add(nanos);
+        this.totalLatencyNanos.add(latencyNanos);
+        this.lastPassNanos.set(nanos);
+        this.lastLatencyNanos.set(latencyNanos);
+    }
+}
@@ -21,34 +21,49 @@ package org.jutility.javafx.control.validation;
  */
 
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
-import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyObjectPropertyBase;
 import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import javafx.collections.ObservableSet;
-import javafx.collections.SetChangeListener;
-import javafx.collections.WeakListChangeListener;
-import javafx.collections.WeakMapChangeListener;
-import javafx.collections.WeakSetChangeListener;
 import javafx.scene.control.Control;
 import javafx.util.Callback;
 
@@ -58,6 +73,8 @@ import org.controlsfx.validation.ValidationResult;
 import org.controlsfx.validation.Validator;
 import org.controlsfx.validation.decoration.GraphicValidationDecoration;
 import org.controlsfx.validation.decoration.ValidationDecoration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -102,9 +119,45 @@ import org.controlsfx.validation.decoration.ValidationDecoration;
  * ValueExtractor.addObservableValueExtractor(c -&gt; c instanceof ComboBox,
  *         c -&gt; ((ComboBox&lt;?&gt;) c).valueProperty());
  * </pre>
+ * <p>
+ * Changes of the validated values only request a validation of their
+ * control. Requests are coalesced: pending controls are validated in a single
+ * pass per pulse (or per {@link #validationIntervalProperty() validation
+ * interval}), in which each control is validated at most once, with its
+ * current value, and the overall result is aggregated once. Controls are
+ * re-decorated only if their decoration changed. The
+ * {@link #getStatistics() statistics} report the requested and performed
+ * validations and the duration and latency of the passes.
+ * <p>
+ * Expensive validators can be registered as
+ * {@link #registerAsyncValidator(Control, Validator) asynchronous
+ * validators}, which are applied on an {@link #executorProperty() executor}
+ * instead of the JavaFX Application Thread. Results for outdated values are
+ * discarded, and controls awaiting their result are
+ * {@link #isPending(Control) pending}.
  */
 public class ValidationSupport {
 
+    private static final Logger LOG = LoggerFactory
+            .getLogger(ValidationSupport.class);
+
+    /**
+     * The message of the error reported for a control whose validator
+     * failed.
+     */
+    public static final String VALIDATION_FAILED_MESSAGE =
+            "Validation failed";
+
+    // asynchronous validators may block, e.g., on I/O, so they are not
+    // applied by the common pool.
+    private static final ExecutorService ASYNC_VALIDATION_EXECUTOR =
+            Executors.newCachedThreadPool((runnable) -> {
+
+                final Thread thread = new Thread(runnable,
+                        "ValidationSupport validator");
+                thread.setDaemon(true);
+                return thread;
+            });
 
     private static final String CTRL_REQUIRED_FLAG =
             "$org.controlsfx" + ".validation" + ".required$";
@@ -148,48 +201,159 @@ public class ValidationSupport {
 
     private final AtomicBoolean dataChanged = new AtomicBoolean(false);
 
+    // controls whose decoration may be outdated, and the decoration applied
+    // to each control.
+    private final Set<Control>             dirtyControls
+            = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Map<Control, Decoration> decorations
+            = new WeakHashMap<>();
+    private boolean                        decorationScheduled;
+    private long                           decorationsApplied;
+
+    // the aggregate of the validation results, maintained per change.
+    private final Map<Control, ValidationMessage> highestMessages
+            = new WeakHashMap<>();
+    private final Set<Control>             controlsWithErrors
+            = new LinkedHashSet<>();
+    private final Set<Control>             controlsWithWarnings
+            = new LinkedHashSet<>();
+    private int                            errorCount;
+    private int                            warningCount;
+    private final Map<Control, Collection<ValidationMessage>> messages
+            = new LinkedHashMap<>();
+    private boolean                        messagesChanged;
+
+    // the listeners of the registered controls.
+    private final Map<Control, Registration> registrations
+            = new HashMap<>();
+
+    // the state of the asynchronous validations.
+    private final Map<Control, AsyncValidation> asyncValidations
+            = new WeakHashMap<>();
+    private final Set<Control>             pendingControls
+            = Collections.newSetFromMap(new WeakHashMap<>());
+    private final ReadOnlyBooleanWrapper   pendingProperty
+            = new ReadOnlyBooleanWrapper(this, "pending", false);
+    private final ObjectProperty<Executor> executorProperty
+            = new SimpleObjectProperty<>(this, "executor",
+                    ValidationSupport.ASYNC_VALIDATION_EXECUTOR);
+
+    // controls awaiting validation (guarded by the map itself).
+    private final Map<Control, Runnable>   pendingValidations
+            = new LinkedHashMap<>();
+    private long                           pendingSinceNanos;
+    private boolean                        validationScheduled;
+    private boolean                        validating;
+    private final AnimationTimer           validationTimer
+            = new AnimationTimer() {
+
+        @Override
+        public void handle(final long now) {
+
+            ValidationSupport.this.validatePending();
+        }
+    };
+    private final ValidationStatistics     statistics
+            = new ValidationStatistics();
+    private final LongProperty             validationIntervalProperty
+            = new SimpleLongProperty(this, "validationInterval", 0);
+
     /**
      * Creates validation support instance
      */
     public ValidationSupport() {
 
-        this.validationResultProperty()
-                .addListener((o, oldValue, validationResult) -> {
-                    this.invalidProperty.set(!validationResult.getErrors()
-                            .isEmpty());
-                    this.redecorate();
-                });
-
         // notify validation result observers
         this.validationResults.addListener(
                 (final MapChangeListener.Change<? extends Control, ? extends
-                        ValidationResult> change) -> this
-                        .validationResultProperty.set(
-                        ValidationResult.fromResults(
-                                this.validationResults.values())));
+                        ValidationResult> change) -> {
+
+                    this.updateAggregate(change.getKey(),
+                            change.wasRemoved() ? change.getValueRemoved()
+                                    : null,
+                            change.wasAdded() ? change.getValueAdded()
+                                    : null);
+                    this.markDirty(change.getKey());
+                });
 
 
     }
 
+    /**
+     * Returns the number of controls (re-)decorated since the last reset. A
+     * control is only re-decorated if its required flag or its highest
+     * severity message changed.
+     *
+     * @return the number of decorations applied.
+     */
+    public long getDecorationsApplied() {
+
+        return this.decorationsApplied;
+    }
+
+    /**
+     * Returns the statistics of the validation passes.
+     *
+     * @return the statistics of the validation passes.
+     */
+    public ValidationStatistics getStatistics() {
+
+        return this.statistics;
+    }
+
+    /**
+     * Resets the number of decorations applied and the
+     * {@link #getStatistics() statistics} of the validation passes.
+     */
+    public void resetStatistics() {
+
+        this.decorationsApplied = 0;
+        this.statistics.reset();
+    }
+
+    /**
+     * Returns the validation interval property, i.e., the minimum time in
+     * milliseconds between a validation request and the pass serving it.
+     * With an interval of {@code 0} (the default), pending validations are
+     * performed during the next pulse.
+     *
+     * @return the validation interval property.
+     */
+    public LongProperty validationIntervalProperty() {
+
+        return this.validationIntervalProperty;
+    }
+
+    /**
+     * Returns the value of the validation interval property.
+     *
+     * @return the value of the validation interval property.
+     */
+    public long getValidationInterval() {
+
+        return this.validationIntervalProperty.get();
+    }
+
+    /**
+     * Sets the value of the validation interval property.
+     *
+     * @param interval
+     *         the value of the validation interval property.
+     */
+    public void setValidationInterval(final long interval) {
+
+        this.validationIntervalProperty.set(interval);
+    }
+
     /**
      * Redecorates all known components Only decorations related to validation
      * are affected
      */
-    // TODO needs optimization
     public void redecorate() {
 
-        final Optional<ValidationDecoration> odecorator = Optional.ofNullable(
-                this.getValidationDecorator());
-        for (final Control target : this.getRegisteredControls()) {
-            odecorator.ifPresent(decorator -> {
-                decorator.removeDecorations(target);
-                decorator.applyRequiredDecoration(target);
-                if (this.dataChanged.get() && this.isErrorDecorationEnabled()) {
-                    this.getHighestMessage(target)
-                            .ifPresent(decorator::applyValidationDecoration);
-                }
-            });
-        }
+        this.decorations.clear();
+        this.dirtyControls.addAll(this.controls);
+        this.applyDecorations();
     }
 
     /**
@@ -201,6 +365,309 @@ public class ValidationSupport {
         this.redecorate();
     }
 
+    /**
+     * Requests the validation of a control. This method can be called from
+     * any thread; repeated requests for a control before the next pass are
+     * coalesced.
+     */
+    private void requestValidation(final Control control,
+            final Runnable validation) {
+
+        this.statistics.recordRequest();
+
+        synchronized (this.pendingValidations) {
+
+            if (this.pendingValidations.isEmpty()) {
+
+                this.pendingSinceNanos = System.nanoTime();
+            }
+            this.pendingValidations.put(control, validation);
+
+            if (this.validationScheduled) {
+
+                return;
+            }
+            this.validationScheduled = true;
+        }
+
+        if (Platform.isFxApplicationThread()) {
+
+            this.validationTimer.start();
+        }
+        else {
+
+            Platform.runLater(this.validationTimer::start);
+        }
+    }
+
+    /**
+     * Performs the pending validations once the validation interval elapsed,
+     * aggregates their results, and re-decorates the controls whose results
+     * changed.
+     */
+    private void validatePending() {
+
+        final long intervalNanos = Math.max(0,
+                this.getValidationInterval()) * 1000000;
+        final Map<Control, Runnable> validations;
+        final long pendingSince;
+
+        synchronized (this.pendingValidations) {
+
+            if (!this.pendingValidations.isEmpty()
+                    && ((System.nanoTime() - this.pendingSinceNanos)
+                            < intervalNanos)) {
+
+                return;
+            }
+
+            validations = new LinkedHashMap<>(this.pendingValidations);
+            pendingSince = this.pendingSinceNanos;
+            this.pendingValidations.clear();
+            this.validationScheduled = false;
+            this.validationTimer.stop();
+        }
+
+        if (validations.isEmpty()) {
+
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        this.validating = true;
+        try {
+
+            for (final Map.Entry<Control, Runnable> validation : validations
+                    .entrySet()) {
+
+                this.validate(validation.getKey(), validation.getValue());
+            }
+        }
+        finally {
+
+            this.validating = false;
+            if (this.messagesChanged) {
+
+                this.validationResultProperty.invalidate();
+            }
+            this.statistics.recordPass(validations.size(), System.nanoTime()
+                    - start, start - pendingSince);
+            this.applyDecorations();
+        }
+    }
+
+    /**
+     * Performs the validation of a control; a failing validator results in
+     * an error of the control.
+     */
+    private void validate(final Control c, final Runnable validation) {
+
+        try {
+
+            validation.run();
+        }
+        catch (final RuntimeException e) {
+
+            ValidationSupport.LOG.warn("Validation of " + c + " failed", e);
+            this.validationResults.put(c, ValidationResult.fromError(c,
+                    ValidationSupport.VALIDATION_FAILED_MESSAGE));
+        }
+    }
+
+    /**
+     * Replaces the contribution of a control to the aggregate: the numbers of
+     * errors and warnings, and the messages and highest severity message of
+     * the control. The aggregate validation result is rebuilt lazily, and
+     * only invalidated if the messages of the control changed.
+     */
+    private void updateAggregate(final Control control,
+            final ValidationResult oldResult,
+            final ValidationResult newResult) {
+
+        if (oldResult != null) {
+
+            this.errorCount -= oldResult.getErrors()
+                    .size();
+            this.warningCount -= oldResult.getWarnings()
+                    .size();
+        }
+
+        this.controlsWithErrors.remove(control);
+        this.controlsWithWarnings.remove(control);
+        this.highestMessages.remove(control);
+
+        if (newResult != null) {
+
+            this.errorCount += newResult.getErrors()
+                    .size();
+            this.warningCount += newResult.getWarnings()
+                    .size();
+
+            if (!newResult.getErrors()
+                    .isEmpty()) {
+
+                this.controlsWithErrors.add(control);
+            }
+            else if (!newResult.getWarnings()
+                    .isEmpty()) {
+
+                this.controlsWithWarnings.add(control);
+            }
+
+            newResult.getMessages()
+                    .stream()
+                    .max(ValidationMessage.COMPARATOR)
+                    .ifPresent(message -> this.highestMessages.put(control,
+                            message));
+        }
+
+        this.invalidProperty.set(this.errorCount > 0);
+
+        final Collection<ValidationMessage> newMessages = (newResult == null)
+                ? Collections.<ValidationMessage> emptyList() : newResult
+                        .getMessages();
+        final Collection<ValidationMessage> oldMessages = this.messages
+                .getOrDefault(control, Collections.emptyList());
+
+        if (ValidationSupport.equalMessages(oldMessages, newMessages)) {
+
+            return;
+        }
+
+        if (newMessages.isEmpty()) {
+
+            this.messages.remove(control);
+        }
+        else {
+
+            this.messages.put(control, new ArrayList<>(newMessages));
+        }
+        this.messagesChanged = true;
+
+        // a validation pass invalidates the aggregate result once.
+        if (!this.validating) {
+
+            this.validationResultProperty.invalidate();
+        }
+    }
+
+    private static boolean equalMessages(
+            final Collection<ValidationMessage> first,
+            final Collection<ValidationMessage> second) {
+
+        if (first.size() != second.size()) {
+
+            return false;
+        }
+
+        final Iterator<ValidationMessage> secondMessages = second.iterator();
+
+        for (final ValidationMessage message : first) {
+
+            if (!Objects.equals(message, secondMessages.next())) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Marks a control for re-decoration during the next pulse, or at the end
+     * of the current validation pass.
+     */
+    private void markDirty(final Control control) {
+
+        this.dirtyControls.add(control);
+
+        if (!this.decorationScheduled && !this.validating) {
+
+            this.decorationScheduled = true;
+            Platform.runLater(this::applyDecorations);
+        }
+    }
+
+    /**
+     * Records a change of the validated data. Messages are only shown once
+     * the data changed, so all controls are re-decorated on the first change.
+     */
+    private void markDataChanged() {
+
+        if (!this.dataChanged.getAndSet(true)) {
+
+            if (Platform.isFxApplicationThread()) {
+
+                this.markAllDirty();
+            }
+            else {
+
+                Platform.runLater(this::markAllDirty);
+            }
+        }
+    }
+
+    private void markAllDirty() {
+
+        for (final Control control : this.controls) {
+
+            this.markDirty(control);
+        }
+    }
+
+    /**
+     * Re-decorates the dirty controls whose required flag or highest severity
+     * message changed since they were last decorated.
+     */
+    private void applyDecorations() {
+
+        this.decorationScheduled = false;
+
+        if (this.dirtyControls.isEmpty()) {
+
+            return;
+        }
+
+        final List<Control> dirty = new ArrayList<>(this.dirtyControls);
+        this.dirtyControls.clear();
+
+        final ValidationDecoration decorator = this.getValidationDecorator();
+        final boolean showMessages = this.dataChanged.get()
+                && this.isErrorDecorationEnabled();
+
+        for (final Control target : dirty) {
+
+            if (!this.controls.contains(target)) {
+
+                continue;
+            }
+
+            final Decoration decoration = new Decoration(
+                    ValidationSupport.isRequired(target), showMessages
+                            ? this.getHighestMessage(target).orElse(null)
+                            : null);
+
+            if (decoration.equals(this.decorations.get(target))) {
+
+                continue;
+            }
+
+            this.decorations.put(target, decoration);
+
+            if (decorator != null) {
+
+                decorator.removeDecorations(target);
+                decorator.applyRequiredDecoration(target);
+                if (decoration.message != null) {
+
+                    decorator.applyValidationDecoration(decoration.message);
+                }
+                this.decorationsApplied++;
+            }
+        }
+    }
+
     private final BooleanProperty errorDecorationEnabledProperty = new
             SimpleBooleanProperty(
             true) {
@@ -208,7 +675,7 @@ public class ValidationSupport {
         @Override
         protected void invalidated() {
 
-            ValidationSupport.this.redecorate();
+            ValidationSupport.this.markAllDirty();
         }
     };
 
@@ -240,8 +707,8 @@ public class ValidationSupport {
 
 
 
-    private final ReadOnlyObjectWrapper<ValidationResult>
-            validationResultProperty = new ReadOnlyObjectWrapper<>();
+    private final AggregateResultProperty validationResultProperty =
+            new AggregateResultProperty();
 
 
     /**
@@ -261,7 +728,27 @@ public class ValidationSupport {
      */
     public ReadOnlyObjectProperty<ValidationResult> validationResultProperty() {
 
-        return this.validationResultProperty.getReadOnlyProperty();
+        return this.validationResultProperty;
+    }
+
+    /**
+     * Returns the number of errors of all controls.
+     *
+     * @return the number of errors
+     */
+    public int getErrorCount() {
+
+        return this.errorCount;
+    }
+
+    /**
+     * Returns the number of warnings of all controls.
+     *
+     * @return the number of warnings
+     */
+    public int getWarningCount() {
+
+        return this.warningCount;
     }
 
     private final BooleanProperty invalidProperty = new SimpleBooleanProperty();
@@ -358,22 +845,64 @@ public class ValidationSupport {
      *
      * @return true if registration is successful
      */
-    @SuppressWarnings("unchecked")
     public <T> boolean registerValidator(final Control c,
             final boolean required, final Validator<T> validator) {
 
-        Optional.ofNullable(c)
-                .ifPresent(ctrl -> ctrl.getProperties()
-                        .addListener(
-                                (MapChangeListener<Object, Object>)
-                                        change -> {
+        return this.register(c, required, validator, false);
+    }
 
-                                    if (ValidationSupport
-                                            .CTRL_REQUIRED_FLAG.equals(
-                                            change.getKey())) {
-                                        ValidationSupport.this.redecorate();
-                                    }
-                                }));
+    /**
+     * Registers an asynchronous {@link Validator} for specified control with
+     * additional possiblity to mark control as required or not. The validator
+     * is applied on the {@link #executorProperty() executor}; while it runs,
+     * the control is {@link #isPending(Control) pending}. If the value of the
+     * control changes again, the running validation is cancelled (the thread
+     * applying it is interrupted), and its result is discarded.
+     *
+     * @param <T>
+     *         the type of the {@link Validator}.
+     * @param c
+     *         control to validate
+     * @param required
+     *         true if controls should be required
+     * @param validator
+     *         thread-safe {@link Validator} to be used
+     *
+     * @return true if registration is successful
+     */
+    public <T> boolean registerAsyncValidator(final Control c,
+            final boolean required, final Validator<T> validator) {
+
+        return this.register(c, required, validator, true);
+    }
+
+    /**
+     * Registers an asynchronous {@link Validator} for specified control and
+     * makes control required
+     *
+     * @param <T>
+     *         the type of the {@link Validator}.
+     * @param c
+     *         control to validate
+     * @param validator
+     *         thread-safe {@link Validator} to be used
+     *
+     * @return true if registration is successful
+     *
+     * @see #registerAsyncValidator(Control, boolean, Validator)
+     */
+    public <T> boolean registerAsyncValidator(final Control c,
+            final Validator<T> validator) {
+
+        return this.registerAsyncValidator(c, true, validator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> boolean register(final Control c, final boolean required,
+            final Validator<T> validator, final boolean async) {
+
+        // a new validator replaces the previous one, and its listeners.
+        this.unregisterValidator(c);
 
         ValidationSupport.setRequired(c, required);
 
@@ -384,24 +913,21 @@ public class ValidationSupport {
                             (ObservableValue<T>) e.call(
                             c);
 
-                    final Consumer<T> updateResults = value -> Platform.runLater(() -> this.validationResults.put(c,
-                            validator.apply(c, value)));
-
-                    this.controls.add(c);
-
-                    observable.addListener((o) -> {
-                        this.dataChanged.set(true);
-                        updateResults.accept(observable.getValue());
+                    // validates the current value once per pass, however
+                    // often it changed since the previous pass.
+                    final Runnable validation = async
+                            ? () -> this.validateAsynchronously(c, validator,
+                                    observable.getValue())
+                            : () -> this.validationResults.put(c,
+                                    validator.apply(c, observable.getValue()));
 
-                        this.setupCollectionChangeHandler(observable.getValue(),
-                                updateResults);
-                    });
-
-                    this.setupCollectionChangeHandler(observable.getValue(),
-                            updateResults);
+                    final Registration registration = new Registration(c,
+                            observable, validation);
 
+                    this.registrations.put(c, registration);
+                    this.controls.add(c);
 
-                    updateResults.accept(observable.getValue());
+                    registration.register();
 
                     return e;
 
@@ -409,57 +935,226 @@ public class ValidationSupport {
                 .isPresent();
     }
 
-    private <T> void setupCollectionChangeHandler(final T newValue,
-            final Consumer<T> updateResults) {
+    /**
+     * Unregisters the {@link Validator} of specified control: the control is
+     * no longer validated or decorated, and all listeners added to the control
+     * and its value are removed.
+     *
+     * @param c
+     *         control
+     *
+     * @return true if a validator was registered for the control
+     */
+    public boolean unregisterValidator(final Control c) {
 
-        if (newValue != null) {
+        final Registration registration = this.registrations.remove(c);
 
-            if (newValue instanceof ObservableList<?>) {
+        if (registration == null) {
 
-                final ObservableList<?> list = (ObservableList<?>) newValue;
-                list.addListener(new WeakListChangeListener<>(
-                        (final ListChangeListener.Change<?> change) -> {
+            return false;
+        }
 
-                            this.dataChanged.set(true);
-                            updateResults.accept(newValue);
-                        }));
-                list.addListener((final Observable observable) -> {
+        registration.unregister();
 
-                    this.dataChanged.set(true);
-                    updateResults.accept(newValue);
-                });
-            }
-            else if (newValue instanceof ObservableSet<?>) {
+        synchronized (this.pendingValidations) {
 
-                final ObservableSet<?> set = (ObservableSet<?>) newValue;
-                set.addListener(new WeakSetChangeListener<>(
-                        (final SetChangeListener.Change<?> change) -> {
+            this.pendingValidations.remove(c);
+        }
 
-                            this.dataChanged.set(true);
-                            updateResults.accept(newValue);
-                        }));
+        final AsyncValidation state = this.asyncValidations.remove(c);
 
-                set.addListener((final Observable observable) -> {
+        if (state != null) {
 
-                    this.dataChanged.set(true);
-                    updateResults.accept(newValue);
-                });
-            }
-            else if (newValue instanceof ObservableMap<?, ?>) {
-                final ObservableMap<?, ?> map = (ObservableMap<?, ?>) newValue;
-                map.addListener(new WeakMapChangeListener<>(
-                        (final MapChangeListener.Change<?, ?> change) -> {
-
-                            this.dataChanged.set(true);
-                            updateResults.accept(newValue);
-                        }));
-                map.addListener((final Observable observable) -> {
-
-                    this.dataChanged.set(true);
-                    updateResults.accept(newValue);
-                });
+            // discards the result of a running validation.
+            state.generation++;
+            if (state.task != null) {
+
+                state.task.cancel(true);
             }
+            this.setPending(c, false);
+        }
+
+        this.controls.remove(c);
+        this.validationResults.remove(c);
+        this.dirtyControls.remove(c);
+
+        if (this.decorations.remove(c) != null) {
+
+            Optional.ofNullable(this.getValidationDecorator())
+                    .ifPresent(decorator -> decorator.removeDecorations(c));
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies an asynchronous validator to the provided value, cancelling the
+     * validation of a previous value of the control.
+     */
+    private <T> void validateAsynchronously(final Control c,
+            final Validator<T> validator, final T value) {
+
+        final AsyncValidation state = this.asyncValidations.computeIfAbsent(
+                c, control -> new AsyncValidation());
+
+        if (state.task != null) {
+
+            state.task.cancel(true);
+        }
+
+        final long generation = ++state.generation;
+        final FutureTask<ValidationResult> task =
+                new FutureTask<ValidationResult>(() -> validator.apply(c,
+                        value)) {
+
+                    @Override
+                    protected void done() {
+
+                        if (!this.isCancelled()) {
+
+                            Platform.runLater(() -> ValidationSupport.this
+                                    .completeAsyncValidation(c, state,
+                                            generation, this));
+                        }
+                    }
+                };
+
+        state.task = task;
+        this.setPending(c, true);
+
+        try {
+
+            this.getExecutor()
+                    .execute(task);
+        }
+        catch (final RejectedExecutionException e) {
+
+            ValidationSupport.LOG.warn("Validation of " + c
+                    + " was rejected", e);
+            state.task = null;
+            this.setPending(c, false);
+            this.validationResults.put(c, ValidationResult.fromError(c,
+                    ValidationSupport.VALIDATION_FAILED_MESSAGE));
+        }
+    }
+
+    /**
+     * Publishes the result of an asynchronous validation, unless a validation
+     * of a newer value was started in the meantime.
+     */
+    private void completeAsyncValidation(final Control c,
+            final AsyncValidation state, final long generation,
+            final FutureTask<ValidationResult> task) {
+
+        if (state.generation != generation) {
+
+            return;
+        }
+
+        state.task = null;
+        this.setPending(c, false);
+
+        ValidationResult result;
+
+        try {
+
+            result = task.get();
         }
+        catch (final ExecutionException e) {
+
+            ValidationSupport.LOG.warn("Validation of " + c + " failed", e
+                    .getCause());
+            result = ValidationResult.fromError(c,
+                    ValidationSupport.VALIDATION_FAILED_MESSAGE);
+        }
+        catch (final InterruptedException | CancellationException e) {
+
+            return;
+        }
+
+        this.validationResults.put(c, result);
+    }
+
+    private void setPending(final Control c, final boolean pending) {
+
+        if (pending) {
+
+            this.pendingControls.add(c);
+        }
+        else {
+
+            this.pendingControls.remove(c);
+        }
+        this.pendingProperty.set(!this.pendingControls.isEmpty());
+    }
+
+    /**
+     * Returns the executor property, i.e., the {@link Executor} applying
+     * asynchronous validators. Defaults to a pool of daemon threads shared
+     * by all validation supports. If the executor rejects a validation, the
+     * control is no longer pending and reports an error.
+     *
+     * @return the executor property.
+     */
+    public ObjectProperty<Executor> executorProperty() {
+
+        return this.executorProperty;
+    }
+
+    /**
+     * Returns the value of the executor property.
+     *
+     * @return the value of the executor property.
+     */
+    public Executor getExecutor() {
+
+        return this.executorProperty.get();
+    }
+
+    /**
+     * Sets the value of the executor property.
+     *
+     * @param executor
+     *         the value of the executor property.
+     */
+    public void setExecutor(final Executor executor) {
+
+        this.executorProperty.set(executor);
+    }
+
+    /**
+     * Returns the pending property, which is {@code true} while an
+     * asynchronous validation of any control is in progress.
+     *
+     * @return the pending property.
+     */
+    public ReadOnlyBooleanProperty pendingProperty() {
+
+        return this.pendingProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * Returns the value of the pending property.
+     *
+     * @return true if an asynchronous validation is in progress
+     */
+    public boolean isPending() {
+
+        return this.pendingProperty.get();
+    }
+
+    /**
+     * Returns whether an asynchronous validation of a control is in progress.
+     *
+     * @param c
+     *         control
+     *
+     * @return true if an asynchronous validation of the control is in
+     *         progress
+     */
+    public boolean isPending(final Control c) {
+
+        return this.pendingControls.contains(c);
     }
 
     /**
@@ -501,9 +1196,242 @@ public class ValidationSupport {
      */
     public Optional<ValidationMessage> getHighestMessage(final Control target) {
 
-        return Optional.ofNullable(this.validationResults.get(target))
-                .flatMap(result -> result.getMessages()
-                        .stream()
-                        .max(ValidationMessage.COMPARATOR));
+        return Optional.ofNullable(this.highestMessages.get(target));
+    }
+
+    /**
+     * Returns optional highest severity message of all controls
+     *
+     * @return Optional highest severity message of all controls
+     */
+    public Optional<ValidationMessage> getHighestMessage() {
+
+        final Set<Control> controlsWithMessages = this.controlsWithErrors
+                .isEmpty() ? this.controlsWithWarnings
+                : this.controlsWithErrors;
+
+        if (controlsWithMessages.isEmpty()) {
+
+            return Optional.empty();
+        }
+
+        return this.getHighestMessage(controlsWithMessages.iterator()
+                .next());
+    }
+
+
+    /**
+     * The aggregate validation result. Changes of the messages of the
+     * controls only invalidate it, at most once per validation pass; it is
+     * rebuilt from the messages of the controls with messages when it is
+     * read.
+     */
+    private final class AggregateResultProperty
+            extends ReadOnlyObjectPropertyBase<ValidationResult> {
+
+        private ValidationResult value;
+        private boolean          valid;
+
+
+        private void invalidate() {
+
+            // listeners are notified even if the result was not read since
+            // the last change, as they would be by a regular property.
+            ValidationSupport.this.messagesChanged = false;
+            this.valid = false;
+            this.fireValueChangedEvent();
+        }
+
+        @Override
+        public ValidationResult get() {
+
+            if (!this.valid) {
+
+                final ValidationResult result = new ValidationResult();
+
+                for (final Collection<ValidationMessage> controlMessages :
+                        ValidationSupport.this.messages.values()) {
+
+                    result.addAll(controlMessages);
+                }
+
+                this.value = result;
+                this.valid = true;
+            }
+
+            return this.value;
+        }
+
+        @Override
+        public Object getBean() {
+
+            return ValidationSupport.this;
+        }
+
+        @Override
+        public String getName() {
+
+            return "validationResult";
+        }
+    }
+
+    /**
+     * The listeners of a registered control: a listener of its required flag,
+     * a listener of its value, and a listener of the observable collection
+     * its value may be. Each listener is added exactly once, and the
+     * collection listener is moved when the value is replaced by another
+     * collection.
+     */
+    private final class Registration {
+
+        private final Control                          control;
+        private final ObservableValue<?>               observable;
+        private final Runnable                         updateResults;
+        private final MapChangeListener<Object, Object> requiredListener;
+        private final InvalidationListener             valueListener;
+        private final InvalidationListener             collectionListener;
+
+        private Observable                             observedCollection;
+
+
+        private Registration(final Control control,
+                final ObservableValue<?> observable,
+                final Runnable validation) {
+
+            this.control = control;
+            this.observable = observable;
+            this.updateResults = () -> ValidationSupport.this
+                    .requestValidation(control, validation);
+
+            this.requiredListener = change -> {
+
+                if (ValidationSupport.CTRL_REQUIRED_FLAG.equals(
+                        change.getKey())) {
+
+                    ValidationSupport.this.markDirty(control);
+                }
+            };
+            this.valueListener = o -> {
+
+                ValidationSupport.this.markDataChanged();
+                this.observeCollection(this.observable.getValue());
+                this.updateResults.run();
+            };
+            this.collectionListener = o -> {
+
+                ValidationSupport.this.markDataChanged();
+                this.updateResults.run();
+            };
+        }
+
+        private void register() {
+
+            this.control.getProperties()
+                    .addListener(this.requiredListener);
+            this.observable.addListener(this.valueListener);
+            this.observeCollection(this.observable.getValue());
+
+            this.updateResults.run();
+        }
+
+        private void unregister() {
+
+            this.control.getProperties()
+                    .removeListener(this.requiredListener);
+            this.observable.removeListener(this.valueListener);
+            this.observeCollection(null);
+        }
+
+        /**
+         * Observes the provided value, if it is an observable collection,
+         * instead of the previously observed collection.
+         */
+        private void observeCollection(final Object value) {
+
+            final Observable collection = ((value instanceof ObservableList)
+                    || (value instanceof ObservableSet)
+                    || (value instanceof ObservableMap)) ? (Observable) value
+                    : null;
+
+            if (collection == this.observedCollection) {
+
+                return;
+            }
+
+            if (this.observedCollection != null) {
+
+                this.observedCollection.removeListener(
+                        this.collectionListener);
+            }
+
+            this.observedCollection = collection;
+
+            if (this.observedCollection != null) {
+
+                this.observedCollection.addListener(this.collectionListener);
+            }
+        }
+    }
+
+    /**
+     * The state of the asynchronous validation of a control: the generation
+     * of the most recent validation, and the task performing it.
+     */
+    private static final class AsyncValidation {
+
+        private long                         generation;
+        private FutureTask<ValidationResult> task;
+    }
+
+    /**
+     * The decoration of a control: its required flag and the highest severity
+     * message shown, if any.
+     */
+    private static final class Decoration {
+
+        private final boolean           required;
+        private final ValidationMessage message;
+
+
+        private Decoration(final boolean required,
+                final ValidationMessage message) {
+
+            this.required = required;
+            this.message = message;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(this.required, (this.message == null) ? null
+                    : this.message.getText());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+
+            if (this == obj) {
+
+                return true;
+            }
+            if (!(obj instanceof Decoration)) {
+
+                return false;
+            }
+
+            final Decoration other = (Decoration) obj;
+
+            if ((this.required != other.required)
+                    || ((this.message == null) != (other.message == null))) {
+
+                return false;
+            }
+
+            return (this.message == null)
+                    || ((this.message.getSeverity() == other.message
+                            .getSeverity())
+                            && Objects.equals(this.message.getText(),
+                                    other.message.getText()));
+        }
     }
 }
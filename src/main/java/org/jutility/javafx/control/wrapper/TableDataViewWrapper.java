@@ -26,10 +26,13 @@ package org.jutility.javafx.control.wrapper;
 //@formatter:on
 
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
@@ -43,7 +46,11 @@ import javafx.util.Callback;
 import javafx.util.StringConverter;
 
 import org.jutility.common.datatype.table.ITable;
+import org.jutility.javafx.collections.CellUpdateBuffer;
+import org.jutility.javafx.collections.ICellWriter;
+import org.jutility.javafx.collections.IRowAppender;
 import org.jutility.javafx.control.TableDataView;
+import org.jutility.javafx.control.TableLoadTask;
 
 
 
@@ -130,6 +137,185 @@ public class TableDataViewWrapper<T>
         this.getWrappedControl().setConverter(value);
     }
 
+    /**
+     * Returns the {@link ICellWriter Cell Writer} property.
+     *
+     * @see TableDataViewWrapper#getCellWriter()
+     * @see TableDataViewWrapper#setCellWriter(ICellWriter)
+     * @see TableDataView#cellWriterProperty()
+     *
+     * @return the {@link ICellWriter Cell Writer} property.
+     */
+    public ObjectProperty<ICellWriter<T>> cellWriterProperty() {
+
+        return this.getWrappedControl().cellWriterProperty();
+    }
+
+    /**
+     * Returns the value of the {@link ICellWriter Cell Writer} property.
+     *
+     * @return the value of the {@link ICellWriter Cell Writer} property.
+     */
+    public ICellWriter<T> getCellWriter() {
+
+        return this.getWrappedControl().getCellWriter();
+    }
+
+    /**
+     * Sets the value of the {@link ICellWriter Cell Writer} property.
+     *
+     * @param value
+     *            the value of the {@link ICellWriter Cell Writer} property.
+     */
+    public void setCellWriter(final ICellWriter<T> value) {
+
+        this.getWrappedControl().setCellWriter(value);
+    }
+
+    /**
+     * Returns the {@link IRowAppender Row Appender} property.
+     *
+     * @see TableDataViewWrapper#getRowAppender()
+     * @see TableDataViewWrapper#setRowAppender(IRowAppender)
+     * @see TableDataView#rowAppenderProperty()
+     *
+     * @return the {@link IRowAppender Row Appender} property.
+     */
+    public ObjectProperty<IRowAppender<T>> rowAppenderProperty() {
+
+        return this.getWrappedControl().rowAppenderProperty();
+    }
+
+    /**
+     * Returns the value of the {@link IRowAppender Row Appender} property.
+     *
+     * @return the value of the {@link IRowAppender Row Appender} property.
+     */
+    public IRowAppender<T> getRowAppender() {
+
+        return this.getWrappedControl().getRowAppender();
+    }
+
+    /**
+     * Sets the value of the {@link IRowAppender Row Appender} property.
+     *
+     * @param value
+     *            the value of the {@link IRowAppender Row Appender} property.
+     */
+    public void setRowAppender(final IRowAppender<T> value) {
+
+        this.getWrappedControl().setRowAppender(value);
+    }
+
+    /**
+     * Loads rows progressively in the background, appending them to the
+     * {@link ITable Table} in chunks while the rows loaded so far are already
+     * displayed.
+     *
+     * @param rows
+     *            the rows to load.
+     * @param expectedRows
+     *            the expected number of rows, or a negative number, if the
+     *            number of rows is unknown.
+     * @return the task loading the rows.
+     *
+     * @see TableDataView#load(Iterator, long)
+     */
+    public TableLoadTask<T> load(final Iterator<? extends List<T>> rows,
+            final long expectedRows) {
+
+        return this.getWrappedControl().load(rows, expectedRows);
+    }
+
+    /**
+     * Returns the row filter property.
+     *
+     * @see TableDataViewWrapper#getRowFilter()
+     * @see TableDataViewWrapper#setRowFilter(Predicate)
+     * @see TableDataView#rowFilterProperty()
+     *
+     * @return the row filter property.
+     */
+    public ObjectProperty<Predicate<? super List<T>>> rowFilterProperty() {
+
+        return this.getWrappedControl().rowFilterProperty();
+    }
+
+    /**
+     * Returns the value of the row filter property.
+     *
+     * @return the value of the row filter property.
+     */
+    public Predicate<? super List<T>> getRowFilter() {
+
+        return this.getWrappedControl().getRowFilter();
+    }
+
+    /**
+     * Sets the value of the row filter property.
+     *
+     * @param value
+     *            the value of the row filter property.
+     */
+    public void setRowFilter(final Predicate<? super List<T>> value) {
+
+        this.getWrappedControl().setRowFilter(value);
+    }
+
+    /**
+     * Returns the sorting property, which is {@code true} while the rows are
+     * sorted or filtered in the background.
+     *
+     * @see TableDataViewWrapper#isSorting()
+     * @see TableDataView#sortingProperty()
+     *
+     * @return the sorting property.
+     */
+    public ReadOnlyBooleanProperty sortingProperty() {
+
+        return this.getWrappedControl().sortingProperty();
+    }
+
+    /**
+     * Returns the value of the sorting property.
+     *
+     * @return the value of the sorting property.
+     */
+    public boolean isSorting() {
+
+        return this.getWrappedControl().isSorting();
+    }
+
+    /**
+     * Returns the buffer of the cell updates submitted by
+     * {@link #updateCell(int, int, Object)}.
+     *
+     * @return the cell update buffer.
+     *
+     * @see TableDataView#getCellUpdateBuffer()
+     */
+    public CellUpdateBuffer<T> getCellUpdateBuffer() {
+
+        return this.getWrappedControl().getCellUpdateBuffer();
+    }
+
+    /**
+     * Submits an update of a cell. This method can be called from any thread.
+     *
+     * @param row
+     *            the row of the cell.
+     * @param column
+     *            the column of the cell.
+     * @param value
+     *            the new value of the cell.
+     *
+     * @see TableDataView#updateCell(int, int, Object)
+     */
+    public void updateCell(final int row, final int column, final T value) {
+
+        this.getWrappedControl().updateCell(row, column, value);
+    }
+
 
     /**
      * This controls whether a menu button is available when the user clicks in
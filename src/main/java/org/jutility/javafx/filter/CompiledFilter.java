@@ -0,0 +1,292 @@
+package org.jutility.javafx.filter;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The {@code CompiledFilter} class captures an immutable snapshot of the
+ * settings of a {@link StringFilter} together with any state that can be
+ * precomputed from them (the compiled {@link Pattern}, the case-folded filter
+ * string).
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+final class CompiledFilter {
+
+    private static final Logger LOG                 = LoggerFactory
+                                                            .getLogger(CompiledFilter.class);
+
+    private static final int    MATCH_SCORE         = 16;
+    private static final int    CONSECUTIVE_BONUS   = 16;
+    private static final int    WORD_START_BONUS    = 12;
+    private static final int    MAX_GAP_PENALTY     = 8;
+    private static final int    MAX_LEADING_PENALTY = 8;
+    private static final int    MAX_LENGTH_PENALTY  = 8;
+
+    private final String     filterString;
+    private final boolean    caseSensitive;
+    private final boolean    regex;
+    private final boolean    fuzzy;
+
+    private final Pattern    pattern;
+    private final String     needle;
+    private final char       firstLower;
+    private final char       firstUpper;
+    private final char[]     fuzzyNeedle;
+
+
+    CompiledFilter(final String filterString,
+            final boolean caseSensitive, final boolean regex,
+            final boolean fuzzy) {
+
+        this.filterString = filterString;
+        this.caseSensitive = caseSensitive;
+        this.regex = regex;
+        this.fuzzy = fuzzy && !regex;
+
+        if (this.fuzzy && (filterString != null)) {
+
+            this.fuzzyNeedle = new char[filterString.length()];
+
+            for (int i = 0; i < this.fuzzyNeedle.length; i++) {
+
+                this.fuzzyNeedle[i] = this.fold(filterString.charAt(i));
+            }
+        }
+        else {
+
+            this.fuzzyNeedle = null;
+        }
+
+        if ((filterString == null) || filterString.isEmpty()) {
+
+            this.pattern = null;
+            this.needle = null;
+            this.firstLower = 0;
+            this.firstUpper = 0;
+        }
+        else if (regex) {
+
+            this.pattern = CompiledFilter.compilePattern(filterString);
+            this.needle = null;
+            this.firstLower = 0;
+            this.firstUpper = 0;
+        }
+        else if (caseSensitive) {
+
+            this.pattern = null;
+            this.needle = filterString;
+            this.firstLower = 0;
+            this.firstUpper = 0;
+        }
+        else {
+
+            // folded char by char, like the characters of the values: a
+            // locale-sensitive String.toLowerCase() could change the length
+            // or the characters of the filter string.
+            this.pattern = null;
+            this.needle = CompiledFilter.foldCase(filterString);
+            this.firstLower = this.needle.charAt(0);
+            this.firstUpper = Character.toUpperCase(this.firstLower);
+        }
+    }
+
+    private static Pattern compilePattern(final String filterString) {
+
+        try {
+
+            return Pattern.compile(filterString);
+        }
+        catch (final PatternSyntaxException e) {
+
+            CompiledFilter.LOG.debug("Invalid regular expression: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    boolean matchesAll() {
+
+        return (this.filterString == null) || this.filterString.isEmpty();
+    }
+
+    boolean matches(final String value) {
+
+        if (this.regex) {
+
+            return (this.pattern != null)
+                    && this.pattern.matcher(value).matches();
+        }
+        else if (this.fuzzy) {
+
+            return this.fuzzyScore(value) != StringFilter.NO_MATCH;
+        }
+        else if (this.caseSensitive) {
+
+            return value.contains(this.needle);
+        }
+        else {
+
+            return this.containsIgnoreCase(value);
+        }
+    }
+
+    int score(final String value) {
+
+        if (this.fuzzy) {
+
+            return this.fuzzyScore(value);
+        }
+
+        return this.matches(value) ? 0 : StringFilter.NO_MATCH;
+    }
+
+    /**
+     * Scores the greedy, left-most subsequence match of the filter string
+     * in the provided value.
+     */
+    private int fuzzyScore(final String value) {
+
+        final char[] characters = this.fuzzyNeedle;
+        int matched = 0;
+        int score = 0;
+        int firstMatch = -1;
+        int lastMatch = -1;
+
+        for (int i = 0; (i < value.length())
+                && (matched < characters.length); i++) {
+
+            final char c = value.charAt(i);
+
+            if (this.fold(c) != characters[matched]) {
+
+                continue;
+            }
+
+            score += CompiledFilter.MATCH_SCORE;
+
+            if (lastMatch < 0) {
+
+                firstMatch = i;
+            }
+            else if (lastMatch == (i - 1)) {
+
+                score += CompiledFilter.CONSECUTIVE_BONUS;
+            }
+            else {
+
+                score -= Math.min(i - lastMatch - 1,
+                        CompiledFilter.MAX_GAP_PENALTY);
+            }
+
+            if ((i == 0)
+                    || !Character.isLetterOrDigit(value.charAt(i - 1))
+                    || (Character.isUpperCase(c) && Character
+                            .isLowerCase(value.charAt(i - 1)))) {
+
+                score += CompiledFilter.WORD_START_BONUS;
+            }
+
+            lastMatch = i;
+            matched++;
+        }
+
+        if (matched < characters.length) {
+
+            return StringFilter.NO_MATCH;
+        }
+
+        score -= Math.min(firstMatch, CompiledFilter.MAX_LEADING_PENALTY);
+        score -= Math.min((value.length() - characters.length) >>> 2,
+                CompiledFilter.MAX_LENGTH_PENALTY);
+
+        return score;
+    }
+
+    private char fold(final char c) {
+
+        if (this.caseSensitive) {
+
+            return c;
+        }
+
+        return CompiledFilter.foldCase(c);
+    }
+
+    /**
+     * Folds the case of a character for case-insensitive matching.
+     */
+    static char foldCase(final char c) {
+
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Folds the case of the characters of a string one by one, so that the
+     * length of the string is preserved.
+     */
+    static String foldCase(final String value) {
+
+        final char[] folded = new char[value.length()];
+
+        for (int i = 0; i < folded.length; i++) {
+
+            folded[i] = CompiledFilter.foldCase(value.charAt(i));
+        }
+
+        return new String(folded);
+    }
+
+    private boolean containsIgnoreCase(final String value) {
+
+        final int length = this.needle.length();
+        final int last = value.length() - length;
+
+        for (int i = 0; i <= last; i++) {
+
+            final char c = value.charAt(i);
+
+            // ASCII characters only ever fold to their lower case.
+            if (((c == this.firstLower) || (c == this.firstUpper)
+                    || ((c > 0x7F) && (this.fold(c) == this.firstLower)))
+                    && value.regionMatches(true, i, this.needle, 0,
+                            length)) {
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
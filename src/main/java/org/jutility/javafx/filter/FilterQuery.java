@@ -0,0 +1,765 @@
+package org.jutility.javafx.filter;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+
+/**
+ * The {@code FilterQuery} class provides a {@link Predicate} compiled from a
+ * multi-term query, such as {@code name:foo status:open -archived}.
+ * <p>
+ * The query language supports the following constructs:
+ * </p>
+ * <ul>
+ * <li>{@code foo bar} or {@code foo AND bar}: both terms must match.</li>
+ * <li>{@code foo OR bar} or {@code foo | bar}: either term must match.</li>
+ * <li>{@code -foo} or {@code NOT foo}: the term must not match.</li>
+ * <li>{@code (foo OR bar) baz}: parentheses group terms.</li>
+ * <li>{@code "foo bar"}: quotes match a phrase, including whitespace.</li>
+ * <li>{@code name:foo} or {@code name:(foo OR bar)}: the term (or group) is
+ * matched against the string value extracted by the field extractor
+ * {@code name}. Prefixes that do not name a known field are matched as part
+ * of the term.</li>
+ * </ul>
+ * <p>
+ * Each term matches if the extracted string value contains it. The parser is
+ * lenient, so that incomplete queries (e.g., while they are being typed) do
+ * not fail: unbalanced parentheses and quotes are closed implicitly, and
+ * empty terms and groups match everything.
+ * </p>
+ * <p>
+ * A query is compiled once into a tree of predicates. The operands of each
+ * conjunction and disjunction are ordered so that the cheapest and most
+ * decisive operands are evaluated first, and evaluation stops as soon as the
+ * result is known. Unscoped terms are cheaper than field-scoped terms: the
+ * default string value is needed by almost every query, whereas each field
+ * converts the object once more. Among equally expensive operands, longer
+ * terms are assumed to be more decisive. Compiled queries are immutable and can safely be tested
+ * from multiple threads.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the objects to be filtered.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public final class FilterQuery<T>
+        implements Predicate<T> {
+
+    private final String                query;
+    private final Node<T>               root;
+    private final Extractor<T>[]        extractors;
+    private final ThreadLocal<String[]> keys;
+
+
+    /**
+     * Returns the query this predicate was compiled from.
+     *
+     * @return the query.
+     */
+    public String getQuery() {
+
+        return this.query;
+    }
+
+    /**
+     * Returns whether or not this query matches all objects, i.e., whether it
+     * is empty or consists of empty terms only.
+     *
+     * @return {@code true}, if this query matches all objects; {@code false}
+     *         otherwise.
+     */
+    public boolean isMatchAll() {
+
+        return this.root == null;
+    }
+
+
+    private FilterQuery(final String query, final Node<T> root,
+            final Extractor<T>[] extractors) {
+
+        this.query = query;
+        this.root = root;
+        this.extractors = extractors;
+        // scratch space for the extracted keys, reused by all tests of a
+        // thread so that testing does not allocate.
+        this.keys = ThreadLocal.withInitial(
+                () -> new String[extractors.length]);
+    }
+
+
+    /**
+     * Compiles the provided query.
+     *
+     * @param <T>
+     *            the type of the objects to be filtered.
+     * @param query
+     *            the query (can be {@code null}).
+     * @param defaultKey
+     *            the function extracting the string value unscoped terms are
+     *            matched against.
+     * @param fields
+     *            the functions extracting the string values field-scoped terms
+     *            are matched against, by field name (can be {@code null}).
+     * @param caseSensitive
+     *            whether or not terms are matched case sensitively.
+     * @return the compiled query.
+     */
+    public static <T> FilterQuery<T> compile(final String query,
+            final Function<? super T, String> defaultKey,
+            final Map<String, ? extends Function<? super T, String>> fields,
+            final boolean caseSensitive) {
+
+        if (defaultKey == null) {
+
+            throw new IllegalArgumentException(
+                    "Cannot compile a query without a default key!");
+        }
+
+        final Parser<T> parser = new Parser<>(query, defaultKey, fields,
+                caseSensitive);
+        final Node<T> root = Node.simplify(parser.parse());
+
+        return new FilterQuery<>(query, root, parser.extractors());
+    }
+
+
+    @Override
+    public boolean test(final T value) {
+
+        if (this.root == null) {
+
+            return true;
+        }
+
+        final String[] extractedKeys = this.keys.get();
+
+        try {
+
+            return this.root.test(value, extractedKeys);
+        }
+        finally {
+
+            Arrays.fill(extractedKeys, null);
+        }
+    }
+
+
+    /**
+     * Lazily extracts and memoizes the string values of a tested object, so
+     * that terms scoped to the same field convert the object only once.
+     */
+    private static final class Extractor<T> {
+
+        private final int                         index;
+        private final Function<? super T, String> function;
+
+
+        private Extractor(final int index,
+                final Function<? super T, String> function) {
+
+            this.index = index;
+            this.function = function;
+        }
+
+        private String extract(final T value, final String[] keys) {
+
+            String key = keys[this.index];
+
+            if (key == null) {
+
+                try {
+
+                    key = this.function.apply(value);
+                }
+                catch (final RuntimeException e) {
+
+                    key = null;
+                }
+
+                key = (key == null) ? "" : key;
+                keys[this.index] = key;
+            }
+
+            return key;
+        }
+    }
+
+
+    /**
+     * A node of the compiled predicate tree. A {@code null} node matches all
+     * objects.
+     */
+    private static abstract class Node<T> {
+
+        /**
+         * Returns the estimated cost of evaluating this node.
+         */
+        abstract int cost();
+
+        /**
+         * Returns the estimated selectivity of this node, i.e., how likely it
+         * is to reject an object (higher is more selective).
+         */
+        abstract int selectivity();
+
+        abstract boolean test(final T value, final String[] keys);
+
+        /**
+         * Removes nodes matching all objects and flattens single-operand
+         * conjunctions and disjunctions.
+         */
+        private static <T> Node<T> simplify(final Node<T> node) {
+
+            return (node == null) ? null : node.simplified();
+        }
+
+        Node<T> simplified() {
+
+            return this;
+        }
+    }
+
+    private static final class Term<T>
+            extends Node<T> {
+
+        /**
+         * The cost of matching the default string value of an object.
+         */
+        private static final int DEFAULT_COST = 1;
+        /**
+         * The cost of extracting and matching the string value of a field.
+         */
+        private static final int FIELD_COST   = 4;
+
+        private final Extractor<T>   extractor;
+        private final CompiledFilter filter;
+        private final int            length;
+        private final int            cost;
+
+
+        private Term(final Extractor<T> extractor, final String needle,
+                final boolean caseSensitive, final boolean field) {
+
+            this.extractor = extractor;
+            this.filter = new CompiledFilter(needle, caseSensitive, false,
+                    false);
+            this.length = needle.length();
+            this.cost = field ? Term.FIELD_COST : Term.DEFAULT_COST;
+        }
+
+        @Override
+        int cost() {
+
+            return this.cost;
+        }
+
+        @Override
+        int selectivity() {
+
+            return this.length;
+        }
+
+        @Override
+        boolean test(final T value, final String[] keys) {
+
+            final String key = this.extractor.extract(value, keys);
+
+            return !key.isEmpty() && this.filter.matches(key);
+        }
+
+        @Override
+        Node<T> simplified() {
+
+            return this.filter.matchesAll() ? null : this;
+        }
+    }
+
+    private static final class Not<T>
+            extends Node<T> {
+
+        private final Node<T> operand;
+
+
+        private Not(final Node<T> operand) {
+
+            this.operand = operand;
+        }
+
+        @Override
+        int cost() {
+
+            return this.operand.cost();
+        }
+
+        @Override
+        int selectivity() {
+
+            return -this.operand.selectivity();
+        }
+
+        @Override
+        boolean test(final T value, final String[] keys) {
+
+            return !this.operand.test(value, keys);
+        }
+
+        @Override
+        Node<T> simplified() {
+
+            final Node<T> operand = Node.simplify(this.operand);
+
+            // negating "everything" would reject everything, which is never
+            // useful while typing; treat the incomplete term as absent.
+            return (operand == null) ? null : new Not<>(operand);
+        }
+    }
+
+    private static final class Junction<T>
+            extends Node<T> {
+
+        private final boolean   conjunction;
+        private final Node<T>[] operands;
+        private final int       cost;
+
+
+        private Junction(final boolean conjunction,
+                final Node<T>[] operands) {
+
+            this.conjunction = conjunction;
+            this.operands = operands;
+
+            int cost = 0;
+
+            for (final Node<T> operand : operands) {
+
+                cost += operand.cost();
+            }
+
+            this.cost = cost;
+        }
+
+        @Override
+        int cost() {
+
+            return this.cost;
+        }
+
+        @Override
+        int selectivity() {
+
+            int selectivity = this.operands[0].selectivity();
+
+            for (final Node<T> operand : this.operands) {
+
+                selectivity = this.conjunction ? Math.max(selectivity,
+                        operand.selectivity()) : Math.min(selectivity,
+                        operand.selectivity());
+            }
+
+            return selectivity;
+        }
+
+        @Override
+        boolean test(final T value, final String[] keys) {
+
+            for (final Node<T> operand : this.operands) {
+
+                if (operand.test(value, keys) != this.conjunction) {
+
+                    return !this.conjunction;
+                }
+            }
+
+            return this.conjunction;
+        }
+
+        @Override
+        Node<T> simplified() {
+
+            final List<Node<T>> simplified = new ArrayList<>();
+
+            for (final Node<T> operand : this.operands) {
+
+                final Node<T> node = Node.simplify(operand);
+
+                if (node == null) {
+
+                    if (!this.conjunction) {
+
+                        // one operand matches all objects, so does the
+                        // disjunction.
+                        return null;
+                    }
+                }
+                else if ((node instanceof Junction)
+                        && (((Junction<T>) node).conjunction == this.conjunction)) {
+
+                    Collections.addAll(simplified,
+                            ((Junction<T>) node).operands);
+                }
+                else {
+
+                    simplified.add(node);
+                }
+            }
+
+            if (simplified.isEmpty()) {
+
+                return null;
+            }
+            if (simplified.size() == 1) {
+
+                return simplified.get(0);
+            }
+
+            // cheapest first; among equally cheap operands, the most likely
+            // to decide the result (reject for AND, accept for OR) first.
+            final Comparator<Node<T>> byCost = Comparator
+                    .comparingInt(Node::cost);
+            final Comparator<Node<T>> bySelectivity = Comparator
+                    .comparingInt(Node::selectivity);
+
+            simplified.sort(byCost.thenComparing(this.conjunction
+                    ? bySelectivity.reversed() : bySelectivity));
+
+            return new Junction<>(this.conjunction,
+                    Junction.toArray(simplified));
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static <T> Node<T>[] toArray(final List<Node<T>> nodes) {
+
+            return nodes.toArray(new Node[nodes.size()]);
+        }
+    }
+
+
+    /**
+     * Recursive descent parser of the query language:
+     *
+     * <pre>
+     * disjunction := conjunction (("OR" | "|") conjunction)*
+     * conjunction := unary ("AND"? unary)*
+     * unary       := ("-" | "NOT") unary | [field ":"] primary
+     * primary     := "(" disjunction ")" | phrase | word
+     * </pre>
+     */
+    private static final class Parser<T> {
+
+        private final String                                             query;
+        private final Map<String, ? extends Function<? super T, String>> fields;
+        private final boolean                                            caseSensitive;
+        private final Map<Object, Extractor<T>>                          extractors;
+        private final Extractor<T>                                       defaultExtractor;
+
+        private int                                                      position;
+
+
+        private Parser(final String query,
+                final Function<? super T, String> defaultKey,
+                final Map<String, ? extends Function<? super T, String>> fields,
+                final boolean caseSensitive) {
+
+            this.query = (query == null) ? "" : query;
+            this.fields = (fields == null) ? Collections.emptyMap() : fields;
+            this.caseSensitive = caseSensitive;
+            this.extractors = new HashMap<>();
+            this.defaultExtractor = this.extractor(defaultKey);
+            this.position = 0;
+        }
+
+        private Node<T> parse() {
+
+            final List<Node<T>> operands = new ArrayList<>();
+
+            while (this.skipWhitespace()) {
+
+                operands.add(this.disjunction(this.defaultExtractor));
+
+                if (this.peek() == ')') {
+
+                    // unbalanced closing parenthesis.
+                    this.position++;
+                }
+            }
+
+            return this.junction(true, operands);
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Extractor<T>[] extractors() {
+
+            final Extractor<T>[] result = new Extractor[this.extractors.size()];
+
+            for (final Extractor<T> extractor : this.extractors.values()) {
+
+                result[extractor.index] = extractor;
+            }
+
+            return result;
+        }
+
+        private Node<T> disjunction(final Extractor<T> scope) {
+
+            final List<Node<T>> operands = new ArrayList<>();
+            operands.add(this.conjunction(scope));
+
+            while (this.skipWhitespace() && this.acceptOr()) {
+
+                operands.add(this.conjunction(scope));
+            }
+
+            return this.junction(false, operands);
+        }
+
+        private Node<T> conjunction(final Extractor<T> scope) {
+
+            final List<Node<T>> operands = new ArrayList<>();
+
+            while (this.skipWhitespace() && (this.peek() != ')')
+                    && !this.atKeyword("OR") && (this.peek() != '|')) {
+
+                if (!this.acceptKeyword("AND")) {
+
+                    operands.add(this.unary(scope));
+                }
+            }
+
+            return this.junction(true, operands);
+        }
+
+        private Node<T> unary(final Extractor<T> scope) {
+
+            if (this.peek() == '-') {
+
+                this.position++;
+                return this.negate(scope);
+            }
+            if (this.acceptKeyword("NOT")) {
+
+                this.skipWhitespace();
+                return this.negate(scope);
+            }
+
+            final Extractor<T> field = this.acceptField();
+
+            return this.primary((field == null) ? scope : field);
+        }
+
+        private Node<T> negate(final Extractor<T> scope) {
+
+            if (!this.hasMore() || Character.isWhitespace(this.peek())
+                    || (this.peek() == ')')) {
+
+                return null;
+            }
+
+            final Node<T> operand = this.unary(scope);
+
+            return (operand == null) ? null : new Not<>(operand);
+        }
+
+        private Node<T> primary(final Extractor<T> scope) {
+
+            final char c = this.peek();
+
+            if (c == '(') {
+
+                this.position++;
+
+                final Node<T> group = this.disjunction(scope);
+
+                if (this.peek() == ')') {
+
+                    this.position++;
+                }
+
+                return group;
+            }
+            if (c == '"') {
+
+                this.position++;
+
+                final int end = this.query.indexOf('"', this.position);
+                final int stop = (end < 0) ? this.query.length() : end;
+                final String phrase = this.query.substring(this.position,
+                        stop);
+
+                this.position = (end < 0) ? stop : (stop + 1);
+                return this.term(scope, phrase);
+            }
+
+            final int start = this.position;
+
+            while (this.hasMore() && !this.isDelimiter(this.peek())) {
+
+                this.position++;
+            }
+
+            return this.term(scope, this.query.substring(start,
+                    this.position));
+        }
+
+        private Term<T> term(final Extractor<T> scope, final String needle) {
+
+            return new Term<>(scope, needle, this.caseSensitive,
+                    scope != this.defaultExtractor);
+        }
+
+        private Extractor<T> acceptField() {
+
+            final int start = this.position;
+            int end = start;
+
+            while ((end < this.query.length())
+                    && !this.isDelimiter(this.query.charAt(end))
+                    && (this.query.charAt(end) != ':')) {
+
+                end++;
+            }
+
+            if ((end == start) || (end >= this.query.length())
+                    || (this.query.charAt(end) != ':')) {
+
+                return null;
+            }
+
+            final Function<? super T, String> function = this.fields
+                    .get(this.query.substring(start, end));
+
+            if (function == null) {
+
+                return null;
+            }
+
+            this.position = end + 1;
+            return this.extractor(function);
+        }
+
+        private boolean acceptOr() {
+
+            if (this.peek() == '|') {
+
+                this.position++;
+                return true;
+            }
+
+            return this.acceptKeyword("OR");
+        }
+
+        private boolean acceptKeyword(final String keyword) {
+
+            if (this.atKeyword(keyword)) {
+
+                this.position += keyword.length();
+                return true;
+            }
+
+            return false;
+        }
+
+        private boolean atKeyword(final String keyword) {
+
+            final int end = this.position + keyword.length();
+
+            // keywords are only recognized as separate words, so that
+            // "ORDER" or a trailing "OR" remain plain terms.
+            return this.query.startsWith(keyword, this.position)
+                    && (end < this.query.length())
+                    && Character.isWhitespace(this.query.charAt(end));
+        }
+
+        private Extractor<T> extractor(
+                final Function<? super T, String> function) {
+
+            Extractor<T> extractor = this.extractors.get(function);
+
+            if (extractor == null) {
+
+                extractor = new Extractor<>(this.extractors.size(), function);
+                this.extractors.put(function, extractor);
+            }
+
+            return extractor;
+        }
+
+        private Node<T> junction(final boolean conjunction,
+                final List<Node<T>> operands) {
+
+            operands.removeIf((operand) -> operand == null);
+
+            if (operands.isEmpty()) {
+
+                return null;
+            }
+            if (operands.size() == 1) {
+
+                return operands.get(0);
+            }
+
+            return new Junction<>(conjunction, Junction.toArray(operands));
+        }
+
+        private boolean skipWhitespace() {
+
+            while (this.hasMore()
+                    && Character.isWhitespace(this.query.charAt(this.position))) {
+
+                this.position++;
+            }
+
+            return this.hasMore();
+        }
+
+        private boolean hasMore() {
+
+            return this.position < this.query.length();
+        }
+
+        private char peek() {
+
+            return this.hasMore() ? this.query.charAt(this.position) : 0;
+        }
+
+        private boolean isDelimiter(final char c) {
+
+            return Character.isWhitespace(c) || (c == '(') || (c == ')')
+                    || (c == '"') || (c == '|');
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.jutility.javafx.filter;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * The {@code FilterStatistics} class collects low-overhead metrics of a
+ * {@link StringFilter}: the number of tested and matching items, and the
+ * number and duration of filter passes.
+ * <p>
+ * Counters can be updated concurrently from multiple threads without
+ * contention and without allocation on the hot path.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class FilterStatistics {
+
+    private final LongAdder  itemsTested;
+    private final LongAdder  matches;
+    private final LongAdder  passes;
+    private final LongAdder  totalPassNanos;
+    private final AtomicLong lastPassNanos;
+
+
+    /**
+     * Returns the number of items tested since the last reset.
+     *
+     * @return the number of items tested.
+     */
+    public long getItemsTested() {
+
+        return this.itemsTested.sum();
+    }
+
+    /**
+     * Returns the number of tested items that matched since the last reset.
+     *
+     * @return the number of matches.
+     */
+    public long getMatches() {
+
+        return this.matches.sum();
+    }
+
+    /**
+     * Returns the number of filter passes since the last reset.
+     *
+     * @return the number of filter passes.
+     */
+    public long getPasses() {
+
+        return this.passes.sum();
+    }
+
+    /**
+     * Returns the duration of the most recent filter pass in nanoseconds.
+     *
+     * @return the duration of the most recent filter pass.
+     */
+    public long getLastPassNanos() {
+
+        return this.lastPassNanos.get();
+    }
+
+    /**
+     * Returns the total duration of all filter passes since the last reset in
+     * nanoseconds.
+     *
+     * @return the total duration of all filter passes.
+     */
+    public long getTotalPassNanos() {
+
+        return this.totalPassNanos.sum();
+    }
+
+    /**
+     * Returns the average duration of a filter pass since the last reset in
+     * nanoseconds.
+     *
+     * @return the average duration of a filter pass, or {@code 0} if no pass
+     *         was recorded.
+     */
+    public long getAveragePassNanos() {
+
+        final long passCount = this.getPasses();
+
+        return (passCount == 0) ? 0 : (this.getTotalPassNanos() / passCount);
+    }
+
+
+    /**
+     * Creates a new instance of the {@link FilterStatistics} class.
+     */
+    public FilterStatistics() {
+
+        this.itemsTested = new LongAdder();
+        this.matches = new LongAdder();
+        this.passes = new LongAdder();
+        this.totalPassNanos = new LongAdder();
+        this.lastPassNanos = new AtomicLong();
+    }
+
+
+    /**
+     * Records a filter pass, i.e., the filtering of a collection of items.
+     *
+     * @param nanos
+     *            the duration of the pass in nanoseconds.
+     */
+    public void recordPass(final long nanos) {
+
+        this.passes.increment();
+        this.totalPassNanos.add(nanos);
+        this.lastPassNanos.set(nanos);
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+
+        this.itemsTested.reset();
+        this.matches.reset();
+        this.passes.reset();
+        this.totalPassNanos.reset();
+        this.lastPassNanos.set(0);
+    }
+
+
+    void recordTest(final boolean matched) {
+
+        this.itemsTested.increment();
+
+        if (matched) {
+
+            this.matches.increment();
+        }
+    }
+}
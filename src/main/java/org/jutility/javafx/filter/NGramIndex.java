@@ -0,0 +1,662 @@
+package org.jutility.javafx.filter;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+
+/**
+ * The {@code NGramIndex} class provides an inverted n-gram index over the
+ * search keys of the items of an {@link ObservableList}, which narrows down
+ * the candidates for a substring search before they are verified by a
+ * {@link StringFilter}.
+ * <p>
+ * The index is updated incrementally from the changes reported by the
+ * {@link #observe(ObservableList) observed} list. It is not thread-safe and
+ * must only be used on the thread modifying the observed list (usually the
+ * JavaFX Application Thread). To build the index of a large list without
+ * blocking that thread, a new index can {@link #index(Collection) index} a
+ * snapshot of the list on a background thread before it is handed over and
+ * {@link #observe(ObservableList, boolean) observes} the list without being
+ * rebuilt.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the indexed items.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class NGramIndex<T> {
+
+    /**
+     * The default length of the indexed n-grams.
+     */
+    public static final int                   DEFAULT_GRAM_LENGTH = 3;
+
+    private static final int                  MAX_GRAM_LENGTH     = 4;
+    private static final long[]               NO_GRAMS            = new long[0];
+
+    private final Function<? super T, String> keyFunction;
+    private final boolean                     caseSensitive;
+    private final int                         gramLength;
+
+    private final Map<T, Entry>               entries;
+    private final Map<Long, Postings>         postings;
+    private final ListChangeListener<T>       listChangeListener;
+
+    private ObservableList<? extends T>       observedList;
+    private Object[]                          itemsById;
+    private int                               nextId;
+
+
+    /**
+     * Returns whether the index distinguishes between upper and lower case.
+     *
+     * @return {@code true}, if the index is case sensitive; {@code false}
+     *         otherwise.
+     */
+    public boolean isCaseSensitive() {
+
+        return this.caseSensitive;
+    }
+
+    /**
+     * Returns the length of the indexed n-grams.
+     *
+     * @return the length of the indexed n-grams.
+     */
+    public int getGramLength() {
+
+        return this.gramLength;
+    }
+
+    /**
+     * Returns the number of distinct indexed items.
+     *
+     * @return the number of distinct indexed items.
+     */
+    public int size() {
+
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of distinct n-grams in the index.
+     *
+     * @return the number of distinct n-grams in the index.
+     */
+    public int getGramCount() {
+
+        return this.postings.size();
+    }
+
+    /**
+     * Returns an estimate of the heap memory occupied by the index in bytes,
+     * assuming compressed object pointers.
+     *
+     * @return the estimated memory footprint of the index in bytes.
+     */
+    public long getMemoryFootprint() {
+
+        // HashMap node (32) + Long key (16) + Postings (24) + int[] header (16)
+        long footprint = 88L * this.postings.size();
+
+        for (final Postings posting : this.postings.values()) {
+
+            footprint += 4L * posting.ids.length;
+        }
+
+        for (final Entry entry : this.entries.values()) {
+
+            // IdentityHashMap slots (2 * 4 * 2) + Entry (24) + long[] (16)
+            footprint += 56L + (8L * entry.grams.length);
+        }
+
+        footprint += 4L * this.itemsById.length;
+
+        return footprint;
+    }
+
+
+    /**
+     * Creates a new, case insensitive instance of the {@link NGramIndex} class
+     * indexing {@value #DEFAULT_GRAM_LENGTH}-grams.
+     *
+     * @param keyFunction
+     *            the function providing the search key of an item.
+     */
+    public NGramIndex(final Function<? super T, String> keyFunction) {
+
+        this(keyFunction, false, NGramIndex.DEFAULT_GRAM_LENGTH);
+    }
+
+    /**
+     * Creates a new instance of the {@link NGramIndex} class.
+     *
+     * @param keyFunction
+     *            the function providing the search key of an item.
+     * @param caseSensitive
+     *            whether or not the index distinguishes between upper and
+     *            lower case. A case insensitive index can serve both case
+     *            sensitive and case insensitive searches.
+     * @param gramLength
+     *            the length of the indexed n-grams (1 to 4).
+     */
+    public NGramIndex(final Function<? super T, String> keyFunction,
+            final boolean caseSensitive, final int gramLength) {
+
+        if (keyFunction == null) {
+
+            throw new IllegalArgumentException(
+                    "Cannot create an index without a key function!");
+        }
+        if ((gramLength < 1) || (gramLength > NGramIndex.MAX_GRAM_LENGTH)) {
+
+            throw new IllegalArgumentException("Gram length must be between 1 "
+                    + "and " + NGramIndex.MAX_GRAM_LENGTH + "!");
+        }
+
+        this.keyFunction = keyFunction;
+        this.caseSensitive = caseSensitive;
+        this.gramLength = gramLength;
+
+        this.entries = new IdentityHashMap<>();
+        this.postings = new HashMap<>();
+        this.itemsById = new Object[16];
+        this.nextId = 0;
+
+        this.listChangeListener = (change) -> {
+
+            while (change.next()) {
+
+                if (change.wasPermutated()) {
+
+                    continue;
+                }
+                if (change.wasUpdated()) {
+
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+
+                        this.reindex(change.getList().get(i));
+                    }
+                }
+                else {
+
+                    for (final T item : change.getRemoved()) {
+
+                        this.remove(item);
+                    }
+                    for (final T item : change.getAddedSubList()) {
+
+                        this.add(item);
+                    }
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Observes the provided list, indexing all of its items and keeping the
+     * index up to date with subsequent changes of the list. Any previously
+     * observed list is no longer observed.
+     *
+     * @param list
+     *            the list to observe (can be {@code null}).
+     */
+    public void observe(final ObservableList<? extends T> list) {
+
+        this.observe(list, true);
+    }
+
+    /**
+     * Observes the provided list, keeping the index up to date with
+     * subsequent changes of the list. Any previously observed list is no
+     * longer observed.
+     *
+     * @param list
+     *            the list to observe (can be {@code null}).
+     * @param rebuild
+     *            whether or not to discard the index and index all items of
+     *            the list. If {@code false}, the index has to contain exactly
+     *            the items of the list already, e.g., because it
+     *            {@link #index(Collection) indexed} a snapshot of the
+     *            unmodified list.
+     */
+    public void observe(final ObservableList<? extends T> list,
+            final boolean rebuild) {
+
+        if (this.observedList != null) {
+
+            this.observedList.removeListener(this.listChangeListener);
+        }
+
+        this.observedList = list;
+
+        if (this.observedList != null) {
+
+            this.observedList.addListener(this.listChangeListener);
+        }
+
+        if (rebuild) {
+
+            this.rebuild();
+        }
+    }
+
+    /**
+     * Indexes the provided items in addition to the items indexed already.
+     * <p>
+     * An index that does not observe a list may call this method on any
+     * (single) thread.
+     * </p>
+     *
+     * @param items
+     *            the items to index.
+     */
+    public void index(final Collection<? extends T> items) {
+
+        for (final T item : items) {
+
+            this.add(item);
+        }
+    }
+
+    /**
+     * Discards the index and rebuilds it from the items of the observed list.
+     * This is required whenever the search keys of the items change without
+     * the observed list reporting an update, e.g., when the converter
+     * providing the search keys changes.
+     */
+    public void rebuild() {
+
+        this.entries.clear();
+        this.postings.clear();
+        this.itemsById = new Object[16];
+        this.nextId = 0;
+
+        if (this.observedList != null) {
+
+            this.index(this.observedList);
+        }
+    }
+
+    /**
+     * Returns the candidates for a substring search for the provided filter
+     * string, i.e., a superset of the indexed items whose search key contains
+     * the filter string.
+     * <p>
+     * If the index cannot narrow down the candidates (because the filter
+     * string is shorter than the n-grams, or a case insensitive search is
+     * requested from a case sensitive index), {@code null} is returned and
+     * all items need to be tested.
+     * </p>
+     *
+     * @param filterString
+     *            the filter string.
+     * @param caseSensitiveSearch
+     *            whether or not the search is case sensitive.
+     * @return the candidates (compared by identity), or {@code null} if the
+     *         index cannot narrow down the candidates.
+     */
+    public Set<T> candidates(final String filterString,
+            final boolean caseSensitiveSearch) {
+
+        if ((filterString == null)
+                || (filterString.length() < this.gramLength)
+                || (this.caseSensitive && !caseSensitiveSearch)) {
+
+            return null;
+        }
+
+        final long[] grams = this.grams(filterString);
+        final Postings[] lists = new Postings[grams.length];
+
+        for (int i = 0; i < grams.length; i++) {
+
+            lists[i] = this.postings.get(grams[i]);
+
+            if (lists[i] == null) {
+
+                return Collections.emptySet();
+            }
+        }
+
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size,
+                second.size));
+
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int resultSize = result.length;
+
+        for (int i = 1; (i < lists.length) && (resultSize > 0); i++) {
+
+            resultSize = NGramIndex.intersect(result, resultSize, lists[i]);
+        }
+
+        final Set<T> candidates = Collections.newSetFromMap(
+                new IdentityHashMap<>(resultSize));
+
+        for (int i = 0; i < resultSize; i++) {
+
+            @SuppressWarnings("unchecked")
+            final T item = (T) this.itemsById[result[i]];
+            candidates.add(item);
+        }
+
+        return candidates;
+    }
+
+
+    private void add(final T item) {
+
+        final Entry existing = this.entries.get(item);
+
+        if (existing != null) {
+
+            existing.count++;
+            return;
+        }
+
+        if (this.nextId == this.itemsById.length) {
+
+            if (this.nextId > (2 * this.entries.size())) {
+
+                this.compact();
+            }
+            else {
+
+                this.itemsById = Arrays.copyOf(this.itemsById,
+                        2 * this.itemsById.length);
+            }
+        }
+
+        final Entry entry = new Entry(this.nextId++, this.grams(this
+                .keyFunction.apply(item)));
+        this.entries.put(item, entry);
+        this.itemsById[entry.id] = item;
+
+        for (final long gram : entry.grams) {
+
+            this.postings.computeIfAbsent(gram, (key) -> new Postings())
+                         .add(entry.id);
+        }
+    }
+
+    private void remove(final T item) {
+
+        final Entry entry = this.entries.get(item);
+
+        if (entry == null) {
+
+            return;
+        }
+
+        entry.count--;
+
+        if (entry.count > 0) {
+
+            return;
+        }
+
+        this.entries.remove(item);
+        this.itemsById[entry.id] = null;
+        this.removePostings(entry);
+    }
+
+    private void reindex(final T item) {
+
+        final Entry entry = this.entries.get(item);
+
+        if (entry == null) {
+
+            return;
+        }
+
+        this.removePostings(entry);
+        entry.grams = this.grams(this.keyFunction.apply(item));
+
+        for (final long gram : entry.grams) {
+
+            this.postings.computeIfAbsent(gram, (key) -> new Postings())
+                         .add(entry.id);
+        }
+    }
+
+    /**
+     * Reassigns the ids of the indexed items, closing the gaps left by removed
+     * items. Ids keep their relative order, so postings stay sorted.
+     */
+    private void compact() {
+
+        final int[] newIds = new int[this.nextId];
+        final Object[] compacted = new Object[Math.max(16,
+                2 * this.entries.size())];
+        int id = 0;
+
+        for (int i = 0; i < this.nextId; i++) {
+
+            if (this.itemsById[i] != null) {
+
+                newIds[i] = id;
+                compacted[id] = this.itemsById[i];
+                this.entries.get(this.itemsById[i]).id = id;
+                id++;
+            }
+        }
+
+        for (final Postings posting : this.postings.values()) {
+
+            for (int i = 0; i < posting.size; i++) {
+
+                posting.ids[i] = newIds[posting.ids[i]];
+            }
+        }
+
+        this.itemsById = compacted;
+        this.nextId = id;
+    }
+
+    private void removePostings(final Entry entry) {
+
+        for (final long gram : entry.grams) {
+
+            final Postings posting = this.postings.get(gram);
+
+            if (posting != null) {
+
+                posting.remove(entry.id);
+
+                if (posting.size == 0) {
+
+                    this.postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the sorted, distinct n-grams of the provided string, each packed
+     * into a {@code long} with 16 bits per character.
+     */
+    private long[] grams(final String value) {
+
+        if ((value == null) || (value.length() < this.gramLength)) {
+
+            return NGramIndex.NO_GRAMS;
+        }
+
+        final long[] grams = new long[(value.length() - this.gramLength) + 1];
+
+        for (int i = 0; i < grams.length; i++) {
+
+            long gram = 0;
+
+            for (int j = 0; j < this.gramLength; j++) {
+
+                gram = (gram << 16) | this.fold(value.charAt(i + j));
+            }
+
+            grams[i] = gram;
+        }
+
+        Arrays.sort(grams);
+
+        int distinct = 0;
+
+        for (int i = 0; i < grams.length; i++) {
+
+            if ((i == 0) || (grams[i] != grams[distinct - 1])) {
+
+                grams[distinct++] = grams[i];
+            }
+        }
+
+        return (distinct == grams.length) ? grams : Arrays.copyOf(grams,
+                distinct);
+    }
+
+    private char fold(final char c) {
+
+        if (this.caseSensitive) {
+
+            return c;
+        }
+
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Intersects the first {@code size} ids of {@code result} with the
+     * provided postings in place, returning the size of the intersection.
+     */
+    private static int intersect(final int[] result, final int size,
+            final Postings postings) {
+
+        int resultSize = 0;
+        int j = 0;
+
+        for (int i = 0; (i < size) && (j < postings.size); i++) {
+
+            while ((j < postings.size) && (postings.ids[j] < result[i])) {
+
+                j++;
+            }
+
+            if ((j < postings.size) && (postings.ids[j] == result[i])) {
+
+                result[resultSize++] = result[i];
+            }
+        }
+
+        return resultSize;
+    }
+
+
+    /**
+     * An indexed item: its id, the number of occurrences in the observed list,
+     * and its n-grams.
+     */
+    private static final class Entry {
+
+        private int    id;
+        private int    count;
+        private long[] grams;
+
+
+        private Entry(final int id, final long[] grams) {
+
+            this.id = id;
+            this.count = 1;
+            this.grams = grams;
+        }
+    }
+
+    /**
+     * A sorted list of item ids.
+     */
+    private static final class Postings {
+
+        private int[] ids;
+        private int   size;
+
+
+        private Postings() {
+
+            this.ids = new int[4];
+            this.size = 0;
+        }
+
+        private void add(final int id) {
+
+            int index = this.size;
+
+            if ((this.size > 0) && (this.ids[this.size - 1] >= id)) {
+
+                index = Arrays.binarySearch(this.ids, 0, this.size, id);
+
+                if (index >= 0) {
+
+                    return;
+                }
+                index = -(index + 1);
+            }
+
+            if (this.size == this.ids.length) {
+
+                this.ids = Arrays.copyOf(this.ids, 2 * this.ids.length);
+            }
+
+            System.arraycopy(this.ids, index, this.ids, index + 1, this.size
+                    - index);
+            this.ids[index] = id;
+            this.size++;
+        }
+
+        private void remove(final int id) {
+
+            final int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+
+            if (index >= 0) {
+
+                System.arraycopy(this.ids, index + 1, this.ids, index,
+                        this.size - index - 1);
+                this.size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package org.jutility.javafx.filter;
+
+
+
+// @formatter:off
+/*
+ * #%L
+ * jutility-javafx
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+// @formatter:on
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+
+/**
+ * The {@code SearchKeyCache} class memoizes the search key (the string value
+ * compared to the filter string) of the objects tested by a
+ * {@link StringFilter}.
+ * <p>
+ * Objects are compared by identity and only weakly referenced, so the cache
+ * does not keep filtered objects alive. Cached keys are discarded when the
+ * {@link StringFilter#converterProperty() converter} of the filter changes and,
+ * if the cache {@link #observe(ObservableList) observes} a list, when that list
+ * reports an object as updated, replaced, or removed.
+ * </p>
+ * <p>
+ * The cache can be used concurrently by multiple threads; lookups do not
+ * lock. A search key computed while the cache was invalidated or cleared is
+ * never retained.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the objects to be filtered.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class SearchKeyCache<T> {
+
+    private final Map<Key, String>         keys;
+    private final ReferenceQueue<Object>   queue;
+    private final ThreadLocal<LookupKey>   lookupKey;
+    private final AtomicLong               generation;
+    private final LongAdder                hitCount;
+    private final LongAdder                missCount;
+    private final ListChangeListener<T>    listChangeListener;
+
+    private ObservableList<? extends T>    observedList;
+
+
+    /**
+     * Returns the number of lookups that were answered from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that required the computation of a search
+     * key.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+
+        return this.missCount.sum();
+    }
+
+    /**
+     * Returns the number of cached search keys.
+     *
+     * @return the number of cached search keys.
+     */
+    public int size() {
+
+        this.expungeStaleEntries();
+        return this.keys.size();
+    }
+
+
+    /**
+     * Creates a new instance of the {@link SearchKeyCache} class.
+     */
+    public SearchKeyCache() {
+
+        this.keys = new ConcurrentHashMap<>();
+        this.queue = new ReferenceQueue<>();
+        this.lookupKey = ThreadLocal.withInitial(LookupKey::new);
+        this.generation = new AtomicLong();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+
+        this.listChangeListener = (change) -> {
+
+            while (change.next()) {
+
+                if (change.wasUpdated()) {
+
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+
+                        this.invalidate(change.getList().get(i));
+                    }
+                }
+                if (change.wasRemoved()) {
+
+                    for (final T item : change.getRemoved()) {
+
+                        this.invalidate(item);
+                    }
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Returns the cached search key of the provided object, computing and
+     * caching it with the provided function if necessary.
+     * <p>
+     * {@code null} objects are never cached.
+     * </p>
+     *
+     * @param item
+     *            the object.
+     * @param keyFunction
+     *            the function computing the search key of the object.
+     * @return the search key of the object.
+     */
+    public String get(final T item,
+            final Function<? super T, String> keyFunction) {
+
+        if (item == null) {
+
+            return keyFunction.apply(null);
+        }
+
+        this.expungeStaleEntries();
+
+        final LookupKey lookup = this.lookupKey.get();
+        final String cachedKey = this.keys.get(lookup.set(item));
+        lookup.set(null);
+
+        if (cachedKey != null) {
+
+            this.hitCount.increment();
+            return cachedKey;
+        }
+        this.missCount.increment();
+
+        final long startGeneration = this.generation.get();
+        final String key = keyFunction.apply(item);
+
+        if (key != null) {
+
+            final WeakKey weakKey = new WeakKey(item, this.queue);
+
+            this.keys.put(weakKey, key);
+
+            // invalidations bump the generation before removing keys: either
+            // the invalidation removed the key after it was stored, or the
+            // changed generation is visible here.
+            if (this.generation.get() != startGeneration) {
+
+                this.keys.remove(weakKey, key);
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Discards the cached search key of the provided object.
+     *
+     * @param item
+     *            the object.
+     */
+    public void invalidate(final T item) {
+
+        if (item != null) {
+
+            this.generation.incrementAndGet();
+
+            final LookupKey lookup = this.lookupKey.get();
+            this.keys.remove(lookup.set(item));
+            lookup.set(null);
+        }
+    }
+
+    /**
+     * Discards all cached search keys.
+     */
+    public void clear() {
+
+        this.generation.incrementAndGet();
+        this.keys.clear();
+        while (this.queue.poll() != null) {
+
+            // drain the queue, all entries are gone anyway.
+        }
+    }
+
+    /**
+     * Resets the hit and miss counters.
+     */
+    public void resetStatistics() {
+
+        this.hitCount.reset();
+        this.missCount.reset();
+    }
+
+    /**
+     * Observes the provided list, discarding the search keys of objects the
+     * list reports as updated, replaced, or removed. Any previously observed
+     * list is no longer observed.
+     *
+     * @param list
+     *            the list to observe (can be {@code null}).
+     */
+    public void observe(final ObservableList<? extends T> list) {
+
+        if (this.observedList != null) {
+
+            this.observedList.removeListener(this.listChangeListener);
+        }
+
+        this.observedList = list;
+
+        if (this.observedList != null) {
+
+            this.observedList.addListener(this.listChangeListener);
+        }
+    }
+
+
+    private void expungeStaleEntries() {
+
+        Reference<?> reference = this.queue.poll();
+
+        while (reference != null) {
+
+            this.keys.remove(reference);
+            reference = this.queue.poll();
+        }
+    }
+
+
+    /**
+     * Common identity based equality of weak and lookup keys.
+     */
+    private interface Key {
+
+        Object referent();
+    }
+
+    private static final class WeakKey
+            extends WeakReference<Object>
+            implements Key {
+
+        private final int hash;
+
+        private WeakKey(final Object referent,
+                final ReferenceQueue<Object> queue) {
+
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public Object referent() {
+
+            return this.get();
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+
+            if (this == obj) {
+
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+
+                return false;
+            }
+
+            final Object referent = this.get();
+            return (referent != null) && (referent == ((Key) obj).referent());
+        }
+    }
+
+    /**
+     * Reusable (per thread) key for lookups, so that cache hits do not
+     * allocate.
+     */
+    private static final class LookupKey
+            implements Key {
+
+        private Object referent;
+
+        private LookupKey set(final Object value) {
+
+            this.referent = value;
+            return this;
+        }
+
+        @Override
+        public Object referent() {
+
+            return this.referent;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return System.identityHashCode(this.referent);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+
+            return (obj instanceof Key)
+                    && (this.referent == ((Key) obj).referent());
+        }
+    }
+}
@@ -25,19 +25,30 @@ package org.jutility.javafx.filter;
 // @formatter:on
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableMap;
 import javafx.util.StringConverter;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 
 /**
  * The {@code StringFilter} class provides a configurable filter
@@ -47,7 +58,29 @@ import org.slf4j.LoggerFactory;
  * The comparison of objects can be case sensitive (by default) or ignore case.
  * </p>
  * <p>
- * Furthermore, the filter string can be treated as a regular expression.
+ * Furthermore, the filter string can be treated as a regular expression, or
+ * matched {@link #fuzzyProperty() fuzzily}, in which case matching objects are
+ * {@link #score(Object) scored} and the best matches can be
+ * {@link #topMatches(Iterable, int) ranked}.
+ * </p>
+ * <p>
+ * Alternatively, the filter string can be treated as a {@link FilterQuery
+ * query} combining multiple, optionally field-scoped terms.
+ * </p>
+ * <p>
+ * The filter string, case sensitivity, and regular expression settings are
+ * compiled into a matcher whenever one of them changes, so that
+ * {@link #test(Object)} does not need to re-read the settings, re-compile the
+ * regular expression, or case-fold the filter string for every object.
+ * </p>
+ * <p>
+ * The properties of a {@code StringFilter} must be modified on a single thread
+ * (usually the JavaFX Application Thread), but {@link #test(Object)} only reads
+ * snapshots of them and can safely be called from background threads.
+ * </p>
+ * <p>
+ * {@link #test(Object)} does not log; its activity is reported through the
+ * {@link #getStatistics() statistics} of the filter instead.
  * </p>
  *
  * @param <T>
@@ -60,8 +93,22 @@ import org.slf4j.LoggerFactory;
 public class StringFilter<T>
         implements Predicate<T> {
 
-    private static final Logger                      LOG = LoggerFactory
-                                                                 .getLogger(StringFilter.class);
+    /**
+     * The default minimum number of items for which
+     * {@link #filterIndices(List) bulk filtering} is performed in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * The default maximum number of items tested sequentially by a single
+     * task during parallel {@link #filterIndices(List) bulk filtering}.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD    = 2048;
+
+    /**
+     * The {@link #score(Object) score} of objects not matching the filter.
+     */
+    public static final int NO_MATCH                   = Integer.MIN_VALUE;
 
     private final ObjectProperty<StringConverter<T>> converterProperty;
 
@@ -71,6 +118,24 @@ public class StringFilter<T>
 
     private final BooleanProperty                    regexProperty;
 
+    private final BooleanProperty                    fuzzyProperty;
+
+    private final BooleanProperty                    queryProperty;
+
+    private final ObservableMap<String, StringConverter<T>> fieldConverters;
+
+    private final ObjectProperty<SearchKeyCache<T>>  searchKeyCacheProperty;
+
+    private volatile CompiledFilter                  compiledFilter;
+    private volatile FilterQuery<T>                  compiledQuery;
+    private volatile StringConverter<T>              converter;
+    private volatile SearchKeyCache<T>               searchKeyCache;
+
+    private final FilterStatistics                   statistics;
+
+    private volatile int                             parallelThreshold;
+    private volatile int                             splitThreshold;
+
     /**
      * Returns the converter property.
      * <p>
@@ -231,6 +296,222 @@ public class StringFilter<T>
         this.regexProperty.set(value);
     }
 
+    /**
+     * Returns the fuzzy property. The value of this property determines
+     * whether or not the {@link #filterStringProperty() filter string} is
+     * matched fuzzily, i.e., an object matches if its string value contains
+     * all characters of the filter string in order, but not necessarily
+     * adjacent to each other.
+     * <p>
+     * Fuzzy matches are {@link #score(Object) scored}, preferring consecutive
+     * characters, characters at the start of words, and matches close to the
+     * start of short string values.
+     * </p>
+     * <p>
+     * Note that the value of this property is ignored if the filter string is
+     * to be treated as a regular expression!
+     * </p>
+     *
+     * @see #isFuzzy()
+     * @see #setFuzzy(boolean)
+     *
+     * @return the fuzzy property.
+     */
+    public BooleanProperty fuzzyProperty() {
+
+        return this.fuzzyProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #fuzzyProperty()}.
+     *
+     * @return the value of the {@link #fuzzyProperty()}.
+     */
+    public boolean isFuzzy() {
+
+        return this.fuzzyProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #fuzzyProperty()}.
+     *
+     * @param value
+     *            the value of the {@link #fuzzyProperty()}.
+     */
+    public void setFuzzy(final boolean value) {
+
+        this.fuzzyProperty.set(value);
+    }
+
+    /**
+     * Returns the query property. The value of this property determines
+     * whether or not the {@link #filterStringProperty() filter string} is
+     * treated as a {@link FilterQuery query}, e.g.,
+     * {@code name:foo status:open -archived}.
+     * <p>
+     * Unscoped terms of the query are compared to the string value provided by
+     * the {@link #converterProperty() converter}; field-scoped terms are
+     * compared to the string value provided by the corresponding
+     * {@link #getFieldConverters() field converter}. The comparison respects
+     * the {@link #caseSensitiveProperty()}.
+     * </p>
+     * <p>
+     * Note that the values of the {@link #regexFilterStringProperty()} and the
+     * {@link #fuzzyProperty()} are ignored if the filter string is to be
+     * treated as a query!
+     * </p>
+     *
+     * @see #isQuery()
+     * @see #setQuery(boolean)
+     *
+     * @return the query property.
+     */
+    public BooleanProperty queryProperty() {
+
+        return this.queryProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #queryProperty()}.
+     *
+     * @return the value of the {@link #queryProperty()}.
+     */
+    public boolean isQuery() {
+
+        return this.queryProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #queryProperty()}.
+     *
+     * @param value
+     *            the value of the {@link #queryProperty()}.
+     */
+    public void setQuery(final boolean value) {
+
+        this.queryProperty.set(value);
+    }
+
+    /**
+     * Returns the field converters, by field name. The string values provided
+     * by a field converter are compared to the terms scoped to its field
+     * (e.g., {@code name:foo}) if the filter string is treated as a
+     * {@link #queryProperty() query}.
+     *
+     * @return the field converters.
+     */
+    public ObservableMap<String, StringConverter<T>> getFieldConverters() {
+
+        return this.fieldConverters;
+    }
+
+    /**
+     * Returns the search key cache property.
+     * <p>
+     * If a {@link SearchKeyCache} is provided, the string values of tested
+     * objects are memoized, so that repeated filtering of the same objects
+     * only converts each object once. The cache is cleared whenever the
+     * {@link #converterProperty() converter} changes. By default, no cache is
+     * used.
+     * </p>
+     *
+     * @see #getSearchKeyCache()
+     * @see #setSearchKeyCache(SearchKeyCache)
+     *
+     * @return the search key cache property.
+     */
+    public ObjectProperty<SearchKeyCache<T>> searchKeyCacheProperty() {
+
+        return this.searchKeyCacheProperty;
+    }
+
+    /**
+     * Returns the value of the {@link #searchKeyCacheProperty()}.
+     *
+     * @return the value of the {@link #searchKeyCacheProperty()}.
+     */
+    public SearchKeyCache<T> getSearchKeyCache() {
+
+        return this.searchKeyCacheProperty.get();
+    }
+
+    /**
+     * Sets the value of the {@link #searchKeyCacheProperty()}.
+     *
+     * @param value
+     *            the value of the {@link #searchKeyCacheProperty()}.
+     */
+    public void setSearchKeyCache(final SearchKeyCache<T> value) {
+
+        this.searchKeyCacheProperty.set(value);
+    }
+
+    /**
+     * Returns the statistics of this filter, i.e., the number of tested and
+     * matching items and the number and duration of filter passes (calls to
+     * {@link #filterIndices(List)} and {@link #topMatches(Iterable, int)}, or
+     * passes {@link FilterStatistics#recordPass(long) recorded} by controls
+     * using this filter).
+     *
+     * @return the statistics of this filter.
+     */
+    public FilterStatistics getStatistics() {
+
+        return this.statistics;
+    }
+
+    /**
+     * Returns the minimum number of items for which
+     * {@link #filterIndices(List) bulk filtering} is performed in parallel.
+     *
+     * @return the parallel threshold.
+     */
+    public int getParallelThreshold() {
+
+        return this.parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum number of items for which {@link #filterIndices(List)
+     * bulk filtering} is performed in parallel.
+     *
+     * @param value
+     *            the parallel threshold.
+     */
+    public void setParallelThreshold(final int value) {
+
+        this.parallelThreshold = value;
+    }
+
+    /**
+     * Returns the maximum number of items tested sequentially by a single
+     * task during parallel {@link #filterIndices(List) bulk filtering}.
+     *
+     * @return the split threshold.
+     */
+    public int getSplitThreshold() {
+
+        return this.splitThreshold;
+    }
+
+    /**
+     * Sets the maximum number of items tested sequentially by a single task
+     * during parallel {@link #filterIndices(List) bulk filtering}.
+     *
+     * @param value
+     *            the split threshold (must be positive).
+     */
+    public void setSplitThreshold(final int value) {
+
+        if (value <= 0) {
+
+            throw new IllegalArgumentException(
+                    "Split threshold must be positive!");
+        }
+
+        this.splitThreshold = value;
+    }
+
     /**
      * Creates a new instance of the {@link StringFilter} class.
      */
@@ -240,71 +521,521 @@ public class StringFilter<T>
         this.filterStringProperty = new SimpleStringProperty();
         this.caseSensitiveProperty = new SimpleBooleanProperty(true);
         this.regexProperty = new SimpleBooleanProperty(false);
+        this.fuzzyProperty = new SimpleBooleanProperty(false);
+        this.queryProperty = new SimpleBooleanProperty(false);
+        this.fieldConverters = FXCollections.observableHashMap();
+        this.searchKeyCacheProperty = new SimpleObjectProperty<>();
+        this.statistics = new FilterStatistics();
+        this.parallelThreshold = StringFilter.DEFAULT_PARALLEL_THRESHOLD;
+        this.splitThreshold = StringFilter.DEFAULT_SPLIT_THRESHOLD;
+
+        this.searchKeyCacheProperty.addListener((observable, oldValue,
+                newValue) -> this.searchKeyCache = newValue);
+
+        this.converterProperty.addListener((observable, oldValue,
+                newValue) -> {
+
+            this.converter = newValue;
+
+            final SearchKeyCache<T> cache = this.searchKeyCache;
+
+            if (cache != null) {
+
+                cache.clear();
+            }
+        });
+
+        this.compiledFilter = this.compile();
+        this.compiledQuery = this.compileQuery();
+
+        final InvalidationListener recompile = (observable) -> {
+
+            this.compiledFilter = this.compile();
+            this.compiledQuery = this.compileQuery();
+        };
+
+        this.filterStringProperty.addListener(recompile);
+        this.caseSensitiveProperty.addListener(recompile);
+        this.regexProperty.addListener(recompile);
+        this.fuzzyProperty.addListener(recompile);
+        this.queryProperty.addListener(recompile);
+        this.fieldConverters.addListener(recompile);
     }
 
     @Override
     public boolean test(final T value) {
 
-        StringFilter.LOG.debug("Testing " + value);
+        final boolean matches = this.matches(value);
+
+        this.statistics.recordTest(matches);
+        return matches;
+    }
+
+    private boolean matches(final T value) {
+
+        final FilterQuery<T> query = this.compiledQuery;
 
+        if (query != null) {
 
-        if ((this.getFilterString() == null)
-                || this.getFilterString().isEmpty()) {
+            return query.test(value);
+        }
+
+        final CompiledFilter filter = this.compiledFilter;
+
+        if (filter.matchesAll()) {
 
-            StringFilter.LOG.debug("Filter string empty -> true");
             return true;
         }
 
-        String stringValue;
+        final String stringValue = this.getSearchKey(value);
 
-        if (this.getConverter() == null) {
+        if ((stringValue == null) || stringValue.isEmpty()) {
 
-            if (value == null) {
+            return false;
+        }
 
-                stringValue = "";
-            }
-            else {
+        return filter.matches(stringValue);
+    }
+
+    /**
+     * Scores the provided object against this filter. Higher scores indicate
+     * better matches; objects not matching the filter are scored
+     * {@link #NO_MATCH}.
+     * <p>
+     * Only {@link #fuzzyProperty() fuzzy} matches are ranked; all other
+     * matching objects (including all objects matching a
+     * {@link #queryProperty() query}) are scored {@code 0}.
+     * </p>
+     *
+     * @param value
+     *            the object to score.
+     * @return the score of the object.
+     */
+    public int score(final T value) {
 
-                stringValue = value.toString();
+        if (this.compiledQuery != null) {
+
+            return this.matches(value) ? 0 : StringFilter.NO_MATCH;
+        }
+
+        final CompiledFilter filter = this.compiledFilter;
+
+        if (filter.matchesAll()) {
+
+            return 0;
+        }
+
+        final String stringValue = this.getSearchKey(value);
+
+        if ((stringValue == null) || stringValue.isEmpty()) {
+
+            return StringFilter.NO_MATCH;
+        }
+
+        return filter.score(stringValue);
+    }
+
+    /**
+     * Returns the (at most) {@code limit} best {@link #score(Object) scored}
+     * matches among the provided items, best match first. Matches with equal
+     * scores retain the order of the provided items.
+     * <p>
+     * The best matches are selected with a bounded heap, so only
+     * {@code limit} matches are ever retained and sorted.
+     * </p>
+     *
+     * @param items
+     *            the items to rank.
+     * @param limit
+     *            the maximum number of matches to return.
+     * @return the best matches.
+     */
+    public List<T> topMatches(final Iterable<? extends T> items,
+            final int limit) {
+
+        if (limit <= 0) {
+
+            return new ArrayList<>();
+        }
+
+        final long start = System.nanoTime();
+
+        final Object[] heapItems = new Object[limit];
+        final int[] heapScores = new int[limit];
+        final int[] heapOrder = new int[limit];
+        int size = 0;
+        int order = 0;
+
+        for (final T item : items) {
+
+            final int score = this.score(item);
+
+            this.statistics.recordTest(score != StringFilter.NO_MATCH);
+
+            if (score != StringFilter.NO_MATCH) {
+
+                if (size < limit) {
+
+                    heapItems[size] = item;
+                    heapScores[size] = score;
+                    heapOrder[size] = order;
+                    StringFilter.siftUp(heapItems, heapScores, heapOrder,
+                            size);
+                    size++;
+                }
+                else if (StringFilter.isBetter(score, order, heapScores[0],
+                        heapOrder[0])) {
+
+                    heapItems[0] = item;
+                    heapScores[0] = score;
+                    heapOrder[0] = order;
+                    StringFilter.siftDown(heapItems, heapScores, heapOrder,
+                            size);
+                }
             }
+            order++;
+        }
+
+        final Object[] ranked = new Object[size];
+
+        for (int i = size - 1; i >= 0; i--) {
+
+            ranked[i] = heapItems[0];
+            StringFilter.swap(heapItems, heapScores, heapOrder, 0, i);
+            StringFilter.siftDown(heapItems, heapScores, heapOrder, i);
+        }
+
+        final List<T> result = new ArrayList<>(size);
+
+        for (final Object item : ranked) {
+
+            @SuppressWarnings("unchecked")
+            final T typedItem = (T) item;
+            result.add(typedItem);
+        }
+
+        this.statistics.recordPass(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Tests all provided items against this filter, returning the indices of
+     * the matching items.
+     *
+     * @param items
+     *            the items to test.
+     * @return the indices of the matching items.
+     *
+     * @see #filterIndices(List, BooleanSupplier)
+     */
+    public BitSet filterIndices(final T[] items) {
+
+        return this.filterIndices(Arrays.asList(items));
+    }
+
+    /**
+     * Tests all provided items against this filter, returning the indices of
+     * the matching items.
+     *
+     * @param items
+     *            the items to test.
+     * @return the indices of the matching items.
+     *
+     * @see #filterIndices(List, BooleanSupplier)
+     */
+    public BitSet filterIndices(final List<? extends T> items) {
+
+        return this.filterIndices(items, () -> false);
+    }
+
+    /**
+     * Tests all provided items against this filter, returning the indices of
+     * the matching items.
+     * <p>
+     * If the number of items reaches the {@link #getParallelThreshold()
+     * parallel threshold}, the items are split into chunks of at most
+     * {@link #getSplitThreshold() split threshold} items, which are tested in
+     * parallel on the common {@link ForkJoinPool}. Otherwise, the items are
+     * tested sequentially on the calling thread. Lists that do not provide
+     * {@link RandomAccess random access} are copied first.
+     * </p>
+     * <p>
+     * The provided cancellation is checked between items; once it returns
+     * {@code true}, no further items are tested and the returned indices are
+     * incomplete.
+     * </p>
+     *
+     * @param items
+     *            the items to test.
+     * @param cancellation
+     *            returns {@code true}, if filtering should be cancelled.
+     * @return the indices of the matching items.
+     */
+    public BitSet filterIndices(final List<? extends T> items,
+            final BooleanSupplier cancellation) {
+
+        final long start = System.nanoTime();
+        final List<? extends T> list = (items instanceof RandomAccess) ? items
+                : new ArrayList<>(items);
+
+        final long[] words = new long[(list.size() + 63) >>> 6];
+        final IndexFilterTask task = new IndexFilterTask(list, words,
+                cancellation, 0, list.size());
+
+        if (list.size() >= this.parallelThreshold) {
+
+            ForkJoinPool.commonPool()
+                        .invoke(task);
         }
         else {
 
-            try {
+            task.filter();
+        }
 
-                stringValue = this.getConverter().toString(value);
+        this.statistics.recordPass(System.nanoTime() - start);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Returns the search key of the provided object, i.e., the string value
+     * that is compared to the filter string. The search key is provided by the
+     * {@link #converterProperty() converter} (or the {@link #toString()} method)
+     * and memoized by the {@link #searchKeyCacheProperty() search key cache},
+     * if any.
+     *
+     * @param value
+     *            the object.
+     * @return the search key of the object.
+     */
+    public String getSearchKey(final T value) {
+
+        final SearchKeyCache<T> cache = this.searchKeyCache;
+
+        if (cache != null) {
+
+            return cache.get(value, this::convert);
+        }
+
+        return this.convert(value);
+    }
+
+    /**
+     * Folds the case of the provided string like the case-insensitive
+     * matching of a filter does: character by character, so that, unlike
+     * {@link String#toLowerCase()}, neither the length of the string nor the
+     * result depend on the default locale. A filter string matches a value
+     * case-insensitively if the folded filter string is contained in the
+     * folded value.
+     *
+     * @param value
+     *            the string.
+     * @return the case-folded string.
+     */
+    public static String foldCase(final String value) {
+
+        return CompiledFilter.foldCase(value);
+    }
+
+    private String convert(final T value) {
+
+        final StringConverter<T> converter = this.converter;
+
+        if (converter == null) {
+
+            if (value == null) {
+
+                return "";
             }
-            catch (final Exception e) {
 
-                stringValue = "";
+            return value.toString();
+        }
+
+        try {
+
+            return converter.toString(value);
+        }
+        catch (final Exception e) {
+
+            return "";
+        }
+    }
+
+    private CompiledFilter compile() {
+
+        return new CompiledFilter(this.getFilterString(),
+                this.isCaseSensitive(), this.isRegexFilterString(),
+                this.isFuzzy());
+    }
+
+    private FilterQuery<T> compileQuery() {
+
+        if (!this.isQuery()) {
+
+            return null;
+        }
+
+        final Map<String, Function<? super T, String>> fields = new HashMap<>();
+
+        this.fieldConverters.forEach((field, converter) -> {
+
+            if (converter != null) {
+
+                fields.put(field, (value) -> {
+
+                    final String key = converter.toString(value);
+
+                    return (key == null) ? "" : key;
+                });
             }
+        });
+
+        return FilterQuery.compile(this.getFilterString(), this::getSearchKey,
+                fields, this.isCaseSensitive());
+    }
+
+
+    private static boolean isBetter(final int score, final int order,
+            final int otherScore, final int otherOrder) {
+
+        return (score > otherScore)
+                || ((score == otherScore) && (order < otherOrder));
+    }
+
+    /**
+     * Restores the heap property (the worst match at the root) after adding
+     * an element at the provided index.
+     */
+    private static void siftUp(final Object[] items, final int[] scores,
+            final int[] orders, final int index) {
+
+        int child = index;
+
+        while (child > 0) {
+
+            final int parent = (child - 1) >>> 1;
+
+            if (!StringFilter.isBetter(scores[parent], orders[parent],
+                    scores[child], orders[child])) {
+
+                return;
+            }
+
+            StringFilter.swap(items, scores, orders, parent, child);
+            child = parent;
         }
+    }
 
-        if ((stringValue == null) || stringValue.isEmpty()) {
+    /**
+     * Restores the heap property (the worst match at the root) of the first
+     * {@code size} elements after replacing the root.
+     */
+    private static void siftDown(final Object[] items, final int[] scores,
+            final int[] orders, final int size) {
 
-            StringFilter.LOG.debug("string value is empty -> false");
-            return false;
+        int parent = 0;
+
+        while (true) {
+
+            final int left = (2 * parent) + 1;
+            final int right = left + 1;
+            int worst = parent;
+
+            if ((left < size)
+                    && StringFilter.isBetter(scores[worst], orders[worst],
+                            scores[left], orders[left])) {
+
+                worst = left;
+            }
+            if ((right < size)
+                    && StringFilter.isBetter(scores[worst], orders[worst],
+                            scores[right], orders[right])) {
+
+                worst = right;
+            }
+            if (worst == parent) {
+
+                return;
+            }
+
+            StringFilter.swap(items, scores, orders, parent, worst);
+            parent = worst;
         }
+    }
+
+    private static void swap(final Object[] items, final int[] scores,
+            final int[] orders, final int first, final int second) {
 
-        String filterString = this.getFilterString();
+        final Object item = items[first];
+        items[first] = items[second];
+        items[second] = item;
 
-        if (this.isRegexFilterString()) {
+        final int score = scores[first];
+        scores[first] = scores[second];
+        scores[second] = score;
 
-            StringFilter.LOG.debug("String value matches regex: "
-                    + stringValue.matches(filterString));
-            return stringValue.matches(filterString);
+        final int order = orders[first];
+        orders[first] = orders[second];
+        orders[second] = order;
+    }
+
+
+    /**
+     * The {@code IndexFilterTask} class tests a range of items, recording
+     * matches in a shared bit array. Ranges are split at multiples of 64, so
+     * that concurrent tasks never write to the same word.
+     */
+    private final class IndexFilterTask
+            extends RecursiveAction {
+
+        private static final long       serialVersionUID = 1L;
+
+        private final List<? extends T> items;
+        private final long[]            words;
+        private final BooleanSupplier   cancellation;
+        private final int               from;
+        private final int               to;
+
+
+        private IndexFilterTask(final List<? extends T> items,
+                final long[] words, final BooleanSupplier cancellation,
+                final int from, final int to) {
+
+            this.items = items;
+            this.words = words;
+            this.cancellation = cancellation;
+            this.from = from;
+            this.to = to;
         }
-        else {
 
-            if (!this.isCaseSensitive()) {
+        @Override
+        protected void compute() {
+
+            final int split = Math.max(64, StringFilter.this.splitThreshold);
+
+            if ((this.to - this.from) <= split) {
 
-                filterString = filterString.toLowerCase();
-                stringValue = stringValue.toLowerCase();
+                this.filter();
+                return;
             }
 
-            StringFilter.LOG.debug("String value contains filterString: "
-                    + stringValue.contains(filterString));
-            return stringValue.contains(filterString);
+            final int middle = (((this.from + this.to) >>> 1) + 63) & ~63;
+
+            RecursiveAction.invokeAll(new IndexFilterTask(this.items,
+                    this.words, this.cancellation, this.from, middle),
+                    new IndexFilterTask(this.items, this.words,
+                            this.cancellation, middle, this.to));
+        }
+
+        private void filter() {
+
+            for (int i = this.from; (i < this.to)
+                    && !this.cancellation.getAsBoolean(); i++) {
+
+                if (StringFilter.this.test(this.items.get(i))) {
+
+                    this.words[i >>> 6] |= 1L << i;
+                }
+            }
         }
     }
 }
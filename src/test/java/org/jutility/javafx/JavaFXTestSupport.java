@@ -0,0 +1,197 @@
+package org.jutility.javafx;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+
+/**
+ * The {@code JavaFXTestSupport} class starts the JavaFX toolkit (once per test
+ * run) and executes test code on the JavaFX Application Thread.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public final class JavaFXTestSupport {
+
+    private static final long           TIMEOUT_SECONDS = 30;
+    private static final CountDownLatch STARTED         = new CountDownLatch(1);
+
+    private static boolean              launched        = false;
+
+
+    private JavaFXTestSupport() {
+
+        // no instances.
+    }
+
+
+    /**
+     * Starts the JavaFX toolkit, if it is not started yet.
+     */
+    public static synchronized void startToolkit() {
+
+        if (!JavaFXTestSupport.launched) {
+
+            JavaFXTestSupport.launched = true;
+
+            final Thread launcher = new Thread(() -> Application
+                    .launch(ToolkitApplication.class),
+                    "JavaFX Test Launcher");
+            launcher.setDaemon(true);
+            launcher.start();
+        }
+
+        try {
+
+            if (!JavaFXTestSupport.STARTED.await(
+                    JavaFXTestSupport.TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+
+                throw new IllegalStateException(
+                        "The JavaFX toolkit did not start.");
+            }
+        }
+        catch (final InterruptedException e) {
+
+            Thread.currentThread()
+                  .interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Executes the provided callable on the JavaFX Application Thread and
+     * waits for its result.
+     *
+     * @param <V>
+     *            the type of the result.
+     * @param callable
+     *            the callable.
+     * @return the result of the callable.
+     * @throws Exception
+     *             if the callable throws an exception.
+     */
+    public static <V> V call(final Callable<V> callable)
+            throws Exception {
+
+        JavaFXTestSupport.startToolkit();
+
+        if (Platform.isFxApplicationThread()) {
+
+            return callable.call();
+        }
+
+        final FutureTask<V> task = new FutureTask<>(callable);
+
+        Platform.runLater(task);
+
+        try {
+
+            return task.get(JavaFXTestSupport.TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS);
+        }
+        catch (final ExecutionException e) {
+
+            if (e.getCause() instanceof Exception) {
+
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the provided runnable on the JavaFX Application Thread and
+     * waits for its completion.
+     *
+     * @param runnable
+     *            the runnable.
+     * @throws Exception
+     *             if the runnable throws an exception.
+     */
+    public static void run(final Runnable runnable)
+            throws Exception {
+
+        JavaFXTestSupport.call(() -> {
+
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits until the provided condition, evaluated on the JavaFX Application
+     * Thread, holds.
+     *
+     * @param condition
+     *            the condition.
+     * @throws Exception
+     *             if the condition does not hold within the timeout.
+     */
+    public static void waitFor(final BooleanSupplier condition)
+            throws Exception {
+
+        final long deadline = System.nanoTime()
+                + TimeUnit.SECONDS.toNanos(JavaFXTestSupport.TIMEOUT_SECONDS);
+
+        while (!JavaFXTestSupport.call(condition::getAsBoolean)) {
+
+            if (System.nanoTime() > deadline) {
+
+                throw new AssertionError("Condition not met in time.");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+
+    /**
+     * Application whose sole purpose is starting the toolkit.
+     */
+    public static final class ToolkitApplication
+            extends Application {
+
+        @Override
+        public void start(final Stage primaryStage) {
+
+            Platform.setImplicitExit(false);
+            JavaFXTestSupport.STARTED.countDown();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.jutility.javafx.collections;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jutility.javafx.JavaFXTestSupport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link CellUpdateBuffer} class. The updates are submitted and
+ * flushed on the JavaFX Application Thread, so that the timer of the buffer
+ * finds no pending updates.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class CellUpdateBufferTest {
+
+    // generous bound for allocations of the measurement itself.
+    private static final long MAX_ALLOCATIONS = 16 * 1024;
+
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    /**
+     * Updates of the same cell are coalesced, and the last value wins.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testCoalescing()
+            throws Exception {
+
+        final Map<Long, String> cells = new HashMap<>();
+        final AtomicInteger flushes = new AtomicInteger();
+        final CellUpdateBuffer<String> buffer = new CellUpdateBuffer<>((row,
+                column, value) -> cells.put(((long) row << 32) | column,
+                        value), flushes::incrementAndGet);
+
+        JavaFXTestSupport.run(() -> {
+
+            for (int row = 0; row < 10000; row++) {
+
+                buffer.update(row, row % 7, "a" + row);
+                buffer.update(row, row % 7, "b" + row);
+            }
+            buffer.update(3, 0, null);
+            buffer.flush();
+        });
+
+        assertEquals(10001, cells.size());
+        assertEquals("b9999", cells.get((9999L << 32) | (9999 % 7)));
+        assertNull(cells.get(3L << 32));
+        assertTrue(cells.containsKey(3L << 32));
+        assertEquals(1, flushes.get());
+        assertEquals(20001, buffer.getUpdatesReceived());
+        assertEquals(10001, buffer.getUpdatesApplied());
+        assertEquals(0, buffer.getPendingUpdates());
+    }
+
+    /**
+     * Updates flushed without a writer, or cleared, are counted as discarded.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testDiscardedUpdates()
+            throws Exception {
+
+        final AtomicInteger flushes = new AtomicInteger();
+        final AtomicInteger writes = new AtomicInteger();
+        final CellUpdateBuffer<String> buffer = new CellUpdateBuffer<>(null,
+                flushes::incrementAndGet);
+
+        JavaFXTestSupport.run(() -> {
+
+            buffer.update(0, 0, "a");
+            buffer.update(0, 1, "b");
+            buffer.flush();
+
+            buffer.update(1, 0, "c");
+            buffer.clear();
+
+            buffer.setWriter((row, column, value) -> writes.incrementAndGet());
+            buffer.update(2, 0, "d");
+            buffer.flush();
+        });
+
+        assertEquals(3, buffer.getUpdatesDiscarded());
+        assertEquals(1, buffer.getUpdatesApplied());
+        assertEquals(1, writes.get());
+        assertEquals(1, flushes.get());
+    }
+
+    /**
+     * The flush listener is notified even if the writer fails, the updates
+     * not written are counted as discarded, and later flushes are not
+     * affected.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFailingWriter()
+            throws Exception {
+
+        final AtomicInteger flushes = new AtomicInteger();
+        final AtomicInteger writes = new AtomicInteger();
+        final CellUpdateBuffer<String> buffer = new CellUpdateBuffer<>((row,
+                column, value) -> {
+
+            if ("fail".equals(value)) {
+
+                throw new IllegalStateException(value);
+            }
+            writes.incrementAndGet();
+        }, flushes::incrementAndGet);
+
+        JavaFXTestSupport.run(() -> {
+
+            buffer.update(0, 0, "a");
+            buffer.update(0, 1, "fail");
+            buffer.update(0, 2, "b");
+
+            try {
+
+                buffer.flush();
+                fail("The writer did not fail.");
+            }
+            catch (final IllegalStateException e) {
+
+                // expected.
+            }
+
+            buffer.update(0, 0, "a");
+            buffer.flush();
+        });
+
+        assertEquals(2, flushes.get());
+        assertEquals(2, writes.get());
+        assertEquals(2, buffer.getUpdatesApplied());
+        assertEquals(2, buffer.getUpdatesDiscarded());
+        assertEquals(buffer.getUpdatesReceived(), buffer.getUpdatesApplied()
+                + buffer.getUpdatesDiscarded());
+        assertEquals(0, buffer.getPendingUpdates());
+    }
+
+    /**
+     * Submitting updates of cells with pending updates does not allocate.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testUpdatesDoNotAllocate()
+            throws Exception {
+
+        final java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) bean;
+        final CellUpdateBuffer<String> buffer = new CellUpdateBuffer<>((row,
+                column, value) -> {
+
+            // nothing to do.
+        }, null);
+        final String value = "value";
+
+        final long allocated = JavaFXTestSupport.call(() -> {
+
+            final long thread = Thread.currentThread()
+                                      .getId();
+
+            // warm up, so that the tables have their final capacity.
+            for (int round = 0; round < 2; round++) {
+
+                for (int i = 0; i < 100000; i++) {
+
+                    buffer.update(i % 1000, i % 10, value);
+                }
+                buffer.flush();
+            }
+
+            final long before = threads.getThreadAllocatedBytes(thread);
+
+            for (int i = 0; i < 100000; i++) {
+
+                buffer.update(i % 1000, i % 10, value);
+            }
+            buffer.flush();
+
+            return threads.getThreadAllocatedBytes(thread) - before;
+        });
+
+        assertTrue(allocated + " bytes allocated",
+                allocated < CellUpdateBufferTest.MAX_ALLOCATIONS);
+    }
+}
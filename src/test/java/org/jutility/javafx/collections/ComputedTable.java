@@ -0,0 +1,133 @@
+package org.jutility.javafx.collections;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.jutility.common.datatype.table.ITable;
+
+
+/**
+ * The {@code ComputedTable} class provides a read-only {@link ITable} of
+ * {@code Integer} values that are computed from the row and column of a cell,
+ * so that tables of any size can be created for tests and benchmarks without
+ * storing (or allocating) their cells.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class ComputedTable
+        implements ITable<Integer> {
+
+    private static final Integer[] VALUES = new Integer[1024];
+
+    static {
+
+        for (int i = 0; i < ComputedTable.VALUES.length; i++) {
+
+            ComputedTable.VALUES[i] = Integer.valueOf(i);
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+
+
+    /**
+     * Creates a new instance of the {@link ComputedTable} class.
+     *
+     * @param rows
+     *         the number of rows.
+     * @param columns
+     *         the number of columns.
+     */
+    public ComputedTable(final int rows, final int columns) {
+
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+
+    @Override
+    public int rows() {
+
+        return this.rows;
+    }
+
+    @Override
+    public int columns() {
+
+        return this.columns;
+    }
+
+    /**
+     * Returns the value of a cell, which is one of {@code 1024} shared
+     * instances.
+     */
+    @Override
+    public Integer get(final int row, final int column) {
+
+        return ComputedTable.VALUES[((row * 31) + column)
+                & (ComputedTable.VALUES.length - 1)];
+    }
+
+    @Override
+    public List<List<Integer>> getRows() {
+
+        return new AbstractList<List<Integer>>() {
+
+            @Override
+            public List<Integer> get(final int row) {
+
+                return new AbstractList<Integer>() {
+
+                    @Override
+                    public Integer get(final int column) {
+
+                        return ComputedTable.this.get(row, column);
+                    }
+
+                    @Override
+                    public int size() {
+
+                        return ComputedTable.this.columns;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+
+                return ComputedTable.this.rows;
+            }
+        };
+    }
+}
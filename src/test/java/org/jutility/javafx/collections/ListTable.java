@@ -0,0 +1,241 @@
+package org.jutility.javafx.collections;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+
+/**
+ * The {@code ListTable} class provides a simple {@link IObservableTable}
+ * backed by a list of rows for tests.
+ *
+ * @param <T>
+ *         the content type of the table.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class ListTable<T>
+        implements IObservableTable<T> {
+
+    private final List<List<T>>                           rows;
+    private final int                                     columns;
+    private final List<ITableChangeListener<? super T>>   listeners;
+
+
+    /**
+     * Creates a new instance of the {@link ListTable} class.
+     *
+     * @param columns
+     *         the number of columns.
+     */
+    public ListTable(final int columns) {
+
+        this.rows = new ArrayList<>();
+        this.columns = columns;
+        this.listeners = new ArrayList<>();
+    }
+
+
+    @Override
+    public int rows() {
+
+        return this.rows.size();
+    }
+
+    @Override
+    public int columns() {
+
+        return this.columns;
+    }
+
+    @Override
+    public T get(final int row, final int column) {
+
+        return this.rows.get(row)
+                .get(column);
+    }
+
+    @Override
+    public List<List<T>> getRows() {
+
+        return this.rows;
+    }
+
+    /**
+     * Returns the number of registered listeners.
+     *
+     * @return the number of listeners.
+     */
+    public int listeners() {
+
+        return this.listeners.size();
+    }
+
+    @Override
+    public void addListener(final ITableChangeListener<? super T> listener) {
+
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(final ITableChangeListener<? super T> listener) {
+
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Sets the value of a cell, and notifies the listeners.
+     *
+     * @param row
+     *         the row of the cell.
+     * @param column
+     *         the column of the cell.
+     * @param value
+     *         the new value of the cell.
+     */
+    public void set(final int row, final int column, final T value) {
+
+        this.rows.get(row)
+                .set(column, value);
+
+        for (final ITableChangeListener<? super T> listener : new ArrayList<>(
+                this.listeners)) {
+
+            listener.cellUpdated(this, row, column);
+        }
+    }
+
+    /**
+     * Appends rows without notifying the listeners, like a table that does
+     * not report its modifications.
+     *
+     * @param appended
+     *         the rows to append.
+     */
+    public void appendSilently(final List<? extends List<? extends T>> appended) {
+
+        for (final List<? extends T> row : appended) {
+
+            this.rows.add(new ArrayList<>(row));
+        }
+    }
+
+    /**
+     * Inserts a row, and notifies the listeners.
+     *
+     * @param index
+     *         the index of the row.
+     * @param row
+     *         the row.
+     */
+    public void insert(final int index, final List<? extends T> row) {
+
+        this.rows.add(index, new ArrayList<>(row));
+
+        for (final ITableChangeListener<? super T> listener : new ArrayList<>(
+                this.listeners)) {
+
+            listener.rowsInserted(this, index, index + 1);
+        }
+    }
+
+    /**
+     * Removes a row, and notifies the listeners.
+     *
+     * @param index
+     *         the index of the row.
+     */
+    public void remove(final int index) {
+
+        final List<List<T>> removed = new ArrayList<>();
+        removed.add(this.rows.remove(index));
+
+        for (final ITableChangeListener<? super T> listener : new ArrayList<>(
+                this.listeners)) {
+
+            listener.rowsRemoved(this, index, removed);
+        }
+    }
+
+    /**
+     * Creates a table of {@code Integer} values, where the value of each cell
+     * is provided by the row and column.
+     *
+     * @param rows
+     *         the number of rows.
+     * @param columns
+     *         the number of columns.
+     * @param values
+     *         the function computing the value of a cell.
+     * @return the table.
+     */
+    public static ListTable<Integer> of(final int rows, final int columns,
+            final IntBinaryOperator values) {
+
+        final ListTable<Integer> table = new ListTable<>(columns);
+
+        for (int row = 0; row < rows; row++) {
+
+            final List<Integer> cells = new ArrayList<>(columns);
+
+            for (int column = 0; column < columns; column++) {
+
+                cells.add(values.applyAsInt(row, column));
+            }
+            table.rows.add(cells);
+        }
+
+        return table;
+    }
+
+    /**
+     * Returns a copy of the content of a table as a list of rows.
+     *
+     * @param <T>
+     *         the content type of the table.
+     * @param table
+     *         the table.
+     * @return the rows of the table.
+     */
+    public static <T> List<List<T>> contentOf(final List<? extends List<T>> table) {
+
+        final List<List<T>> content = new ArrayList<>(table.size());
+
+        for (final List<T> row : table) {
+
+            content.add(new ArrayList<>(row));
+        }
+
+        return content;
+    }
+}
@@ -0,0 +1,294 @@
+package org.jutility.javafx.collections;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+
+import org.jutility.javafx.JavaFXTestSupport;
+import org.jutility.javafx.control.TableDataView;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ * Tests the {@link MappedTextTable} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class MappedTextTableTest {
+
+    private static final int ROWS = 200_000;
+
+    /**
+     * The folder of the test files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    private Path write(final int rows)
+            throws IOException {
+
+        final Path file = this.folder.newFile()
+                                     .toPath();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+
+            writer.write("id,name,quote\r\n");
+
+            for (int row = 0; row < rows; row++) {
+
+                writer.write(row + ",name " + row + ",\"a \"\"b\"\", c\"\n");
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * The records are parsed into the cells of the table.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testCells()
+            throws Exception {
+
+        try (MappedTextTable table = new MappedTextTable(this.write(100), ',',
+                true)) {
+
+            JavaFXTestSupport.waitFor(table::isIndexed);
+            JavaFXTestSupport.waitFor(() -> table.rows() == 100);
+
+            assertEquals(Arrays.asList("id", "name", "quote"),
+                    table.getColumnNames());
+            assertEquals(3, table.columns());
+            assertEquals("42", table.get(42, 0));
+            assertEquals("name 99", table.get(99, 1));
+            assertEquals("a \"b\", c", table.get(0, 2));
+            assertEquals(Arrays.asList("7", "name 7", "a \"b\", c"),
+                    table.getRows()
+                         .get(7));
+            assertEquals(100, table.getRows()
+                                   .size());
+            assertNull(table.getIndexException());
+        }
+    }
+
+    /**
+     * The file is indexed on the provided executor, and a closed table can no
+     * longer be read.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testExecutorAndClose()
+            throws Exception {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final MappedTextTable table = new MappedTextTable(this.write(10),
+                StandardCharsets.UTF_8, ',', true,
+                MappedTextTable.DEFAULT_ROW_CACHE_SIZE, (runnable) -> {
+
+                    executions.incrementAndGet();
+                    runnable.run();
+                });
+
+        assertEquals(1, executions.get());
+        assertTrue(table.isIndexed());
+        assertEquals("name 3", table.get(3, 1));
+
+        table.close();
+
+        try {
+
+            table.get(4, 1);
+            fail("A closed table was read.");
+        }
+        catch (final IllegalStateException e) {
+
+            // expected.
+        }
+    }
+
+    /**
+     * The indexed rows are appended on the JavaFX Application Thread, and
+     * the listeners are notified of contiguous insertions covering all rows.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testRowsInsertedWhileIndexing()
+            throws Exception {
+
+        final List<int[]> insertions = new ArrayList<>();
+        final List<Boolean> onFxThread = new ArrayList<>();
+        final Path file = this.write(MappedTextTableTest.ROWS);
+
+        try (MappedTextTable table = JavaFXTestSupport
+                .call(() -> new MappedTextTable(file, ',', true))) {
+
+            JavaFXTestSupport.run(() -> table
+                    .addListener(new ITableChangeListener<String>() {
+
+                        @Override
+                        public void rowsInserted(
+                                final IObservableTable<? extends String> source,
+                                final int from, final int to) {
+
+                            insertions.add(new int[] { from, to });
+                            onFxThread.add(Platform.isFxApplicationThread());
+                            assertEquals(to, source.rows());
+                        }
+                    }));
+            JavaFXTestSupport.waitFor(() -> table.isIndexed()
+                    && (table.rows() == MappedTextTableTest.ROWS));
+
+            JavaFXTestSupport.run(() -> {
+
+                assertFalse(insertions.isEmpty());
+                assertFalse(onFxThread.contains(Boolean.FALSE));
+
+                int expected = insertions.get(0)[0];
+
+                for (final int[] insertion : insertions) {
+
+                    assertEquals(expected, insertion[0]);
+                    assertTrue(insertion[1] > insertion[0]);
+                    expected = insertion[1];
+                }
+                assertEquals(MappedTextTableTest.ROWS, expected);
+            });
+        }
+    }
+
+    /**
+     * The table can be displayed by a {@link TableDataView} while it is
+     * indexed.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testTableDataView()
+            throws Exception {
+
+        final Path file = this.write(MappedTextTableTest.ROWS);
+
+        try (MappedTextTable table = JavaFXTestSupport
+                .call(() -> new MappedTextTable(file, ',', true))) {
+
+            final TableDataView<String> view = JavaFXTestSupport
+                    .call(() -> new TableDataView<>(table));
+
+            JavaFXTestSupport.waitFor(() -> view.getItems()
+                                                .size() == MappedTextTableTest.ROWS);
+
+            JavaFXTestSupport.run(() -> {
+
+                assertEquals("name 123", view.getItems()
+                                             .get(123)
+                                             .get(1));
+                assertEquals(String.valueOf(MappedTextTableTest.ROWS - 1),
+                        view.getItems()
+                            .get(MappedTextTableTest.ROWS - 1)
+                            .get(0));
+            });
+        }
+    }
+
+    /**
+     * A failure while indexing is reported, and the rows indexed before
+     * remain readable. The failure is caused by truncating the file, which
+     * fails the access to the truncated part of the mapping.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testIndexFailure()
+            throws Exception {
+
+        final Path file = this.write(MappedTextTableTest.ROWS * 10);
+
+        try (MappedTextTable table = new MappedTextTable(file, ',', true)) {
+
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.WRITE)) {
+
+                channel.truncate(channel.size() - (64 * 1024));
+            }
+
+            JavaFXTestSupport.waitFor(() -> table.isIndexed()
+                    || (table.getIndexException() != null));
+            assumeFalse("The file was indexed before it was truncated.",
+                    table.isIndexed());
+
+            assertTrue(table.getIndexException() instanceof InternalError);
+            assertEquals("0", table.get(0, 0));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.stage.Stage;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.jutility.javafx.JavaFXTestSupport;
+import org.jutility.javafx.collections.DoubleTable;
+
+
+/**
+ * Tests the {@link DoubleTableDataView} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class DoubleTableDataViewTest {
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    private static Stage show(final DoubleTableDataView view) {
+
+        final Stage stage = new Stage();
+
+        stage.setScene(new Scene(view, 400, 300));
+        stage.show();
+        view.applyCss();
+        view.layout();
+
+        return stage;
+    }
+
+    /**
+     * Returns the text of the displayed cell of the provided row and column.
+     */
+    private static String text(final DoubleTableDataView view, final int row,
+            final int column) {
+
+        for (final Node node : view.lookupAll(".table-cell")) {
+
+            if (node instanceof TableCell) {
+
+                final TableCell<?, ?> cell = (TableCell<?, ?>) node;
+
+                if ((cell.getIndex() == row) && (cell.getTableColumn()
+                        == view.getColumns()
+                               .get(column))) {
+
+                    return cell.getText();
+                }
+            }
+        }
+
+        throw new AssertionError("No cell " + row + ", " + column + ".");
+    }
+
+
+    /**
+     * The cells display the primitive values of their rows and columns,
+     * formatted by the formatter, and the cells beyond the last row are
+     * empty.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testCellsDisplayValues()
+            throws Exception {
+
+        final DoubleTableDataView view = JavaFXTestSupport.call(
+                () -> new DoubleTableDataView(new DoubleTable(new double[] {
+                        1.5, 2.5 }, new double[] { -3, 4 })));
+        final Stage stage = JavaFXTestSupport.call(
+                () -> DoubleTableDataViewTest.show(view));
+
+        try {
+
+            JavaFXTestSupport.run(() -> {
+
+                assertEquals(2, view.getItems()
+                                    .size());
+                assertEquals(2, view.getColumns()
+                                    .size());
+                assertEquals("1.5", DoubleTableDataViewTest.text(view, 0, 0));
+                assertEquals("2.5", DoubleTableDataViewTest.text(view, 1, 0));
+                assertEquals("-3.0", DoubleTableDataViewTest.text(view, 0, 1));
+                assertEquals("4.0", DoubleTableDataViewTest.text(view, 1, 1));
+                assertNull(DoubleTableDataViewTest.text(view, 2, 0));
+
+                view.setFormatter((value) -> "<" + (int) value + ">");
+                view.layout();
+
+                assertEquals("<1>", DoubleTableDataViewTest.text(view, 0, 0));
+                assertEquals("<-3>", DoubleTableDataViewTest.text(view, 0, 1));
+            });
+        }
+        finally {
+
+            JavaFXTestSupport.run(stage::hide);
+        }
+    }
+
+    /**
+     * The items are the row indices of the table, which are bounded by its
+     * number of rows.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testItemsAreRowIndices()
+            throws Exception {
+
+        final DoubleTableDataView view = JavaFXTestSupport.call(
+                () -> new DoubleTableDataView(new DoubleTable(300, 1)));
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(300, view.getItems()
+                                  .size());
+            assertEquals(Integer.valueOf(0), view.getItems()
+                                                 .get(0));
+            assertEquals(Integer.valueOf(299), view.getItems()
+                                                   .get(299));
+
+            for (final int index : new int[] { -1, 300 }) {
+
+                try {
+
+                    view.getItems()
+                        .get(index);
+                    fail("Row " + index + " is not out of bounds.");
+                }
+                catch (final IndexOutOfBoundsException e) {
+
+                    // expected.
+                }
+            }
+        });
+    }
+
+    /**
+     * Reloading displays the modified values of the table, without replacing
+     * the items or the columns.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testReloadRefreshesCells()
+            throws Exception {
+
+        final DoubleTable table = new DoubleTable(2, 2);
+        final DoubleTableDataView view = JavaFXTestSupport.call(
+                () -> new DoubleTableDataView(table));
+        final Stage stage = JavaFXTestSupport.call(
+                () -> DoubleTableDataViewTest.show(view));
+
+        try {
+
+            JavaFXTestSupport.run(() -> {
+
+                final Object items = view.getItems();
+                final List<TableColumn<Integer, ?>> columns = new ArrayList<>(
+                        view.getColumns());
+
+                assertEquals("0.0", DoubleTableDataViewTest.text(view, 1, 1));
+
+                table.set(1, 1, 7);
+                view.reload();
+                view.layout();
+
+                assertEquals("7.0", DoubleTableDataViewTest.text(view, 1, 1));
+                assertSame(items, view.getItems());
+                assertEquals(columns, view.getColumns());
+            });
+        }
+        finally {
+
+            JavaFXTestSupport.run(stage::hide);
+        }
+    }
+
+    /**
+     * Without a table, the view has neither items nor columns.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testNullTable()
+            throws Exception {
+
+        final DoubleTableDataView view = JavaFXTestSupport.call(
+                () -> new DoubleTableDataView(new DoubleTable(2, 2)));
+
+        JavaFXTestSupport.run(() -> {
+
+            view.setTable(null);
+
+            assertTrue(view.getItems()
+                           .isEmpty());
+            assertTrue(view.getColumns()
+                           .isEmpty());
+
+            view.reload();
+
+            assertTrue(view.getItems()
+                           .isEmpty());
+        });
+
+        assertTrue(JavaFXTestSupport.call(() -> new DoubleTableDataView()
+                .getColumns()
+                .isEmpty()));
+    }
+}
@@ -0,0 +1,124 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntBinaryOperator;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link IntSorter} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class IntSorterTest {
+
+    private static int[] random(final int length) {
+
+        final Random random = new Random(length);
+        final int[] values = new int[length];
+
+        for (int i = 0; i < values.length; i++) {
+
+            values[i] = random.nextInt(length);
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Values are sorted like by {@link Arrays#sort(int[])}.
+     */
+    @Test
+    public void testSort() {
+
+        for (final int length : new int[] { 0, 1, 2, 31, 33, 1000 }) {
+
+            final int[] values = IntSorterTest.random(length);
+            final int[] expected = values.clone();
+
+            Arrays.sort(expected);
+            IntSorter.sort(values, 0, values.length, Integer::compare);
+
+            assertArrayEquals(expected, values);
+        }
+    }
+
+    /**
+     * Only the provided range is sorted.
+     */
+    @Test
+    public void testSortRange() {
+
+        final int[] values = { 9, 5, 4, 3, 0 };
+
+        IntSorter.sort(values, 1, 4, Integer::compare);
+
+        assertArrayEquals(new int[] { 9, 3, 4, 5, 0 }, values);
+    }
+
+    /**
+     * Large arrays are sorted in parallel, and equal values keep their order.
+     */
+    @Test
+    public void testParallelSortIsStable() {
+
+        final int[] values = new int[100000];
+
+        for (int i = 0; i < values.length; i++) {
+
+            values[i] = i;
+        }
+
+        final int[] keys = IntSorterTest.random(values.length);
+        final IntBinaryOperator byKey = (first, second) -> Integer.compare(
+                keys[first] / 100, keys[second] / 100);
+        final Integer[] expected = new Integer[values.length];
+
+        for (int i = 0; i < expected.length; i++) {
+
+            expected[i] = i;
+        }
+        Arrays.sort(expected, byKey::applyAsInt);
+
+        IntSorter.parallelSort(values, byKey);
+
+        assertArrayEquals(Arrays.stream(expected)
+                                .mapToInt(Integer::intValue)
+                                .toArray(), values);
+    }
+}
@@ -0,0 +1,412 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.collections.FXCollections;
+import javafx.util.StringConverter;
+
+import org.jutility.javafx.JavaFXTestSupport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Tests the filtering of the {@link ListViewWithSearchPanel} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class ListViewWithSearchPanelTest {
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    private static ListViewWithSearchPanel<String> createList(
+            final String... items) {
+
+        return new ListViewWithSearchPanel<>(
+                FXCollections.observableArrayList(items), "Test", null);
+    }
+
+    private static List<String> visibleItems(
+            final ListViewWithSearchPanel<String> list) {
+
+        return new ArrayList<>(list.getFilteredItems());
+    }
+
+
+    /**
+     * Synchronous and asynchronous filtering yield the same items.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testAsynchronousFiltering()
+            throws Exception {
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.createList("alpha", "beta",
+                        "gamma", "delta"));
+
+        JavaFXTestSupport.run(() -> {
+
+            list.setAsynchronousFilterThreshold(1);
+            list.getStringFilter()
+                .setFilterString("ta");
+        });
+        JavaFXTestSupport.waitFor(() -> !list.isFiltering());
+
+        assertEquals(Arrays.asList("beta", "delta"),
+                JavaFXTestSupport.call(() -> ListViewWithSearchPanelTest
+                        .visibleItems(list)));
+    }
+
+    /**
+     * Enabling the search index builds it in the background and filters the
+     * items again once it is available; replacing the converter rebuilds it.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testSearchIndex()
+            throws Exception {
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.createList("alphabet",
+                        "alpine", "beta", "gamma"));
+
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("alp"));
+
+        final long passes = JavaFXTestSupport.call(() -> list.getStringFilter()
+                                                           .getStatistics()
+                                                           .getPasses());
+
+        JavaFXTestSupport.run(() -> list.setSearchIndexEnabled(true));
+        JavaFXTestSupport.waitFor(() -> list.getSearchIndex() != null);
+
+        assertTrue(JavaFXTestSupport.call(() -> list.getStringFilter()
+                                                    .getStatistics()
+                                                    .getPasses()) > passes);
+        assertEquals(Arrays.asList("alphabet", "alpine"), JavaFXTestSupport
+                .call(() -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        JavaFXTestSupport.run(() -> list.setConverter(
+                new StringConverter<String>() {
+
+                    @Override
+                    public String toString(final String object) {
+
+                        return new StringBuilder(object).reverse()
+                                                        .toString();
+                    }
+
+                    @Override
+                    public String fromString(final String string) {
+
+                        return string;
+                    }
+                }));
+        JavaFXTestSupport.waitFor(() -> list.getSearchIndex() != null);
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("ammag"));
+
+        assertEquals(Arrays.asList("gamma"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+        assertEquals(1, JavaFXTestSupport.call(() -> list.getSearchIndex()
+                                                         .candidates("ammag",
+                                                                 false)
+                                                         .size())
+                                         .intValue());
+    }
+
+    /**
+     * Fuzzy filtering is not narrowed by the search index, which only
+     * reports candidates for substring searches.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFuzzyFilteringIgnoresSearchIndex()
+            throws Exception {
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.createList("alphabet",
+                        "alpine", "beta"));
+
+        JavaFXTestSupport.run(() -> list.setSearchIndexEnabled(true));
+        JavaFXTestSupport.waitFor(() -> list.getSearchIndex() != null);
+        JavaFXTestSupport.run(() -> {
+
+            list.getStringFilter()
+                .setFuzzy(true);
+            list.getStringFilter()
+                .setFilterString("aphb");
+        });
+
+        assertEquals(Arrays.asList("alphabet"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+    }
+
+    /**
+     * Switching the fuzzy mode on is not a refinement of the previous
+     * (substring) filter, even if the filter string is unchanged.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFuzzyToggleIsNotRefinement()
+            throws Exception {
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.createList("alphabet",
+                        "alpine", "beta"));
+
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("apn"));
+
+        assertEquals(Arrays.asList(), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFuzzy(true));
+
+        assertEquals(Arrays.asList("alpine"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        JavaFXTestSupport.run(() -> {
+
+            list.getStringFilter()
+                .setFuzzy(false);
+            list.getStringFilter()
+                .setFilterString("alp");
+            list.getStringFilter()
+                .setFuzzy(true);
+            list.getStringFilter()
+                .setFilterString("alpb");
+        });
+
+        assertEquals(Arrays.asList("alphabet"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+    }
+
+    /**
+     * Case-insensitive refinements narrow the items by the same case folding
+     * as the matching, which is not locale-sensitive: the dotted capital I
+     * folds to a single "i", whereas {@link String#toLowerCase()} turns it
+     * into "i" followed by a combining dot.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testCaseInsensitiveRefinement()
+            throws Exception {
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.createList("Alpha", "alps",
+                        "beta", "i", "i\u0307"));
+
+        JavaFXTestSupport.run(() -> {
+
+            list.getStringFilter()
+                .setCaseSensitive(false);
+            list.getStringFilter()
+                .setFilterString("AL");
+            list.getStringFilter()
+                .setFilterString("ALP");
+        });
+
+        assertEquals(Arrays.asList("Alpha", "alps"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("i\u0307"));
+
+        assertEquals(Arrays.asList("i\u0307"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        // not a refinement once folded: matches "i" as well.
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("\u0130"));
+
+        assertEquals(Arrays.asList("i", "i\u0307"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+    }
+
+    /**
+     * A failing asynchronous filter pass ends the filtering state and reports
+     * the exception.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFailingFilterPass()
+            throws Exception {
+
+        final AtomicBoolean broken = new AtomicBoolean(true);
+        final StringConverter<String> converter = new StringConverter<String>() {
+
+            @Override
+            public String toString(final String object) {
+
+                if (broken.get()) {
+
+                    throw new BrokenConverterError();
+                }
+                return object;
+            }
+
+            @Override
+            public String fromString(final String string) {
+
+                return string;
+            }
+        };
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> new ListViewWithSearchPanel<>(FXCollections
+                        .observableArrayList("alpha", "beta"), "Test",
+                        converter));
+
+        JavaFXTestSupport.run(() -> {
+
+            list.setAsynchronousFilterThreshold(1);
+            list.getStringFilter()
+                .setFilterString("alpha");
+        });
+        JavaFXTestSupport.waitFor(() -> !list.isFiltering());
+
+        assertTrue(JavaFXTestSupport.call(
+                list::getFilterException) instanceof BrokenConverterError);
+
+        broken.set(false);
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("beta"));
+        JavaFXTestSupport.waitFor(() -> !list.isFiltering());
+
+        assertNull(JavaFXTestSupport.call(list::getFilterException));
+        assertEquals(Arrays.asList("beta"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+    }
+
+    /**
+     * A failing index pass reports the exception and leaves the items
+     * filtered without a search index until a new index is built.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFailingIndexPass()
+            throws Exception {
+
+        final AtomicBoolean broken = new AtomicBoolean(true);
+        final StringConverter<String> converter = new StringConverter<String>() {
+
+            @Override
+            public String toString(final String object) {
+
+                if (broken.get()) {
+
+                    throw new BrokenConverterError();
+                }
+                return object;
+            }
+
+            @Override
+            public String fromString(final String string) {
+
+                return string;
+            }
+        };
+
+        final ListViewWithSearchPanel<String> list = JavaFXTestSupport.call(
+                () -> new ListViewWithSearchPanel<>(FXCollections
+                        .observableArrayList("alpha", "beta"), "Test",
+                        converter));
+
+        JavaFXTestSupport.run(() -> list.setSearchIndexEnabled(true));
+        JavaFXTestSupport.waitFor(() -> list.getSearchIndexException() != null);
+
+        assertTrue(JavaFXTestSupport.call(
+                list::getSearchIndexException) instanceof BrokenConverterError);
+        assertNull(JavaFXTestSupport.call(list::getSearchIndex));
+
+        broken.set(false);
+        JavaFXTestSupport.run(() -> list.getStringFilter()
+                                        .setFilterString("beta"));
+
+        assertEquals(Arrays.asList("beta"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+
+        JavaFXTestSupport.run(() -> {
+
+            list.setSearchIndexEnabled(false);
+            list.setSearchIndexEnabled(true);
+        });
+        JavaFXTestSupport.waitFor(() -> list.getSearchIndex() != null);
+
+        assertNull(JavaFXTestSupport.call(list::getSearchIndexException));
+        assertEquals(Arrays.asList("beta"), JavaFXTestSupport.call(
+                () -> ListViewWithSearchPanelTest.visibleItems(list)));
+    }
+
+
+    /**
+     * Thrown by a broken converter.
+     */
+    private static final class BrokenConverterError
+            extends Error {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,229 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import org.jutility.javafx.JavaFXTestSupport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link SearchPanel} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class SearchPanelTest {
+
+    private static final long DELAY_MILLIS = 200;
+
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    /**
+     * Creates a search panel, and records the updates of its filter string.
+     */
+    private static SearchPanel<String> createPanel(final List<String> updates)
+            throws Exception {
+
+        return JavaFXTestSupport.call(() -> {
+
+            final SearchPanel<String> panel = new SearchPanel<>();
+
+            panel.getStringFilter()
+                 .filterStringProperty()
+                 .addListener((observable, oldValue, newValue) -> updates
+                         .add(newValue));
+
+            return panel;
+        });
+    }
+
+    private static TextField textField(final SearchPanel<?> panel) {
+
+        return (TextField) panel.lookup(".text-field");
+    }
+
+    private static void pressKey(final TextField field, final KeyCode code) {
+
+        field.fireEvent(new KeyEvent(KeyEvent.KEY_PRESSED, "", "", code,
+                false, false, false, false));
+        field.fireEvent(new KeyEvent(KeyEvent.KEY_RELEASED, "", "", code,
+                false, false, false, false));
+    }
+
+
+    /**
+     * A burst of text changes within the search delay updates the filter
+     * string once, with the last text.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testSearchDelayCoalescesTextChanges()
+            throws Exception {
+
+        final List<String> updates = new ArrayList<>();
+        final SearchPanel<String> panel = SearchPanelTest.createPanel(updates);
+
+        JavaFXTestSupport.run(() -> {
+
+            panel.setSearchDelay(Duration.millis(SearchPanelTest.DELAY_MILLIS));
+
+            for (final String text : new String[] { "a", "al", "alp",
+                    "alph" }) {
+
+                panel.setText(text);
+            }
+
+            assertEquals(0, updates.size());
+        });
+        JavaFXTestSupport.waitFor(() -> !updates.isEmpty());
+        Thread.sleep(2 * SearchPanelTest.DELAY_MILLIS);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(1, updates.size());
+            assertEquals("alph", panel.getStringFilter()
+                                      .getFilterString());
+        });
+    }
+
+    /**
+     * With filter on Enter, the filter string is only updated once Enter is
+     * pressed.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFilterOnEnter()
+            throws Exception {
+
+        final List<String> updates = new ArrayList<>();
+        final SearchPanel<String> panel = SearchPanelTest.createPanel(updates);
+        final Stage stage = JavaFXTestSupport.call(() -> {
+
+            final Stage window = new Stage();
+
+            window.setScene(new Scene(panel));
+            window.show();
+
+            panel.setFilterOnEnter(true);
+            panel.setText("beta");
+            SearchPanelTest.pressKey(SearchPanelTest.textField(panel),
+                    KeyCode.A);
+            SearchPanelTest.pressKey(SearchPanelTest.textField(panel),
+                    KeyCode.TAB);
+
+            return window;
+        });
+
+        try {
+
+            Thread.sleep(SearchPanelTest.DELAY_MILLIS);
+
+            JavaFXTestSupport.run(() -> {
+
+                assertEquals(0, updates.size());
+                assertNull(panel.getStringFilter()
+                                .getFilterString());
+
+                SearchPanelTest.pressKey(SearchPanelTest.textField(panel),
+                        KeyCode.ENTER);
+
+                assertEquals(1, updates.size());
+                assertEquals("beta", panel.getStringFilter()
+                                          .getFilterString());
+            });
+        }
+        finally {
+
+            JavaFXTestSupport.run(stage::hide);
+        }
+    }
+
+    /**
+     * Setting the filter string updates the text field, without the text
+     * change feeding back into the filter string.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFilterStringUpdatesTextField()
+            throws Exception {
+
+        final List<String> updates = new ArrayList<>();
+        final SearchPanel<String> panel = SearchPanelTest.createPanel(updates);
+
+        JavaFXTestSupport.run(() -> {
+
+            panel.setSearchDelay(Duration.millis(SearchPanelTest.DELAY_MILLIS));
+            panel.setText("pending");
+            panel.getStringFilter()
+                 .setFilterString("gamma");
+
+            assertEquals("gamma", panel.getText());
+        });
+        Thread.sleep(2 * SearchPanelTest.DELAY_MILLIS);
+
+        JavaFXTestSupport.run(() -> {
+
+            // the pending text was superseded, and the text change caused
+            // by the filter string was not applied again.
+            assertEquals(1, updates.size());
+            assertEquals("gamma", panel.getStringFilter()
+                                       .getFilterString());
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+
+import org.junit.Test;
+import org.jutility.javafx.collections.ComputedTable;
+import org.jutility.javafx.collections.ListTable;
+
+
+/**
+ * Tests the {@link TableDataView.TableCellValueFactory} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class TableCellValueFactoryTest {
+
+    static final int            ROWS               = 1000000;
+    static final int            COLUMNS            = 100;
+    static final int            VISIBLE_ROWS       = 40;
+    private static final int    FRAMES             = 200;
+    // the features and the value of each cell, and the view of each row; a
+    // property per cell needs about 60 bytes.
+    private static final double MAX_BYTES_PER_CELL = 40;
+
+
+    /**
+     * Cell values are constant observable values holding the value of the
+     * cell, and empty cells share a single instance.
+     */
+    @Test
+    public void testConstantValues() {
+
+        final ListTable<Integer> table = ListTable.of(2, 1, (row,
+                column) -> row);
+        table.getRows()
+             .get(1)
+             .set(0, null);
+
+        final TableRowList<Integer> rows = new TableRowList<>(table);
+        final TableDataView.TableCellValueFactory<Integer> factory =
+                new TableDataView.TableCellValueFactory<>(0);
+
+        final ObservableValue<Integer> value = factory
+                .call(new CellDataFeatures<>(null, null, rows.get(0)));
+        final ObservableValue<Integer> empty = factory
+                .call(new CellDataFeatures<>(null, null, rows.get(1)));
+
+        assertEquals(Integer.valueOf(0), value.getValue());
+        assertFalse(value instanceof ReadOnlyProperty);
+        assertNull(empty.getValue());
+        assertSame(empty, factory.call(new CellDataFeatures<>(null, null,
+                rows.get(1))));
+    }
+
+    /**
+     * Scrolling through a table of 100 columns and 1,000,000 rows allocates
+     * no more than the features and the constant value of each visible cell.
+     */
+    @Test
+    public void testScrollingAllocation() {
+
+        final java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) bean;
+        final long thread = Thread.currentThread()
+                                  .getId();
+        final TableRowList<Integer> rows = new TableRowList<>(
+                new ComputedTable(TableCellValueFactoryTest.ROWS,
+                        TableCellValueFactoryTest.COLUMNS));
+        final List<TableDataView.TableCellValueFactory<Integer>> factories =
+                TableCellValueFactoryTest.factories();
+
+        // warm up, so that lazily initialized state is in place.
+        TableCellValueFactoryTest.scroll(rows, factories, 0);
+
+        final long before = threads.getThreadAllocatedBytes(thread);
+        final int sum = TableCellValueFactoryTest.scroll(rows, factories,
+                TableCellValueFactoryTest.FRAMES);
+        final long allocated = threads.getThreadAllocatedBytes(thread)
+                - before;
+        final double perCell = (double) allocated
+                / (TableCellValueFactoryTest.FRAMES
+                        * TableCellValueFactoryTest.VISIBLE_ROWS
+                        * TableCellValueFactoryTest.COLUMNS);
+
+        assertTrue(sum >= 0);
+        assertTrue(perCell + " bytes allocated per cell",
+                perCell <= TableCellValueFactoryTest.MAX_BYTES_PER_CELL);
+    }
+
+
+    static List<TableDataView.TableCellValueFactory<Integer>> factories() {
+
+        final List<TableDataView.TableCellValueFactory<Integer>> factories =
+                new ArrayList<>(TableCellValueFactoryTest.COLUMNS);
+
+        for (int i = 0; i < TableCellValueFactoryTest.COLUMNS; i++) {
+
+            factories.add(new TableDataView.TableCellValueFactory<>(i));
+        }
+
+        return factories;
+    }
+
+    /**
+     * Requests the values of the visible cells of the provided number of
+     * frames, like a table view scrolling down one page per frame.
+     */
+    private static int scroll(final TableRowList<Integer> rows,
+            final List<TableDataView.TableCellValueFactory<Integer>> factories,
+            final int frames) {
+
+        int sum = 0;
+
+        for (int frame = 0; frame <= frames; frame++) {
+
+            sum += TableCellValueFactoryTest.frame(rows, factories, frame
+                    * TableCellValueFactoryTest.VISIBLE_ROWS);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Requests the values of the cells visible in a single frame, starting
+     * at the provided row.
+     */
+    static int frame(final TableRowList<Integer> rows,
+            final List<TableDataView.TableCellValueFactory<Integer>> factories,
+            final int offset) {
+
+        final int first = offset
+                % (rows.size() - TableCellValueFactoryTest.VISIBLE_ROWS);
+        int sum = 0;
+
+        for (int i = first; i < (first
+                + TableCellValueFactoryTest.VISIBLE_ROWS); i++) {
+
+            final List<Integer> row = rows.get(i);
+
+            for (final TableDataView.TableCellValueFactory<Integer> factory : factories) {
+
+                final Integer value = factory.call(
+                        new CellDataFeatures<>(null, null, row))
+                                             .getValue();
+
+                sum += (value == null) ? 0 : value;
+            }
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,902 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+
+import org.jutility.common.datatype.table.ITable;
+import org.jutility.javafx.JavaFXTestSupport;
+import org.jutility.javafx.collections.ComputedTable;
+import org.jutility.javafx.collections.ListTable;
+import org.jutility.javafx.stringconverter.IConfigurableStringConverter;
+import org.jutility.javafx.stringconverter.IStringConverterConfiguration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link TableDataView} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class TableDataViewTest {
+
+    /**
+     * Starts the JavaFX toolkit.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+    }
+
+
+    private static <T> Stage show(final TableDataView<T> view) {
+
+        final Stage stage = new Stage();
+
+        stage.setScene(new Scene(view, 400, 300));
+        stage.show();
+        view.applyCss();
+        view.layout();
+
+        return stage;
+    }
+
+    private static ScrollBar horizontalScrollBar(final TableDataView<?> view) {
+
+        for (final Node node : view.lookupAll(".scroll-bar")) {
+
+            if ((node instanceof ScrollBar) && Orientation.HORIZONTAL
+                    .equals(((ScrollBar) node).getOrientation())) {
+
+                return (ScrollBar) node;
+            }
+        }
+
+        throw new AssertionError("No horizontal scroll bar.");
+    }
+
+    private static TableColumn<List<Integer>, ?> column(
+            final TableDataView<Integer> view, final int index) {
+
+        for (final TableColumn<List<Integer>, ?> column : view.getColumns()) {
+
+            final Object factory = column.getCellValueFactory();
+
+            if ((factory instanceof TableDataView.TableCellValueFactory)
+                    && (((TableDataView.TableCellValueFactory<?>) factory)
+                            .getColumnIndex() == index)) {
+
+                return column;
+            }
+        }
+
+        return null;
+    }
+
+
+    private static List<Integer> values(final TableDataView<Integer> view) {
+
+        final List<Integer> values = new ArrayList<>();
+
+        for (final List<Integer> row : view.getItems()) {
+
+            values.add(row.get(0));
+        }
+
+        return values;
+    }
+
+    /**
+     * Sorts the provided view descending by its first column, and waits until
+     * the rows are sorted.
+     */
+    private static void sortDescending(final TableDataView<Integer> view)
+            throws Exception {
+
+        JavaFXTestSupport.run(() -> {
+
+            final TableColumn<List<Integer>, ?> column = TableDataViewTest
+                    .column(view, 0);
+
+            column.setSortType(TableColumn.SortType.DESCENDING);
+            view.getSortOrder()
+                .add(column);
+        });
+        JavaFXTestSupport.waitFor(() -> !view.isSorting());
+    }
+
+    private static List<String> cellTexts(final TableDataView<?> view) {
+
+        final List<String> texts = new ArrayList<>();
+
+        for (final Node node : view.lookupAll(".table-cell")) {
+
+            if ((node instanceof TableCell) && !((TableCell<?, ?>) node)
+                    .isEmpty()) {
+
+                texts.add(((TableCell<?, ?>) node).getText());
+            }
+        }
+
+        return texts;
+    }
+
+
+    /**
+     * An updated cell of an observable table is displayed, although the view
+     * of its row is equal to the view displayed before.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testUpdatedCellIsDisplayed()
+            throws Exception {
+
+        final ListTable<Integer> table = ListTable.of(3, 2, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(table));
+        final Stage stage = JavaFXTestSupport
+                .call(() -> TableDataViewTest.show(view));
+
+        try {
+
+            assertFalse(JavaFXTestSupport.call(() -> TableDataViewTest
+                    .cellTexts(view)
+                    .contains("42")));
+
+            JavaFXTestSupport.run(() -> table.set(1, 0, 42));
+            JavaFXTestSupport.waitFor(() -> TableDataViewTest.cellTexts(view)
+                                                             .contains("42"));
+        }
+        finally {
+
+            JavaFXTestSupport.run(stage::hide);
+        }
+    }
+
+    /**
+     * Rows inserted into and removed from a sorted observable table are
+     * merged into the order, without sorting the rows again.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testInsertedRowsKeepSortOrder()
+            throws Exception {
+
+        final ListTable<Integer> table = ListTable.of(4, 1, (row,
+                column) -> row * 10);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(table));
+
+        TableDataViewTest.sortDescending(view);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(Arrays.asList(30, 20, 10, 0),
+                    TableDataViewTest.values(view));
+
+            table.insert(1, Arrays.asList(15));
+            table.insert(0, Arrays.asList(35));
+            table.remove(table.rows() - 1);
+
+            assertFalse(view.isSorting());
+            assertEquals(Arrays.asList(35, 20, 15, 10, 0),
+                    TableDataViewTest.values(view));
+        });
+    }
+
+    /**
+     * The cells of an observable table written in a flush are reported as a
+     * single change.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFlushIsReportedAsSingleChange()
+            throws Exception {
+
+        final ListTable<Integer> table = ListTable.of(100, 2, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(table));
+        final List<Integer> changes = new ArrayList<>();
+
+        JavaFXTestSupport.run(() -> {
+
+            view.setCellWriter(table::set);
+            view.getItems()
+                .addListener((ListChangeListener<List<Integer>>) (
+                        change) -> changes.add(change.getList()
+                                                     .size()));
+
+            for (int row = 0; row < table.rows(); row += 2) {
+
+                view.updateCell(row, 1, -row);
+            }
+            view.getCellUpdateBuffer()
+                .flush();
+
+            assertEquals(1, changes.size());
+            assertEquals(Integer.valueOf(-10), table.get(10, 1));
+        });
+    }
+
+    /**
+     * Pending updates are discarded once the table is replaced, and updates
+     * flushed without a cell writer are not counted as applied.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testUpdatesOfReplacedTableAreDiscarded()
+            throws Exception {
+
+        final ListTable<Integer> first = ListTable.of(2, 1, (row,
+                column) -> row);
+        final ListTable<Integer> second = ListTable.of(2, 1, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(first));
+
+        JavaFXTestSupport.run(() -> {
+
+            view.updateCell(0, 0, 42);
+            view.getCellUpdateBuffer()
+                .flush();
+
+            view.setCellWriter(first::set);
+            view.updateCell(1, 0, 43);
+            view.setTable(second);
+            view.getCellUpdateBuffer()
+                .flush();
+
+            assertEquals(0, view.getCellUpdateBuffer()
+                                .getUpdatesApplied());
+            assertEquals(2, view.getCellUpdateBuffer()
+                                .getUpdatesDiscarded());
+            assertEquals(Integer.valueOf(0), first.get(0, 0));
+            assertEquals(Integer.valueOf(1), first.get(1, 0));
+        });
+    }
+
+    /**
+     * Sorts the provided view by its first column with the provided
+     * comparator.
+     */
+    @SuppressWarnings("unchecked")
+    private static void sortBy(final TableDataView<Integer> view,
+            final Comparator<Integer> comparator)
+            throws Exception {
+
+        JavaFXTestSupport.run(() -> {
+
+            final TableColumn<List<Integer>, Integer> column =
+                    (TableColumn<List<Integer>, Integer>) TableDataViewTest
+                            .column(view, 0);
+
+            column.setComparator(comparator);
+            view.getSortOrder()
+                .add(column);
+        });
+    }
+
+    /**
+     * A failing sort shows the rows in their natural order and reports the
+     * failure.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFailedSortFallsBackToNaturalOrder()
+            throws Exception {
+
+        final ListTable<Integer> table = ListTable.of(3, 1, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(table));
+        final TableRowList<Integer> items = JavaFXTestSupport
+                .call(() -> (TableRowList<Integer>) view.getItems());
+
+        TableDataViewTest.sortDescending(view);
+        assertTrue(JavaFXTestSupport.call(items::isRowOrdered));
+
+        TableDataViewTest.sortBy(view, (first, second) -> {
+
+            throw new IllegalStateException("broken comparator");
+        });
+        JavaFXTestSupport.waitFor(() -> !view.isSorting());
+
+        JavaFXTestSupport.run(() -> {
+
+            assertNotNull(view.getSortException());
+            assertFalse(items.isRowOrdered());
+            assertEquals(Arrays.asList(0, 1, 2),
+                    TableDataViewTest.values(view));
+        });
+
+        JavaFXTestSupport.run(() -> view.getSortOrder()
+                                        .clear());
+        JavaFXTestSupport.waitFor(() -> view.getSortException() == null);
+    }
+
+    /**
+     * An order computed while cells were updated is computed again.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testSortRestartsAfterCellUpdate()
+            throws Exception {
+
+        final ListTable<Integer> table = ListTable.of(50, 1, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(table));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch updated = new CountDownLatch(1);
+        final AtomicBoolean blocked = new AtomicBoolean();
+
+        TableDataViewTest.sortBy(view, (first, second) -> {
+
+            if (blocked.compareAndSet(false, true)) {
+
+                started.countDown();
+
+                try {
+
+                    updated.await(30, TimeUnit.SECONDS);
+                }
+                catch (final InterruptedException e) {
+
+                    Thread.currentThread()
+                          .interrupt();
+                }
+            }
+            return Integer.compare(first, second);
+        });
+
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        JavaFXTestSupport.run(() -> {
+
+            view.setCellWriter(table::set);
+            view.updateCell(0, 0, 100);
+            view.getCellUpdateBuffer()
+                .flush();
+        });
+        updated.countDown();
+        JavaFXTestSupport.waitFor(() -> !view.isSorting());
+
+        JavaFXTestSupport.run(() -> {
+
+            assertNull(view.getSortException());
+
+            final List<Integer> values = TableDataViewTest.values(view);
+
+            assertEquals(50, values.size());
+            assertEquals(Integer.valueOf(1), values.get(0));
+            assertEquals(Integer.valueOf(100), values.get(49));
+        });
+    }
+
+    /**
+     * Large tables are sorted in parallel.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testParallelSort()
+            throws Exception {
+
+        final int rows = TableDataView.DEFAULT_PARALLEL_SORT_THRESHOLD * 2;
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(new ComputedTable(rows, 2)));
+
+        TableDataViewTest.sortDescending(view);
+
+        JavaFXTestSupport.run(() -> {
+
+            final TableRowList<Integer> items = (TableRowList<Integer>) view
+                    .getItems();
+            final int[] order = items.getRowOrder();
+
+            assertEquals(rows, order.length);
+
+            for (int i = 1; i < order.length; i++) {
+
+                final int previous = items.getTable()
+                                          .get(order[i - 1], 0);
+                final int current = items.getTable()
+                                         .get(order[i], 0);
+
+                assertTrue((previous > current)
+                        || ((previous == current)
+                                && (order[i - 1] < order[i])));
+            }
+        });
+    }
+
+    /**
+     * Returns a view of the provided table that does not report its
+     * modifications.
+     */
+    private static ITable<Integer> unobserved(final ListTable<Integer> table) {
+
+        return new ITable<Integer>() {
+
+            @Override
+            public int rows() {
+
+                return table.rows();
+            }
+
+            @Override
+            public int columns() {
+
+                return table.columns();
+            }
+
+            @Override
+            public Integer get(final int row, final int column) {
+
+                return table.get(row, column);
+            }
+
+            @Override
+            public List<List<Integer>> getRows() {
+
+                return table.getRows();
+            }
+        };
+    }
+
+    private static Iterator<List<Integer>> rows(final int from, final int to) {
+
+        return IntStream.range(from, to)
+                        .mapToObj((row) -> Arrays.asList(row))
+                        .iterator();
+    }
+
+    /**
+     * Rows loaded into a sorted table are merged into the order, without
+     * sorting the rows again.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testLoadedRowsKeepSortOrder()
+            throws Exception {
+
+        final int loaded = 20000;
+        final ListTable<Integer> table = ListTable.of(10, 1, (row,
+                column) -> row);
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(TableDataViewTest
+                        .unobserved(table)));
+        final AtomicInteger passes = new AtomicInteger();
+
+        TableDataViewTest.sortDescending(view);
+
+        final TableLoadTask<Integer> task = JavaFXTestSupport.call(() -> {
+
+            view.sortingProperty()
+                .addListener((observable, oldValue, newValue) -> {
+
+                    if (newValue) {
+
+                        passes.incrementAndGet();
+                    }
+                });
+            view.setRowAppender(table::appendSilently);
+            return view.load(TableDataViewTest.rows(10, 10 + loaded), loaded);
+        });
+
+        JavaFXTestSupport.waitFor(task::isDone);
+
+        JavaFXTestSupport.run(() -> {
+
+            final List<Integer> values = TableDataViewTest.values(view);
+
+            assertEquals(Long.valueOf(loaded), task.getValue());
+            assertEquals(10 + loaded, values.size());
+
+            for (int i = 0; i < values.size(); i++) {
+
+                assertEquals(Integer.valueOf((values.size() - 1) - i),
+                        values.get(i));
+            }
+            assertEquals(0, passes.get());
+        });
+    }
+
+    /**
+     * Loading rows cancels the previous load, whose rows are discarded, and
+     * runs the load with the load executor.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testLoadCancelsPreviousLoad()
+            throws Exception {
+
+        final ListTable<Integer> table = new ListTable<>(1);
+        final List<Runnable> scheduled = new ArrayList<>();
+        final Executor executor = scheduled::add;
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(TableDataViewTest
+                        .unobserved(table)));
+
+        final List<TableLoadTask<Integer>> tasks = JavaFXTestSupport
+                .call(() -> {
+
+                    view.setRowAppender(table::appendSilently);
+                    view.setLoadExecutor(executor);
+
+                    return Arrays.asList(view.load(
+                            TableDataViewTest.rows(0, 100), 100), view.load(
+                            TableDataViewTest.rows(100, 150), 50));
+                });
+
+        assertEquals(2, scheduled.size());
+        assertTrue(tasks.get(0)
+                        .isCancelled());
+
+        for (final Runnable runnable : scheduled) {
+
+            runnable.run();
+        }
+        JavaFXTestSupport.waitFor(() -> tasks.get(1)
+                                             .isDone());
+
+        JavaFXTestSupport.run(() -> {
+
+            final List<Integer> values = TableDataViewTest.values(view);
+
+            assertEquals(50, values.size());
+            assertEquals(Integer.valueOf(100), values.get(0));
+            assertEquals(Integer.valueOf(149), values.get(49));
+        });
+    }
+
+    /**
+     * A load whose appender fails stops appending and pulling rows, and fails
+     * with the exception of the appender.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testLoadFailsWithAppender()
+            throws Exception {
+
+        final IllegalStateException failure = new IllegalStateException();
+        final AtomicInteger pulled = new AtomicInteger();
+        final List<Integer> appended = new ArrayList<>();
+        final Iterator<List<Integer>> rows = TableDataViewTest.rows(0, 1000);
+        final TableLoadTask<Integer> task = new TableLoadTask<>(
+                new Iterator<List<Integer>>() {
+
+                    @Override
+                    public boolean hasNext() {
+
+                        return rows.hasNext();
+                    }
+
+                    @Override
+                    public List<Integer> next() {
+
+                        pulled.incrementAndGet();
+                        return rows.next();
+                    }
+                }, 1000, (chunk) -> {
+
+                    if (!appended.isEmpty()) {
+
+                        throw failure;
+                    }
+                    for (final List<? extends Integer> row : chunk) {
+
+                        appended.add(row.get(0));
+                    }
+                }, 10, 1);
+
+        final Thread thread = new Thread(task);
+
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+
+        JavaFXTestSupport.waitFor(task::isDone);
+        JavaFXTestSupport.run(() -> {
+
+            assertSame(failure, task.getException());
+            assertEquals(10, appended.size());
+        });
+        assertTrue(String.valueOf(pulled.get()), pulled.get() < 1000);
+    }
+
+    /**
+     * Sorted columns of a virtualized table remain in the sort order, with
+     * their sort type, while they are scrolled out of view.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testVirtualizedSortOrderSurvivesScrolling()
+            throws Exception {
+
+        final TableDataView<Integer> view = JavaFXTestSupport
+                .call(() -> new TableDataView<>(new ComputedTable(50, 1000)));
+        final Stage stage = JavaFXTestSupport
+                .call(() -> TableDataViewTest.show(view));
+
+        try {
+
+            final TableColumn<List<Integer>, ?> sorted = JavaFXTestSupport
+                    .call(() -> {
+
+                        assertTrue(view.isColumnVirtualized());
+
+                        final TableColumn<List<Integer>, ?> column =
+                                TableDataViewTest.column(view, 1);
+
+                        column.setSortType(TableColumn.SortType.DESCENDING);
+                        view.getSortOrder()
+                            .add(column);
+                        return column;
+                    });
+
+            final ScrollBar scrollBar = JavaFXTestSupport
+                    .call(() -> TableDataViewTest.horizontalScrollBar(view));
+
+            JavaFXTestSupport.run(() -> scrollBar.setValue(scrollBar
+                    .getMax()));
+            JavaFXTestSupport.waitFor(() -> TableDataViewTest
+                    .column(view, 0) == null);
+            JavaFXTestSupport.run(() -> {
+
+                assertEquals(1, view.getSortOrder()
+                                    .size());
+                assertSame(sorted, view.getSortOrder()
+                                       .get(0));
+                assertFalse(sorted.isVisible());
+                assertEquals(TableColumn.SortType.DESCENDING,
+                        sorted.getSortType());
+            });
+
+            JavaFXTestSupport.run(() -> scrollBar.setValue(scrollBar
+                    .getMin()));
+            JavaFXTestSupport.waitFor(() -> TableDataViewTest
+                    .column(view, 0) != null);
+            JavaFXTestSupport.run(() -> {
+
+                assertSame(sorted, TableDataViewTest.column(view, 1));
+                assertTrue(sorted.isVisible());
+                assertSame(sorted, view.getSortOrder()
+                                       .get(0));
+            });
+        }
+        finally {
+
+            JavaFXTestSupport.run(stage::hide);
+        }
+    }
+
+    /**
+     * The text cache retains the most recently used texts up to its size,
+     * and counts the texts it provides and the texts it renders.
+     */
+    @Test
+    public void testTextCacheEvictsLeastRecentlyUsedTexts() {
+
+        final CountingConverter converter = new CountingConverter();
+        final TableDataView.TableCellFactory<Integer> factory =
+                new TableDataView.TableCellFactory<>(converter);
+
+        factory.setTextCacheSize(2);
+
+        assertEquals(Arrays.asList("#1", "#2", "#1", "#3", "#1", "#2"),
+                TableDataViewTest.render(factory, 1, 2, 1, 3, 1, 2));
+        assertEquals(4, converter.conversions.get());
+        assertEquals(2, factory.getTextCacheHits());
+        assertEquals(4, factory.getTextCacheMisses());
+
+        factory.resetTextCacheStatistics();
+
+        assertEquals(0, factory.getTextCacheHits());
+        assertEquals(0, factory.getTextCacheMisses());
+    }
+
+    /**
+     * The text cache is disabled by default.
+     */
+    @Test
+    public void testTextCacheIsDisabledByDefault() {
+
+        final CountingConverter converter = new CountingConverter();
+        final TableDataView.TableCellFactory<Integer> factory =
+                new TableDataView.TableCellFactory<>(converter);
+
+        assertEquals(0, factory.getTextCacheSize());
+        assertEquals(Arrays.asList("#1", "#1", "#1"), TableDataViewTest
+                .render(factory, 1, 1, 1));
+        assertEquals(3, converter.conversions.get());
+        assertEquals(0, factory.getTextCacheHits());
+        assertEquals(0, factory.getTextCacheMisses());
+    }
+
+    /**
+     * The text cache is cleared when the converter or its configuration
+     * changes.
+     */
+    @Test
+    public void testTextCacheIsClearedWithConverter() {
+
+        final CountingConverter converter = new CountingConverter();
+        final CountingConverter replacement = new CountingConverter();
+        final TableDataView.TableCellFactory<Integer> factory =
+                new TableDataView.TableCellFactory<>(converter);
+
+        factory.setTextCacheSize(4);
+        TableDataViewTest.render(factory, 1, 1);
+
+        assertEquals(1, converter.conversions.get());
+
+        factory.setConverter(replacement);
+        TableDataViewTest.render(factory, 1, 1);
+
+        assertEquals(1, converter.conversions.get());
+        assertEquals(1, replacement.conversions.get());
+
+        replacement.configure(new IStringConverterConfiguration() {
+            // a new configuration.
+        });
+        TableDataViewTest.render(factory, 1);
+
+        assertEquals(2, replacement.conversions.get());
+
+        factory.setConverter(converter);
+        replacement.configure(null);
+        TableDataViewTest.render(factory, 1);
+
+        assertEquals(2, converter.conversions.get());
+        assertEquals(2, replacement.conversions.get());
+        assertEquals(2, factory.getTextCacheHits());
+        assertEquals(4, factory.getTextCacheMisses());
+    }
+
+
+    private static List<String> render(
+            final TableDataView.TableCellFactory<Integer> factory,
+            final Integer... items) {
+
+        final List<String> texts = new ArrayList<>();
+
+        for (final Integer item : items) {
+
+            texts.add(factory.toText(item));
+        }
+
+        return texts;
+    }
+
+
+    /**
+     * A configurable converter counting its conversions.
+     */
+    private static final class CountingConverter
+            extends StringConverter<Integer>
+            implements IConfigurableStringConverter<Integer> {
+
+        private final AtomicInteger                                  conversions;
+        private final ObjectProperty<IStringConverterConfiguration> configuration;
+
+
+        private CountingConverter() {
+
+            this.conversions = new AtomicInteger();
+            this.configuration = new SimpleObjectProperty<>();
+        }
+
+        @Override
+        public String toString(final Integer object) {
+
+            this.conversions.incrementAndGet();
+            return "#" + object;
+        }
+
+        @Override
+        public Integer fromString(final String string) {
+
+            return Integer.valueOf(string.substring(1));
+        }
+
+        @Override
+        public ObjectProperty<IStringConverterConfiguration> configuration() {
+
+            return this.configuration;
+        }
+
+        @Override
+        public void configure(
+                final IStringConverterConfiguration configuration) {
+
+            this.configuration.set(configuration);
+        }
+
+        @Override
+        public IStringConverterConfiguration getConfiguration() {
+
+            return this.configuration.get();
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import javafx.collections.ListChangeListener;
+
+import org.junit.Test;
+import org.jutility.javafx.collections.ListTable;
+
+
+/**
+ * Tests the {@link TableRowList} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class TableRowListTest {
+
+    private static List<Integer> values(final TableRowList<Integer> list) {
+
+        final List<Integer> values = new ArrayList<>(list.size());
+
+        for (final List<Integer> row : list) {
+
+            values.add(row.get(0));
+        }
+
+        return values;
+    }
+
+    private static List<Object> keys(final TableRowList<Integer> list) {
+
+        final List<Object> keys = new ArrayList<>(list.size());
+
+        for (int i = 0; i < list.size(); i++) {
+
+            keys.add(list.getRowKey(i));
+        }
+
+        return keys;
+    }
+
+    /**
+     * Orders the rows of the provided table descending by their value,
+     * without the value {@code 20}.
+     */
+    private static TableRowList<Integer> descending(
+            final ListTable<Integer> table) {
+
+        final TableRowList<Integer> list = new TableRowList<>(table);
+        final IntBinaryOperator comparator = (first, second) -> {
+
+            final int result = Integer.compare(table.get(second, 0),
+                    table.get(first, 0));
+
+            return (result != 0) ? result : Integer.compare(first, second);
+        };
+        final List<Integer> rows = new ArrayList<>();
+
+        for (int row = 0; row < table.rows(); row++) {
+
+            if (table.get(row, 0) != 20) {
+
+                rows.add(row);
+            }
+        }
+        rows.sort(comparator::applyAsInt);
+
+        list.setRowOrder(rows.stream()
+                             .mapToInt(Integer::intValue)
+                             .toArray(),
+                (row) -> table.get(row, 0) != 20, comparator);
+
+        return list;
+    }
+
+    private static List<String> changes(final TableRowList<Integer> list) {
+
+        final List<String> changes = new ArrayList<>();
+
+        list.addListener((ListChangeListener<List<Integer>>) (change) -> {
+
+            final StringBuilder description = new StringBuilder();
+
+            while (change.next()) {
+
+                if (change.wasUpdated()) {
+
+                    description.append("~")
+                               .append(change.getFrom())
+                               .append("-")
+                               .append(change.getTo());
+                }
+                if (change.wasRemoved()) {
+
+                    description.append("-")
+                               .append(change.getFrom())
+                               .append(change.getRemoved());
+                }
+                if (change.wasAdded()) {
+
+                    description.append("+")
+                               .append(change.getFrom())
+                               .append("-")
+                               .append(change.getTo());
+                }
+            }
+            changes.add(description.toString());
+        });
+
+        return changes;
+    }
+
+    /**
+     * Row views are compared by their elements, like any other list.
+     */
+    @Test
+    public void testRowViewsAreComparedByElements() {
+
+        final ListTable<Integer> table = ListTable.of(3, 2, (row,
+                column) -> row / 2);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+
+        assertEquals(Arrays.asList(0, 0), list.get(0));
+        assertEquals(list.get(0), list.get(1));
+        assertEquals(list.get(0)
+                         .hashCode(), Arrays.asList(0, 0)
+                                            .hashCode());
+        assertNotEquals(list.get(1), list.get(2));
+    }
+
+    /**
+     * An updated cell only changes the key of its row.
+     */
+    @Test
+    public void testCellUpdateOnlyChangesUpdatedRow() {
+
+        final ListTable<Integer> table = ListTable.of(3, 2, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+        final List<Object> before = TableRowListTest.keys(list);
+
+        table.set(1, 0, 42);
+
+        assertEquals(before.get(0), list.getRowKey(0));
+        assertNotEquals(before.get(1), list.getRowKey(1));
+        assertEquals(before.get(2), list.getRowKey(2));
+        assertEquals(Arrays.asList(42, 1), list.get(1));
+    }
+
+    /**
+     * Rows reported as updated only change their keys.
+     */
+    @Test
+    public void testRowsUpdatedOnlyChangesUpdatedRows() {
+
+        final ListTable<Integer> table = ListTable.of(4, 1, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+        final List<Object> before = TableRowListTest.keys(list);
+        final List<Integer> updates = new ArrayList<>();
+
+        list.addListener((ListChangeListener<List<Integer>>) (change) -> {
+
+            while (change.next()) {
+
+                if (change.wasUpdated()) {
+
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+
+                        updates.add(i);
+                    }
+                }
+            }
+        });
+
+        final BitSet updated = new BitSet();
+        updated.set(0);
+        updated.set(3);
+        list.rowsUpdated(updated);
+
+        assertEquals(Arrays.asList(0, 3), updates);
+        assertNotEquals(before.get(0), list.getRowKey(0));
+        assertEquals(before.get(1), list.getRowKey(1));
+        assertEquals(before.get(2), list.getRowKey(2));
+        assertNotEquals(before.get(3), list.getRowKey(3));
+    }
+
+    /**
+     * Appended rows neither change the views nor the keys of the existing
+     * rows, while inserted rows only change the keys of the rows they move.
+     */
+    @Test
+    public void testInsertedRowsOnlyChangeMovedRows() {
+
+        final ListTable<Integer> table = ListTable.of(3, 1, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+
+        table.set(1, 0, 5);
+
+        final List<Integer> view = list.get(1);
+        final List<Object> before = TableRowListTest.keys(list);
+
+        table.insert(3, Arrays.asList(3));
+
+        assertEquals(4, list.size());
+        assertEquals(view, list.get(1));
+        assertEquals(before, TableRowListTest.keys(list)
+                                             .subList(0, 3));
+
+        table.insert(1, Arrays.asList(9));
+
+        assertEquals(before.get(0), list.getRowKey(0));
+        assertNotEquals(before.get(1), list.getRowKey(1));
+        assertNotEquals(before.get(1), list.getRowKey(2));
+        assertNotEquals(before.get(2), list.getRowKey(2));
+        assertNotEquals(before.get(2), list.getRowKey(3));
+        assertEquals(Arrays.asList(0, 9, 5, 2, 3), TableRowListTest.values(
+                list));
+    }
+
+    /**
+     * Removed rows change the keys of all rows.
+     */
+    @Test
+    public void testStructuralChangeChangesAllRows() {
+
+        final ListTable<Integer> table = ListTable.of(3, 1, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+
+        table.set(2, 0, 7);
+
+        final List<Object> before = TableRowListTest.keys(list);
+
+        table.remove(0);
+
+        assertEquals(2, list.size());
+        assertNotEquals(before.get(0), list.getRowKey(0));
+        assertNotEquals(before.get(1), list.getRowKey(1));
+        assertEquals(Arrays.asList(7), list.get(1));
+    }
+
+    /**
+     * The rows removed by a new order are the rows in their previous order,
+     * and the new order changes the keys of all rows.
+     */
+    @Test
+    public void testRemovedRowsEqualPreviousViews() {
+
+        final ListTable<Integer> table = ListTable.of(3, 1, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+
+        table.set(1, 0, 5);
+
+        final List<List<Integer>> before = new ArrayList<>(list);
+        final List<Object> keys = TableRowListTest.keys(list);
+        final List<List<Integer>> removed = new ArrayList<>();
+
+        list.addListener((ListChangeListener<List<Integer>>) (change) -> {
+
+            while (change.next()) {
+
+                removed.addAll(change.getRemoved());
+            }
+        });
+
+        list.setRowOrder(new int[] { 2 });
+
+        assertEquals(before, removed);
+        assertEquals(1, list.size());
+        assertEquals(before.get(2), list.get(0));
+        assertNotEquals(keys.get(2), list.getRowKey(0));
+    }
+
+    /**
+     * Inserted rows are merged into a sorted and filtered order.
+     */
+    @Test
+    public void testInsertedRowsAreMergedIntoOrder() {
+
+        final ListTable<Integer> table = ListTable.of(5, 1, (row,
+                column) -> row * 10);
+        final TableRowList<Integer> list = TableRowListTest.descending(table);
+        final List<String> changes = TableRowListTest.changes(list);
+
+        assertEquals(Arrays.asList(40, 30, 10, 0),
+                TableRowListTest.values(list));
+
+        table.insert(2, Arrays.asList(25));
+        table.insert(0, Arrays.asList(20));
+        table.insert(0, Arrays.asList(50));
+
+        assertEquals(Arrays.asList(50, 40, 30, 25, 10, 0),
+                TableRowListTest.values(list));
+        // the rejected row is not reported.
+        assertEquals(Arrays.asList("+2-3", "+0-1"), changes);
+        assertTrue(list.isRowOrdered());
+    }
+
+    /**
+     * Removed rows are removed from the order.
+     */
+    @Test
+    public void testRemovedRowsAreRemovedFromOrder() {
+
+        final ListTable<Integer> table = ListTable.of(5, 1, (row,
+                column) -> row * 10);
+        final TableRowList<Integer> list = TableRowListTest.descending(table);
+        final List<String> changes = TableRowListTest.changes(list);
+
+        table.remove(3);
+        table.remove(1);
+
+        assertEquals(Arrays.asList(40, 0), TableRowListTest.values(list));
+        assertEquals(Arrays.asList("-1[[30]]", "-1[[10]]"), changes);
+        assertEquals(2, list.getRowOrder().length);
+    }
+
+    /**
+     * The cell events of a batch are reported as a single change.
+     */
+    @Test
+    public void testBatchedUpdatesFireOneChange() {
+
+        final ListTable<Integer> table = ListTable.of(5, 1, (row,
+                column) -> row);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+        final List<String> changes = TableRowListTest.changes(list);
+
+        list.beginUpdate();
+        table.set(1, 0, 10);
+        table.set(2, 0, 20);
+        table.set(1, 0, 11);
+        table.set(4, 0, 40);
+        assertTrue(changes.isEmpty());
+        list.endUpdate();
+
+        assertEquals(Arrays.asList("~1-3~4-5"), changes);
+        assertEquals(Arrays.asList(0, 11, 20, 3, 40),
+                TableRowListTest.values(list));
+    }
+
+    /**
+     * Rows appended after an order was computed are merged into the order
+     * when it is set, and rows appended later on are merged as well, both by
+     * the filter and the comparator of the order.
+     */
+    @Test
+    public void testAppendedRowsAreMergedIntoOrder() {
+
+        final ListTable<Integer> table = ListTable.of(4, 1, (row,
+                column) -> row * 10);
+        final TableRowList<Integer> list = new TableRowList<>(table);
+        final IntBinaryOperator descending = (first, second) -> Integer
+                .compare(table.get(second, 0), table.get(first, 0));
+        final int[] order = { 3, 2, 1, 0 };
+
+        table.appendSilently(Arrays.asList(Arrays.asList(25), Arrays.asList(
+                5)));
+        list.rowsAppended();
+        list.setRowOrder(order, (row) -> table.get(row, 0) != 5, descending,
+                4);
+
+        assertEquals(Arrays.asList(30, 25, 20, 10, 0), TableRowListTest
+                .firstColumn(list));
+
+        table.appendSilently(Arrays.asList(Arrays.asList(15), Arrays.asList(
+                35)));
+        list.rowsAppended();
+
+        assertEquals(Arrays.asList(35, 30, 25, 20, 15, 10, 0),
+                TableRowListTest.firstColumn(list));
+    }
+
+    private static List<Integer> firstColumn(final List<List<Integer>> rows) {
+
+        final List<Integer> values = new ArrayList<>();
+
+        for (final List<Integer> row : rows) {
+
+            values.add(row.get(0));
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,101 @@
+package org.jutility.javafx.control;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jutility.javafx.collections.ComputedTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the cell values requested for one frame of a
+ * {@link TableDataView} scrolling through a table of 100 columns and
+ * 1,000,000 rows, one page (40 rows) per frame.
+ * <p>
+ * Run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main TableScrollingBenchmark -prof gc};
+ * {@code gc.alloc.rate.norm} reports the bytes allocated per frame.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableScrollingBenchmark {
+
+    private TableRowList<Integer>                              rows;
+    private List<TableDataView.TableCellValueFactory<Integer>> factories;
+    private int                                                offset;
+
+
+    /**
+     * Creates the rows and the cell value factories of the columns.
+     */
+    @Setup
+    public void setUp() {
+
+        this.rows = new TableRowList<>(new ComputedTable(
+                TableCellValueFactoryTest.ROWS,
+                TableCellValueFactoryTest.COLUMNS));
+        this.factories = TableCellValueFactoryTest.factories();
+        this.offset = 0;
+    }
+
+
+    /**
+     * Requests the values of the cells visible in the next frame.
+     *
+     * @return the sum of the values.
+     */
+    @Benchmark
+    public int frame() {
+
+        this.offset += TableCellValueFactoryTest.VISIBLE_ROWS;
+
+        return TableCellValueFactoryTest.frame(this.rows, this.factories,
+                this.offset);
+    }
+}
@@ -0,0 +1,769 @@
+package org.jutility.javafx.control.validation;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Control;
+import javafx.scene.control.TextField;
+
+import org.controlsfx.tools.ValueExtractor;
+import org.controlsfx.validation.ValidationResult;
+import org.jutility.javafx.JavaFXTestSupport;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link ValidationSupport} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class ValidationSupportTest {
+
+    private static final int CHURN = 100000;
+
+
+    /**
+     * Starts the JavaFX toolkit, and registers the extractor of the value of
+     * the {@link ValueControl}.
+     */
+    @BeforeClass
+    public static void startToolkit() {
+
+        JavaFXTestSupport.startToolkit();
+        ValueExtractor.addObservableValueExtractor(
+                (c) -> c instanceof ValueControl,
+                (c) -> ((ValueControl) c).value);
+    }
+
+
+    /**
+     * Waits until the provided number of validation passes was performed.
+     */
+    private static void waitForPasses(final ValidationSupport support,
+            final long passes)
+            throws Exception {
+
+        JavaFXTestSupport.waitFor(() -> support.getStatistics()
+                                               .getPasses() >= passes);
+    }
+
+    /**
+     * A failing validator results in an error of its control, and does not
+     * keep the other controls of the pass from being validated and
+     * decorated.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testFailingValidator()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final TextField failing = JavaFXTestSupport.call(TextField::new);
+        final TextField required = JavaFXTestSupport.call(TextField::new);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.registerValidator(failing, (final Control c,
+                    final String value) -> {
+
+                if ("fail".equals(value)) {
+
+                    throw new IllegalStateException("failing validator");
+                }
+                return new ValidationResult();
+            });
+            support.registerValidator(required, (final Control c,
+                    final String value) -> ValidationResult.fromErrorIf(c,
+                            "required", value.isEmpty()));
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.resetStatistics();
+            failing.setText("fail");
+            required.setText("");
+            required.setText(null);
+            required.setText("");
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(1, support.getStatistics()
+                                   .getPasses());
+            assertEquals(2, support.getErrorCount());
+            assertEquals(ValidationSupport.VALIDATION_FAILED_MESSAGE, support
+                    .getHighestMessage(failing)
+                    .get()
+                    .getText());
+            assertEquals("required", support.getHighestMessage(required)
+                                            .get()
+                                            .getText());
+            assertEquals(2, support.getValidationResult()
+                                   .getErrors()
+                                   .size());
+        });
+        JavaFXTestSupport.waitFor(() -> support.getDecorationsApplied() == 2);
+    }
+
+    /**
+     * The aggregate result is only invalidated if the messages of a control
+     * changed, and reflects the current messages of all controls.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testAggregateResultOnlyChangesWithMessages()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final TextField first = JavaFXTestSupport.call(TextField::new);
+        final TextField second = JavaFXTestSupport.call(TextField::new);
+        final AtomicInteger invalidations = new AtomicInteger();
+
+        JavaFXTestSupport.run(() -> {
+
+            for (final TextField field : Arrays.asList(first, second)) {
+
+                support.registerValidator(field, (final Control c,
+                        final String value) -> ValidationResult.fromErrorIf(c,
+                                "too long", value.length() > 3));
+            }
+            support.validationResultProperty()
+                   .addListener((observable) -> invalidations
+                           .incrementAndGet());
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.resetStatistics();
+            invalidations.set(0);
+            first.setText("a");
+            second.setText("b");
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(0, invalidations.get());
+            assertTrue(support.getValidationResult()
+                              .getMessages()
+                              .isEmpty());
+
+            first.setText("long");
+        });
+        ValidationSupportTest.waitForPasses(support, 2);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(1, invalidations.get());
+            assertEquals(1, support.getValidationResult()
+                                   .getErrors()
+                                   .size());
+
+            first.setText("longer");
+            second.setText("longer");
+        });
+        ValidationSupportTest.waitForPasses(support, 3);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(2, invalidations.get());
+            assertEquals(2, support.getValidationResult()
+                                   .getErrors()
+                                   .size());
+
+            first.setText("longest");
+        });
+        ValidationSupportTest.waitForPasses(support, 4);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(2, invalidations.get());
+
+            support.unregisterValidator(second);
+
+            assertEquals(3, invalidations.get());
+            assertEquals(1, support.getValidationResult()
+                                   .getErrors()
+                                   .size());
+        });
+    }
+
+    /**
+     * Only the control whose message changed is re-decorated, however many
+     * controls are registered, and a new message with the same severity and
+     * text does not re-decorate its control.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testOnlyChangedDecorationsAreApplied()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final List<TextField> fields = new ArrayList<>();
+
+        JavaFXTestSupport.run(() -> {
+
+            for (int i = 0; i < 20; i++) {
+
+                final TextField field = new TextField();
+
+                support.registerValidator(field, (final Control c,
+                        final String value) -> ValidationResult.fromErrorIf(c,
+                                "too long", value.length() > 3));
+                fields.add(field);
+            }
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        // the first change of the data decorates all controls.
+        JavaFXTestSupport.run(() -> fields.get(0)
+                                          .setText("a"));
+        ValidationSupportTest.waitForPasses(support, 2);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.resetStatistics();
+            fields.get(7)
+                  .setText("long");
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(1, support.getDecorationsApplied());
+
+            fields.get(7)
+                  .setText("longer");
+        });
+        ValidationSupportTest.waitForPasses(support, 2);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals(1, support.getDecorationsApplied());
+            assertEquals("too long", support.getHighestMessage(fields.get(7))
+                                            .get()
+                                            .getText());
+
+            fields.get(7)
+                  .setText("ok");
+        });
+        ValidationSupportTest.waitForPasses(support, 3);
+
+        JavaFXTestSupport.run(() -> assertEquals(2, support
+                .getDecorationsApplied()));
+    }
+
+    /**
+     * Asynchronous validators are applied by daemon threads of the support,
+     * and failing validators report a stable error message.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testAsyncValidator()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final TextField field = JavaFXTestSupport.call(TextField::new);
+        final AtomicReference<Thread> validator = new AtomicReference<>();
+
+        JavaFXTestSupport.run(() -> support.registerAsyncValidator(field,
+                (final Control c, final String value) -> {
+
+                    validator.set(Thread.currentThread());
+
+                    if ("fail".equals(value)) {
+
+                        throw new IllegalStateException("failing validator");
+                    }
+                    return ValidationResult.fromErrorIf(c, "too long", value
+                            .length() > 3);
+                }));
+        JavaFXTestSupport.waitFor(() -> (validator.get() != null)
+                && !support.isPending());
+
+        assertTrue(validator.get()
+                            .isDaemon());
+        assertFalse(validator.get() instanceof ForkJoinWorkerThread);
+
+        JavaFXTestSupport.run(() -> field.setText("fail"));
+        JavaFXTestSupport.waitFor(() -> support.getHighestMessage(field)
+                                               .isPresent());
+
+        JavaFXTestSupport.run(() -> {
+
+            assertFalse(support.isPending(field));
+            assertEquals(ValidationSupport.VALIDATION_FAILED_MESSAGE, support
+                    .getHighestMessage(field)
+                    .get()
+                    .getText());
+        });
+    }
+
+    /**
+     * The validation of a previous value is interrupted once the value
+     * changes again, and its result is discarded even if the validator
+     * completes afterwards: the control stays pending until the result of
+     * the current value arrives.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testStaleAsyncResultIsDiscarded()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final TextField field = JavaFXTestSupport.call(TextField::new);
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch firstInterrupted = new CountDownLatch(1);
+        final CountDownLatch firstReleased = new CountDownLatch(1);
+        final AtomicReference<Thread> first = new AtomicReference<>();
+        final CountDownLatch firstDone = new CountDownLatch(1);
+        final CountDownLatch secondStarted = new CountDownLatch(1);
+        final CountDownLatch secondReleased = new CountDownLatch(1);
+        final List<String> messages = new ArrayList<>();
+
+        JavaFXTestSupport.run(() -> {
+
+            // notes when the first validation handed its result to the
+            // support.
+            support.setExecutor((runnable) -> new Thread(() -> {
+
+                runnable.run();
+                if (Thread.currentThread() == first.get()) {
+
+                    firstDone.countDown();
+                }
+            }).start());
+            support.registerAsyncValidator(field, (final Control c,
+                    final String value) -> {
+
+                if ("first".equals(value)) {
+
+                    first.set(Thread.currentThread());
+                    firstStarted.countDown();
+                    ValidationSupportTest.awaitUninterruptibly(firstReleased,
+                            firstInterrupted);
+                    return ValidationResult.fromError(c, "first");
+                }
+                if ("second".equals(value)) {
+
+                    secondStarted.countDown();
+                    ValidationSupportTest.awaitUninterruptibly(
+                            secondReleased, null);
+                    return ValidationResult.fromError(c, "second");
+                }
+                return new ValidationResult();
+            });
+            support.validationResultProperty()
+                   .addListener((observable, oldValue, newValue) -> newValue
+                           .getMessages()
+                           .forEach((message) -> messages.add(message
+                                   .getText())));
+        });
+        JavaFXTestSupport.waitFor(() -> !support.isPending());
+
+        JavaFXTestSupport.run(() -> field.setText("first"));
+        assertTrue(firstStarted.await(30, TimeUnit.SECONDS));
+
+        JavaFXTestSupport.run(() -> field.setText("second"));
+        assertTrue(secondStarted.await(30, TimeUnit.SECONDS));
+        assertTrue(firstInterrupted.await(30, TimeUnit.SECONDS));
+
+        firstReleased.countDown();
+        assertTrue(firstDone.await(30, TimeUnit.SECONDS));
+
+        JavaFXTestSupport.run(() -> {
+
+            assertTrue(support.isPending(field));
+            assertTrue(support.isPending());
+            assertFalse(support.getHighestMessage(field)
+                               .isPresent());
+        });
+
+        secondReleased.countDown();
+        JavaFXTestSupport.waitFor(() -> !support.isPending(field));
+
+        JavaFXTestSupport.run(() -> {
+
+            assertEquals("second", support.getHighestMessage(field)
+                                          .get()
+                                          .getText());
+            assertFalse(messages.contains("first"));
+        });
+    }
+
+    /**
+     * Waits for the provided latch, counting down the provided latch (if
+     * any) if interrupted, as validators ignoring interruption do.
+     */
+    private static void awaitUninterruptibly(final CountDownLatch latch,
+            final CountDownLatch interrupted) {
+
+        while (true) {
+
+            try {
+
+                latch.await();
+                return;
+            }
+            catch (final InterruptedException e) {
+
+                if (interrupted != null) {
+
+                    interrupted.countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * An asynchronous validation rejected by the executor ends the pending
+     * state of its control with an error, and does not keep the other
+     * controls of the pass from being validated.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testRejectedAsyncValidation()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final TextField async = JavaFXTestSupport.call(TextField::new);
+        final TextField required = JavaFXTestSupport.call(TextField::new);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.setExecutor((runnable) -> {
+
+                throw new RejectedExecutionException("shut down");
+            });
+            support.registerAsyncValidator(async, (final Control c,
+                    final String value) -> new ValidationResult());
+            support.registerValidator(required, (final Control c,
+                    final String value) -> ValidationResult.fromErrorIf(c,
+                            "required", value.isEmpty()));
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            assertFalse(support.isPending());
+            assertEquals(ValidationSupport.VALIDATION_FAILED_MESSAGE, support
+                    .getHighestMessage(async)
+                    .get()
+                    .getText());
+            assertEquals("required", support.getHighestMessage(required)
+                                            .get()
+                                            .getText());
+        });
+    }
+
+    /**
+     * Churning the validated value, and the observable collection it
+     * references, neither accumulates listeners nor validations: each
+     * observable keeps at most one listener of the support, and the churn is
+     * validated in a single pass.
+     *
+     * @throws Exception
+     *             if the test fails.
+     */
+    @Test
+    public void testValueChurnKeepsListenersBounded()
+            throws Exception {
+
+        final ValidationSupport support = JavaFXTestSupport
+                .call(ValidationSupport::new);
+        final ValueControl control = JavaFXTestSupport.call(ValueControl::new);
+        final CountingList first = new CountingList();
+        final CountingList second = new CountingList();
+
+        JavaFXTestSupport.run(() -> {
+
+            for (int i = 0; i < 100; i++) {
+
+                support.registerValidator(control, (final Control c,
+                        final Object value) -> ValidationResult.fromErrorIf(c,
+                                "empty", (value instanceof List)
+                                        && ((List<?>) value).isEmpty()));
+            }
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            support.resetStatistics();
+
+            for (int i = 0; i < ValidationSupportTest.CHURN; i++) {
+
+                switch (i % 3) {
+
+                    case 0:
+                        control.value.set(first);
+                        first.add(i);
+                        break;
+                    case 1:
+                        control.value.set(second);
+                        second.add(i);
+                        first.remove(0);
+                        break;
+                    default:
+                        control.value.set(i);
+                        second.remove(0);
+                        break;
+                }
+            }
+            control.value.set(first);
+            first.clear();
+
+            assertEquals(1, control.value.listeners.size());
+            assertEquals(1, first.listeners.size());
+            assertEquals(0, second.listeners.size());
+        });
+        ValidationSupportTest.waitForPasses(support, 1);
+
+        JavaFXTestSupport.run(() -> {
+
+            final ValidationStatistics statistics = support.getStatistics();
+
+            assertTrue(statistics.getRequests() >= ValidationSupportTest.CHURN);
+            assertEquals(1, statistics.getPasses());
+            assertEquals(1, statistics.getValidations());
+            assertEquals(1, support.getErrorCount());
+
+            support.unregisterValidator(control);
+
+            assertEquals(0, control.value.listeners.size());
+            assertEquals(0, first.listeners.size());
+        });
+    }
+
+
+    /**
+     * A control whose validated value is a property counting its listeners.
+     */
+    private static final class ValueControl
+            extends Control {
+
+        private final CountingProperty value = new CountingProperty();
+    }
+
+
+    /**
+     * A property counting its listeners.
+     */
+    private static final class CountingProperty
+            extends SimpleObjectProperty<Object> {
+
+        private final List<Object> listeners = new ArrayList<>();
+
+
+        @Override
+        public void addListener(final InvalidationListener listener) {
+
+            this.listeners.add(listener);
+            super.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(final InvalidationListener listener) {
+
+            this.listeners.remove(listener);
+            super.removeListener(listener);
+        }
+
+        @Override
+        public void addListener(
+                final ChangeListener<? super Object> listener) {
+
+            this.listeners.add(listener);
+            super.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(
+                final ChangeListener<? super Object> listener) {
+
+            this.listeners.remove(listener);
+            super.removeListener(listener);
+        }
+    }
+
+
+    /**
+     * An observable list counting its listeners.
+     */
+    private static final class CountingList
+            extends AbstractList<Object>
+            implements ObservableList<Object> {
+
+        private final ObservableList<Object> elements  = FXCollections
+                .observableArrayList();
+        private final List<Object>           listeners = new ArrayList<>();
+
+
+        @Override
+        public void addListener(final InvalidationListener listener) {
+
+            this.listeners.add(listener);
+            this.elements.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(final InvalidationListener listener) {
+
+            this.listeners.remove(listener);
+            this.elements.removeListener(listener);
+        }
+
+        @Override
+        public void addListener(
+                final ListChangeListener<? super Object> listener) {
+
+            this.listeners.add(listener);
+            this.elements.addListener(listener);
+        }
+
+        @Override
+        public void removeListener(
+                final ListChangeListener<? super Object> listener) {
+
+            this.listeners.remove(listener);
+            this.elements.removeListener(listener);
+        }
+
+        @Override
+        public Object get(final int index) {
+
+            return this.elements.get(index);
+        }
+
+        @Override
+        public int size() {
+
+            return this.elements.size();
+        }
+
+        @Override
+        public void add(final int index, final Object element) {
+
+            this.elements.add(index, element);
+        }
+
+        @Override
+        public Object set(final int index, final Object element) {
+
+            return this.elements.set(index, element);
+        }
+
+        @Override
+        public Object remove(final int index) {
+
+            return this.elements.remove(index);
+        }
+
+        @Override
+        public boolean addAll(final Object... elements) {
+
+            return this.elements.addAll(elements);
+        }
+
+        @Override
+        public boolean setAll(final Object... elements) {
+
+            return this.elements.setAll(elements);
+        }
+
+        @Override
+        public boolean setAll(final Collection<? extends Object> elements) {
+
+            return this.elements.setAll(elements);
+        }
+
+        @Override
+        public boolean removeAll(final Object... elements) {
+
+            return this.elements.removeAll(elements);
+        }
+
+        @Override
+        public boolean retainAll(final Object... elements) {
+
+            return this.elements.retainAll(elements);
+        }
+
+        @Override
+        public void remove(final int from, final int to) {
+
+            this.elements.remove(from, to);
+        }
+    }
+}
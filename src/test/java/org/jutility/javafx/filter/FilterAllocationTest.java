@@ -0,0 +1,194 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import javafx.util.StringConverter;
+
+import org.junit.Test;
+
+
+/**
+ * Verifies that {@link StringFilter#test(Object)} does not allocate in the
+ * substring, fuzzy, and query modes, and that it records its statistics.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class FilterAllocationTest {
+
+    private static final int  ITEMS           = 1000;
+    private static final int  ROUNDS          = 200;
+    // generous bound for allocations of the measurement itself.
+    private static final long MAX_ALLOCATIONS = 16 * 1024;
+
+
+    private static long allocatedBytes(final StringFilter<String> filter,
+            final String[] items) {
+
+        final java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) bean;
+        final long thread = Thread.currentThread()
+                                  .getId();
+
+        // warm up, so that lazily initialized state is in place.
+        for (final String item : items) {
+
+            filter.test(item);
+        }
+
+        final long before = threads.getThreadAllocatedBytes(thread);
+
+        for (int round = 0; round < FilterAllocationTest.ROUNDS; round++) {
+
+            for (final String item : items) {
+
+                filter.test(item);
+            }
+        }
+
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    private static void assertAllocationFree(
+            final Consumer<StringFilter<String>> configuration) {
+
+        final Random random = new Random(3);
+        final String[] items = new String[FilterAllocationTest.ITEMS];
+
+        for (int i = 0; i < items.length; i++) {
+
+            items[i] = StringFilterBenchmark.randomWord(random, 24);
+        }
+
+        final StringFilter<String> filter = new StringFilter<>();
+
+        configuration.accept(filter);
+
+        final long allocated = FilterAllocationTest.allocatedBytes(filter,
+                items);
+
+        assertTrue(allocated + " bytes allocated",
+                allocated < FilterAllocationTest.MAX_ALLOCATIONS);
+    }
+
+
+    /**
+     * Case-insensitive substring matching does not allocate.
+     */
+    @Test
+    public void testSubstringDoesNotAllocate() {
+
+        FilterAllocationTest.assertAllocationFree((filter) -> {
+
+            filter.setCaseSensitive(false);
+            filter.setFilterString("aBc");
+        });
+    }
+
+    /**
+     * Fuzzy matching does not allocate.
+     */
+    @Test
+    public void testFuzzyDoesNotAllocate() {
+
+        FilterAllocationTest.assertAllocationFree((filter) -> {
+
+            filter.setCaseSensitive(false);
+            filter.setFuzzy(true);
+            filter.setFilterString("abc");
+        });
+    }
+
+    /**
+     * Query matching does not allocate.
+     */
+    @Test
+    public void testQueryDoesNotAllocate() {
+
+        FilterAllocationTest.assertAllocationFree((filter) -> {
+
+            filter.getFieldConverters()
+                  .put("name", new StringConverter<String>() {
+
+                      @Override
+                      public String toString(final String object) {
+
+                          return object;
+                      }
+
+                      @Override
+                      public String fromString(final String string) {
+
+                          return string;
+                      }
+                  });
+            filter.setCaseSensitive(false);
+            filter.setQuery(true);
+            filter.setFilterString("name:ab -xy OR c");
+        });
+    }
+
+    /**
+     * Every test is counted by the statistics.
+     */
+    @Test
+    public void testStatistics() {
+
+        final StringFilter<String> filter = new StringFilter<>();
+
+        filter.setFilterString("b");
+        filter.test("abc");
+        filter.test("xyz");
+
+        assertEquals(2, filter.getStatistics()
+                              .getItemsTested());
+        assertEquals(1, filter.getStatistics()
+                              .getMatches());
+
+        filter.getStatistics()
+              .reset();
+
+        assertEquals(0, filter.getStatistics()
+                              .getItemsTested());
+    }
+}
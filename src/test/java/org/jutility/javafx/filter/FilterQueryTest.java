@@ -0,0 +1,154 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link FilterQuery} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class FilterQueryTest {
+
+    private static FilterQuery<String[]> compile(final String query,
+            final Map<String, Function<String[], String>> fields) {
+
+        return FilterQuery.compile(query, (item) -> item[0], fields, false);
+    }
+
+    private static Map<String, Function<String[], String>> statusField(
+            final AtomicInteger extractions) {
+
+        final Map<String, Function<String[], String>> fields = new HashMap<>();
+
+        fields.put("status", (item) -> {
+
+            extractions.incrementAndGet();
+            return item[1];
+        });
+
+        return fields;
+    }
+
+    private static String[] item(final String name, final String status) {
+
+        return new String[] { name, status };
+    }
+
+
+    /**
+     * Conjunctions, disjunctions, negations, groups, and phrases.
+     */
+    @Test
+    public void testOperators() {
+
+        final FilterQuery<String[]> query = FilterQueryTest.compile(
+                "(foo OR bar) -baz \"x y\"", null);
+
+        assertTrue(query.test(FilterQueryTest.item("foo x y", "")));
+        assertTrue(query.test(FilterQueryTest.item("BAR x y", "")));
+        assertFalse(query.test(FilterQueryTest.item("foo baz x y", "")));
+        assertFalse(query.test(FilterQueryTest.item("foo xy", "")));
+        assertFalse(query.test(FilterQueryTest.item("qux x y", "")));
+    }
+
+    /**
+     * Field-scoped terms are matched against the field; unknown fields are
+     * matched as part of the term.
+     */
+    @Test
+    public void testFields() {
+
+        final FilterQuery<String[]> query = FilterQueryTest.compile(
+                "status:open a:b", FilterQueryTest.statusField(
+                        new AtomicInteger()));
+
+        assertTrue(query.test(FilterQueryTest.item("a:b", "open")));
+        assertFalse(query.test(FilterQueryTest.item("a:b open", "closed")));
+        assertFalse(query.test(FilterQueryTest.item("b", "open")));
+    }
+
+    /**
+     * Empty and incomplete queries match everything.
+     */
+    @Test
+    public void testIncompleteQueries() {
+
+        assertTrue(FilterQueryTest.compile("", null)
+                                  .isMatchAll());
+        assertTrue(FilterQueryTest.compile("( \"", null)
+                                  .isMatchAll());
+        assertTrue(FilterQueryTest.compile("-", null)
+                                  .test(FilterQueryTest.item("x", "")));
+    }
+
+    /**
+     * Unscoped terms are evaluated before field-scoped terms, so that fields
+     * are only extracted if the unscoped terms do not decide the result.
+     */
+    @Test
+    public void testCheapTermsFirst() {
+
+        final AtomicInteger extractions = new AtomicInteger();
+
+        for (final String text : new String[] { "status:open foo",
+                "foo status:open" }) {
+
+            final FilterQuery<String[]> conjunction = FilterQueryTest
+                    .compile(text, FilterQueryTest.statusField(extractions));
+
+            assertFalse(conjunction.test(FilterQueryTest.item("bar", "open")));
+            assertTrue(conjunction.test(FilterQueryTest.item("foo", "open")));
+        }
+
+        assertEquals(2, extractions.get());
+
+        extractions.set(0);
+
+        final FilterQuery<String[]> disjunction = FilterQueryTest.compile(
+                "status:open OR foo", FilterQueryTest.statusField(
+                        extractions));
+
+        assertTrue(disjunction.test(FilterQueryTest.item("foo", "closed")));
+        assertEquals(0, extractions.get());
+    }
+}
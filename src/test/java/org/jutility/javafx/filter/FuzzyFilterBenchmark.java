@@ -0,0 +1,180 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares fuzzy matching with substring matching, and the selection of the
+ * best fuzzy matches with a bounded heap with sorting all matches.
+ * <p>
+ * Run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main FuzzyFilterBenchmark}.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyFilterBenchmark {
+
+    private static final int     ITEMS = 500000;
+    private static final int     LIMIT = 50;
+
+    private List<String>         items;
+    private StringFilter<String> substring;
+    private StringFilter<String> fuzzy;
+
+
+    /**
+     * Creates the items and the filters.
+     */
+    @Setup
+    public void setUp() {
+
+        final Random random = new Random(42);
+
+        this.items = new ArrayList<>(FuzzyFilterBenchmark.ITEMS);
+
+        for (int i = 0; i < FuzzyFilterBenchmark.ITEMS; i++) {
+
+            this.items.add(StringFilterBenchmark.randomWord(random, 24));
+        }
+
+        this.substring = new StringFilter<>();
+        this.substring.setCaseSensitive(false);
+        this.substring.setFilterString("abc");
+
+        this.fuzzy = new StringFilter<>();
+        this.fuzzy.setCaseSensitive(false);
+        this.fuzzy.setFuzzy(true);
+        this.fuzzy.setFilterString("abc");
+    }
+
+
+    /**
+     * Tests all items against the substring filter.
+     *
+     * @return the number of matches.
+     */
+    @Benchmark
+    public int substringTest() {
+
+        int matches = 0;
+
+        for (final String item : this.items) {
+
+            if (this.substring.test(item)) {
+
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Tests all items against the fuzzy filter.
+     *
+     * @return the number of matches.
+     */
+    @Benchmark
+    public int fuzzyTest() {
+
+        int matches = 0;
+
+        for (final String item : this.items) {
+
+            if (this.fuzzy.test(item)) {
+
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Selects the best fuzzy matches with a bounded heap.
+     *
+     * @return the best matches.
+     */
+    @Benchmark
+    public List<String> fuzzyTopMatches() {
+
+        return this.fuzzy.topMatches(this.items, FuzzyFilterBenchmark.LIMIT);
+    }
+
+    /**
+     * Selects the best fuzzy matches by sorting all matches.
+     *
+     * @return the best matches.
+     */
+    @Benchmark
+    public List<String> fuzzySortAll() {
+
+        final List<String> matches = new ArrayList<>();
+
+        for (final String item : this.items) {
+
+            if (this.fuzzy.test(item)) {
+
+                matches.add(item);
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(this.fuzzy::score)
+                               .reversed());
+
+        return matches.subList(0, Math.min(FuzzyFilterBenchmark.LIMIT,
+                matches.size()));
+    }
+}
@@ -0,0 +1,153 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares a case insensitive substring search narrowed by an
+ * {@link NGramIndex} with a linear scan of all items.
+ * <p>
+ * Run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main NGramIndexBenchmark}.
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+public class NGramIndexBenchmark {
+
+    /**
+     * The number of items.
+     */
+    @Param({ "10000", "100000", "1000000" })
+    public int                   items;
+
+    private List<String>         list;
+    private NGramIndex<String>   index;
+    private StringFilter<String> filter;
+    private String               needle;
+
+
+    /**
+     * Creates the items, the index, and the filter.
+     */
+    @Setup
+    public void setUp() {
+
+        final Random random = new Random(42);
+
+        this.list = new ArrayList<>(this.items);
+
+        for (int i = 0; i < this.items; i++) {
+
+            this.list.add(StringFilterBenchmark.randomWord(random, 16));
+        }
+
+        this.index = new NGramIndex<>((item) -> item);
+        this.index.observe(FXCollections.observableList(this.list));
+
+        this.needle = this.list.get(this.items / 2)
+                               .substring(4, 9);
+        this.filter = new StringFilter<>();
+        this.filter.setCaseSensitive(false);
+        this.filter.setFilterString(this.needle);
+    }
+
+
+    /**
+     * Tests all items against the filter.
+     *
+     * @return the number of matches.
+     */
+    @Benchmark
+    public int scan() {
+
+        int matches = 0;
+
+        for (final String item : this.list) {
+
+            if (this.filter.test(item)) {
+
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Tests the candidates reported by the index against the filter.
+     *
+     * @return the number of matches.
+     */
+    @Benchmark
+    public int indexed() {
+
+        final Set<String> candidates = this.index.candidates(this.needle,
+                false);
+        int matches = 0;
+
+        for (final String item : candidates) {
+
+            if (this.filter.test(item)) {
+
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+}
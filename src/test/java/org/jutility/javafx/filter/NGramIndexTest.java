@@ -0,0 +1,172 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link NGramIndex} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class NGramIndexTest {
+
+    private static Set<String> set(final String... items) {
+
+        return new HashSet<>(Arrays.asList(items));
+    }
+
+
+    /**
+     * The candidates are exactly the items containing all n-grams of the
+     * filter string.
+     */
+    @Test
+    public void testCandidates() {
+
+        final ObservableList<String> items = FXCollections
+                .observableArrayList("alphabet", "alpine", "beta", "Alps");
+        final NGramIndex<String> index = new NGramIndex<>((item) -> item);
+
+        index.observe(items);
+
+        assertEquals(NGramIndexTest.set("alphabet", "alpine", "Alps"),
+                new HashSet<>(index.candidates("alp", false)));
+        assertEquals(NGramIndexTest.set("alphabet"),
+                new HashSet<>(index.candidates("PHAB", false)));
+        assertTrue(index.candidates("xyz", false)
+                        .isEmpty());
+        assertNull(index.candidates("al", false));
+        assertEquals(4, index.size());
+    }
+
+    /**
+     * The index follows additions, removals, and replacements of the observed
+     * list.
+     */
+    @Test
+    public void testIncrementalUpdates() {
+
+        final ObservableList<String> items = FXCollections
+                .observableArrayList("one", "two");
+        final NGramIndex<String> index = new NGramIndex<>((item) -> item);
+
+        index.observe(items);
+
+        items.add("three");
+        items.remove("one");
+        items.set(0, "twelve");
+
+        assertTrue(index.candidates("one", false)
+                        .isEmpty());
+        assertEquals(NGramIndexTest.set("twelve"),
+                new HashSet<>(index.candidates("twe", false)));
+        assertEquals(NGramIndexTest.set("three"),
+                new HashSet<>(index.candidates("hre", false)));
+        assertEquals(2, index.size());
+
+        index.observe(null);
+        items.add("onerous");
+
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * An index built from a snapshot observes the list without being rebuilt.
+     */
+    @Test
+    public void testIndexSnapshot() {
+
+        final ObservableList<String> items = FXCollections
+                .observableArrayList("red", "green", "blue");
+        final NGramIndex<String> index = new NGramIndex<>((item) -> item);
+
+        index.index(Arrays.asList(items.toArray(new String[0])));
+        index.observe(items, false);
+        items.add("greenish");
+
+        assertEquals(NGramIndexTest.set("green", "greenish"),
+                new HashSet<>(index.candidates("een", false)));
+    }
+
+    /**
+     * The candidates reported by the index always include every item
+     * matching a substring search.
+     */
+    @Test
+    public void testCandidatesIncludeAllMatches() {
+
+        final Random random = new Random(7);
+        final ObservableList<String> items = FXCollections
+                .observableArrayList();
+
+        for (int i = 0; i < 2000; i++) {
+
+            items.add(StringFilterBenchmark.randomWord(random, 8));
+        }
+
+        final NGramIndex<String> index = new NGramIndex<>((item) -> item);
+        final StringFilter<String> filter = new StringFilter<>();
+
+        index.observe(items);
+        filter.setCaseSensitive(false);
+
+        for (int i = 0; i < 50; i++) {
+
+            final String needle = StringFilterBenchmark.randomWord(random, 3);
+            final Set<String> candidates = index.candidates(needle, false);
+
+            filter.setFilterString(needle);
+
+            for (final String item : items) {
+
+                if (filter.test(item)) {
+
+                    assertTrue(item + " / " + needle,
+                            candidates.contains(item));
+                }
+            }
+        }
+    }
+}
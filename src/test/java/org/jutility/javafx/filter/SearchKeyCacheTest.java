@@ -0,0 +1,137 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link SearchKeyCache} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class SearchKeyCacheTest {
+
+    /**
+     * Cached keys are returned without recomputation.
+     */
+    @Test
+    public void testHitsAndMisses() {
+
+        final SearchKeyCache<StringBuilder> cache = new SearchKeyCache<>();
+        final StringBuilder item = new StringBuilder("a");
+        final AtomicInteger computations = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+
+            assertEquals("a", cache.get(item, (value) -> {
+
+                computations.incrementAndGet();
+                return value.toString();
+            }));
+        }
+
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * A key computed while the item is invalidated is not retained.
+     */
+    @Test
+    public void testInvalidationDuringComputation() {
+
+        final SearchKeyCache<StringBuilder> cache = new SearchKeyCache<>();
+        final StringBuilder item = new StringBuilder("old");
+
+        assertEquals("old", cache.get(item, (value) -> {
+
+            final String key = value.toString();
+
+            // the item changes (and is invalidated) while its key is
+            // computed.
+            value.replace(0, value.length(), "new");
+            cache.invalidate(value);
+
+            return key;
+        }));
+
+        assertEquals("new", cache.get(item, StringBuilder::toString));
+    }
+
+    /**
+     * A key computed while the cache is cleared is not retained.
+     */
+    @Test
+    public void testClearDuringComputation() {
+
+        final SearchKeyCache<StringBuilder> cache = new SearchKeyCache<>();
+        final StringBuilder item = new StringBuilder("a");
+
+        cache.get(item, (value) -> {
+
+            cache.clear();
+            return "stale";
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals("a", cache.get(item, StringBuilder::toString));
+    }
+
+    /**
+     * Updates of an observed list invalidate the keys of the updated items.
+     */
+    @Test
+    public void testObservedListInvalidates() {
+
+        final SearchKeyCache<StringBuilder> cache = new SearchKeyCache<>();
+        final StringBuilder item = new StringBuilder("a");
+        final ObservableList<StringBuilder> list = FXCollections
+                .observableArrayList(item);
+
+        cache.observe(list);
+        cache.get(item, StringBuilder::toString);
+
+        item.append("b");
+        list.remove(0);
+
+        assertEquals("ab", cache.get(item, StringBuilder::toString));
+    }
+}
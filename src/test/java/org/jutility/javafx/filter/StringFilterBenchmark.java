@@ -0,0 +1,173 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Measures the throughput of {@link StringFilter#test(Object)} against the
+ * per-item recomputation the filter used to perform (re-reading the settings,
+ * folding both strings with {@code toLowerCase()}, and recompiling regular
+ * expressions with {@link String#matches(String)}).
+ * <p>
+ * Run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main StringFilterBenchmark};
+ * add {@code -prof gc} to compare the allocation rates (the compiled filter
+ * does not allocate per item, see {@link FilterAllocationTest}).
+ * </p>
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringFilterBenchmark {
+
+    private static final int     ITEMS = 100000;
+
+    /**
+     * The matching mode.
+     */
+    @Param({ "caseSensitive", "caseInsensitive", "regex" })
+    public String                mode;
+
+    private String[]             items;
+    private String               filterString;
+    private boolean              caseSensitive;
+    private boolean              regex;
+    private StringFilter<String> filter;
+
+
+    /**
+     * Creates the items and the filter.
+     */
+    @Setup
+    public void setUp() {
+
+        final Random random = new Random(42);
+
+        this.items = new String[StringFilterBenchmark.ITEMS];
+
+        for (int i = 0; i < this.items.length; i++) {
+
+            this.items[i] = StringFilterBenchmark.randomWord(random, 24);
+        }
+
+        this.caseSensitive = !"caseInsensitive".equals(this.mode);
+        this.regex = "regex".equals(this.mode);
+        this.filterString = this.regex ? ".*ab.*c.*" : "aBc";
+
+        this.filter = new StringFilter<>();
+        this.filter.setCaseSensitive(this.caseSensitive);
+        this.filter.setRegex(this.regex);
+        this.filter.setFilterString(this.filterString);
+    }
+
+
+    /**
+     * Filters all items with the compiled filter.
+     *
+     * @param blackhole
+     *            the blackhole.
+     */
+    @Benchmark
+    public void compiled(final Blackhole blackhole) {
+
+        for (final String item : this.items) {
+
+            blackhole.consume(this.filter.test(item));
+        }
+    }
+
+    /**
+     * Filters all items the way the filter used to, recomputing the settings
+     * for every item.
+     *
+     * @param blackhole
+     *            the blackhole.
+     */
+    @Benchmark
+    public void recomputed(final Blackhole blackhole) {
+
+        for (final String item : this.items) {
+
+            final boolean matches;
+
+            if (this.regex) {
+
+                matches = item.matches(this.filterString);
+            }
+            else if (this.caseSensitive) {
+
+                matches = item.contains(this.filterString);
+            }
+            else {
+
+                matches = item.toLowerCase().contains(
+                        this.filterString.toLowerCase());
+            }
+            blackhole.consume(matches);
+        }
+    }
+
+
+    static String randomWord(final Random random, final int length) {
+
+        final char[] characters = new char[length];
+
+        for (int i = 0; i < length; i++) {
+
+            final char c = (char) ('a' + random.nextInt(26));
+            characters[i] = random.nextBoolean() ? c : Character
+                    .toUpperCase(c);
+        }
+
+        return new String(characters);
+    }
+}
@@ -0,0 +1,303 @@
+package org.jutility.javafx.filter;
+
+
+
+//@formatter:off
+/*
+* #%L
+ * * jutility-javafx
+ * *
+ * %%
+ * Copyright (C) 2013 - 2014 jutility.org
+ * *
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+*/
+
+//@formatter:on
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Tests the matching modes of the {@link StringFilter} class.
+ *
+ * @author Peter J. Radics
+ * @version 0.1.2
+ * @since 0.1.2
+ */
+public class StringFilterTest {
+
+    private Locale               defaultLocale;
+    private StringFilter<String> filter;
+
+
+    /**
+     * Creates the filter under test.
+     */
+    @Before
+    public void setUp() {
+
+        this.defaultLocale = Locale.getDefault();
+        this.filter = new StringFilter<>();
+    }
+
+    /**
+     * Restores the default locale.
+     */
+    @After
+    public void tearDown() {
+
+        Locale.setDefault(this.defaultLocale);
+    }
+
+
+    /**
+     * An empty filter string matches everything.
+     */
+    @Test
+    public void testEmptyFilterMatchesAll() {
+
+        assertTrue(this.filter.test("anything"));
+
+        this.filter.setFilterString("");
+
+        assertTrue(this.filter.test("anything"));
+        assertTrue(this.filter.test(""));
+    }
+
+    /**
+     * Case-sensitive substring matching.
+     */
+    @Test
+    public void testCaseSensitiveSubstring() {
+
+        this.filter.setFilterString("ell");
+
+        assertTrue(this.filter.test("Hello"));
+        assertFalse(this.filter.test("HELLO"));
+        assertFalse(this.filter.test("el"));
+    }
+
+    /**
+     * Case-insensitive substring matching.
+     */
+    @Test
+    public void testCaseInsensitiveSubstring() {
+
+        this.filter.setCaseSensitive(false);
+        this.filter.setFilterString("eLL");
+
+        assertTrue(this.filter.test("Hello"));
+        assertTrue(this.filter.test("HELLO"));
+        assertTrue(this.filter.test("shell"));
+        assertFalse(this.filter.test("help"));
+    }
+
+    /**
+     * The case-insensitive filter string is folded like the values, so that
+     * characters whose lower case is longer (or locale-dependent) still match.
+     */
+    @Test
+    public void testCaseInsensitiveFoldingIsLocaleIndependent() {
+
+        this.filter.setCaseSensitive(false);
+
+        for (final Locale locale : new Locale[] { Locale.ROOT,
+                Locale.ENGLISH, new Locale("tr", "TR") }) {
+
+            Locale.setDefault(locale);
+
+            this.filter.setFilterString("\u0130STANBUL");
+            assertTrue(locale.toString(), this.filter.test("istanbul"));
+            assertTrue(locale.toString(), this.filter.test("ISTANBUL"));
+
+            this.filter.setFilterString("TITLE");
+            assertTrue(locale.toString(), this.filter.test("a title"));
+
+            this.filter.setFilterString("title");
+            assertTrue(locale.toString(), this.filter.test("A TITLE"));
+
+            this.filter.setFilterString(null);
+        }
+    }
+
+    /**
+     * Regular expressions have to match the entire value; invalid regular
+     * expressions match nothing.
+     */
+    @Test
+    public void testRegex() {
+
+        this.filter.setRegex(true);
+        this.filter.setFilterString("h.*o");
+
+        assertTrue(this.filter.test("hello"));
+        assertFalse(this.filter.test("shell"));
+
+        this.filter.setFilterString("(");
+
+        assertFalse(this.filter.test("("));
+    }
+
+    /**
+     * The filter uses the converter to obtain the search key.
+     */
+    @Test
+    public void testConverter() {
+
+        this.filter.setConverter(new javafx.util.StringConverter<String>() {
+
+            @Override
+            public String toString(final String object) {
+
+                return new StringBuilder(object).reverse().toString();
+            }
+
+            @Override
+            public String fromString(final String string) {
+
+                return string;
+            }
+        });
+        this.filter.setFilterString("cba");
+
+        assertTrue(this.filter.test("abc"));
+        assertFalse(this.filter.test("cba"));
+    }
+
+    /**
+     * Changing a setting recompiles the filter.
+     */
+    @Test
+    public void testSettingsChangesAreApplied() {
+
+        this.filter.setFilterString("abc");
+
+        assertFalse(this.filter.test("ABC"));
+
+        this.filter.setCaseSensitive(false);
+
+        assertTrue(this.filter.test("ABC"));
+
+        this.filter.setRegex(true);
+
+        assertFalse(this.filter.test("xabcx"));
+        assertTrue(this.filter.test("abc"));
+
+        this.filter.setFilterString("x.*");
+
+        assertTrue(this.filter.test("xabcx"));
+        assertEquals("x.*", this.filter.getFilterString());
+    }
+
+    /**
+     * Bulk filtering reports the same indices as testing each item, whether
+     * the items are tested sequentially or in parallel, for lists and arrays.
+     */
+    @Test
+    public void testFilterIndicesMatchesTest() {
+
+        this.filter.setCaseSensitive(false);
+        this.filter.setFilterString("7");
+        this.filter.setParallelThreshold(1000);
+        this.filter.setSplitThreshold(64);
+
+        for (final int size : new int[] { 0, 1, 63, 64, 999, 1000, 1001,
+                20000 }) {
+
+            final List<String> items = StringFilterTest.items(size);
+            final BitSet expected = new BitSet();
+
+            for (int i = 0; i < size; i++) {
+
+                if (this.filter.test(items.get(i))) {
+
+                    expected.set(i);
+                }
+            }
+
+            assertEquals("list of " + size, expected,
+                    this.filter.filterIndices(items));
+            assertEquals("array of " + size, expected, this.filter
+                    .filterIndices(items.toArray(new String[size])));
+        }
+    }
+
+    /**
+     * Bulk filtering stops testing items once it is cancelled.
+     */
+    @Test
+    public void testFilterIndicesCancellation() {
+
+        final AtomicInteger tested = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        this.filter.setConverter(new javafx.util.StringConverter<String>() {
+
+            @Override
+            public String toString(final String object) {
+
+                if (tested.incrementAndGet() >= 100) {
+
+                    cancelled.set(true);
+                }
+                return object;
+            }
+
+            @Override
+            public String fromString(final String string) {
+
+                return string;
+            }
+        });
+        this.filter.setFilterString("item");
+        this.filter.setParallelThreshold(1000);
+        this.filter.setSplitThreshold(64);
+
+        final List<String> items = StringFilterTest.items(100000);
+
+        final BitSet matches = this.filter.filterIndices(items,
+                cancelled::get);
+
+        assertTrue(String.valueOf(tested.get()), tested.get() < 10000);
+        assertEquals(tested.get(), matches.cardinality());
+    }
+
+
+    private static List<String> items(final int size) {
+
+        final List<String> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+
+            items.add("item " + i);
+        }
+        return items;
+    }
+}